@@ -1,16 +1,24 @@
 package com.dominikcebula.spring.ai.agent;
 
+import com.dominikcebula.spring.ai.agent.conversation.ConversationTurnSequencer;
+import com.dominikcebula.spring.ai.agent.history.TokenBudgetedChatHistoryAdvisor;
 import com.dominikcebula.spring.ai.agent.memory.MemoryRecorderAdvisor;
 import com.dominikcebula.spring.ai.agent.memory.MemoryRetrievalAdvisor;
+import com.dominikcebula.spring.ai.agent.metrics.AdvisorChainInstrumentation;
+import com.dominikcebula.spring.ai.agent.prompt.PromptContextAdvisor;
+import com.dominikcebula.spring.ai.agent.response.SemanticResponseCacheAdvisor;
+import com.dominikcebula.spring.ai.agent.tools.ToolUsage;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
-import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.client.advisor.ToolCallAdvisor;
 import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
@@ -19,15 +27,20 @@ import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
 @RequestMapping("/api/v1")
 public class AgentController {
     private final ChatClient chatClient;
+    private final ConversationTurnSequencer conversationTurnSequencer;
 
-    public AgentController(ChatClient.Builder chatClientBuilder, ToolCallbackProvider toolCallbackProvider, ChatMemory chatMemory, MemoryRecorderAdvisor memoryRecorderAdvisor, MemoryRetrievalAdvisor memoryRetrievalAdvisor) {
+    public AgentController(ChatClient.Builder chatClientBuilder, ConversationTurnSequencer conversationTurnSequencer, ToolCallbackProvider toolCallbackProvider, TokenBudgetedChatHistoryAdvisor chatHistoryAdvisor, MemoryRecorderAdvisor memoryRecorderAdvisor, MemoryRetrievalAdvisor memoryRetrievalAdvisor, SemanticResponseCacheAdvisor semanticResponseCacheAdvisor, PromptContextAdvisor promptContextAdvisor, ToolCallAdvisor toolCallAdvisor, AdvisorChainInstrumentation advisorChainInstrumentation) {
+        this.conversationTurnSequencer = conversationTurnSequencer;
         this.chatClient = chatClientBuilder
                 .defaultToolCallbacks(toolCallbackProvider)
-                .defaultAdvisors(
-                        MessageChatMemoryAdvisor.builder(chatMemory).build(),
+                .defaultAdvisors(advisorChainInstrumentation.instrument(List.of(
+                        chatHistoryAdvisor,
                         memoryRecorderAdvisor,
-                        memoryRetrievalAdvisor
-                )
+                        memoryRetrievalAdvisor,
+                        semanticResponseCacheAdvisor,
+                        promptContextAdvisor,
+                        toolCallAdvisor
+                )))
                 .defaultSystem(
                         """
                                 You are a helpful travel assistant who can help with booking flights, hotels, and rental cars.
@@ -56,10 +69,21 @@ public class AgentController {
 
     @GetMapping("/agent")
     public String generation(@RequestParam String userInput, @RequestParam UUID conversationId) {
-        return chatClient.prompt()
+        return conversationTurnSequencer.run(conversationId, () -> chatClient.prompt()
                 .user(userInput)
+                .toolContext(ToolUsage.toolContext(conversationId))
                 .advisors(advisorSpec -> advisorSpec.param(CONVERSATION_ID, conversationId))
                 .call()
-                .content();
+                .content());
+    }
+
+    @GetMapping(value = "/agent/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> generationStream(@RequestParam String userInput, @RequestParam UUID conversationId) {
+        return conversationTurnSequencer.stream(conversationId, () -> chatClient.prompt()
+                .user(userInput)
+                .toolContext(ToolUsage.toolContext(conversationId))
+                .advisors(advisorSpec -> advisorSpec.param(CONVERSATION_ID, conversationId))
+                .stream()
+                .content());
     }
 }
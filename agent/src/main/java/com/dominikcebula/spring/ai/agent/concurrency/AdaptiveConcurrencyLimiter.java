@@ -0,0 +1,244 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AdaptiveConcurrencyLimiter {
+    private static final String METRIC_PREFIX = "agent.model.concurrency";
+
+    private static final double THROTTLING_BACKOFF_RATIO = 0.5;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_SMOOTHING = 0.05;
+
+    private final String model;
+    private final ConcurrencyLimiterSettings settings;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<CallPriority, Condition> turns = new EnumMap<>(CallPriority.class);
+    private final Map<CallPriority, Timer> waitTimers = new EnumMap<>(CallPriority.class);
+    private final int[] queued = new int[CallPriority.values().length];
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private int backgroundInFlight;
+    private double smoothedLatencyNanos = -1;
+    private long lastDecreaseAt = System.nanoTime();
+
+    private AdaptiveConcurrencyLimiter(String model, ConcurrencyLimiterSettings settings, MeterRegistry meterRegistry) {
+        this.model = model;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.limit = settings.initialLimit();
+
+        for (CallPriority priority : CallPriority.values()) {
+            turns.put(priority, lock.newCondition());
+            waitTimers.put(priority, meterRegistry.timer(METRIC_PREFIX + ".wait", "model", model, "priority", priority.tag()));
+        }
+    }
+
+    // the gauges hold on to the limiter, so they are only registered once it is fully constructed
+    public static AdaptiveConcurrencyLimiter create(String model, ConcurrencyLimiterSettings settings, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(model, settings, meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + ".limit", limiter, registeredLimiter -> registeredLimiter.limit)
+                .tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in-flight", limiter, registeredLimiter -> registeredLimiter.inFlight)
+                .tag("model", model)
+                .register(meterRegistry);
+        for (CallPriority priority : CallPriority.values()) {
+            Gauge.builder(METRIC_PREFIX + ".queued", limiter, registeredLimiter -> registeredLimiter.queued(priority))
+                    .tag("model", model)
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry);
+        }
+
+        return limiter;
+    }
+
+    public Permit acquire(CallPriority priority) {
+        long requestedAt = System.nanoTime();
+
+        lock.lock();
+        try {
+            if (!canAcquire(priority)) {
+                awaitTurn(priority);
+            }
+
+            inFlight++;
+            if (priority == CallPriority.BACKGROUND) {
+                backgroundInFlight++;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long acquiredAt = System.nanoTime();
+        waitTimers.get(priority).record(acquiredAt - requestedAt, TimeUnit.NANOSECONDS);
+
+        return new Permit(priority, acquiredAt);
+    }
+
+    // background calls only take what user-facing calls leave, and never more than their share of the limit
+    private boolean canAcquire(CallPriority priority) {
+        int currentLimit = (int) limit;
+        if (inFlight >= currentLimit) {
+            return false;
+        }
+
+        return priority == CallPriority.INTERACTIVE
+                || (queued[CallPriority.INTERACTIVE.ordinal()] == 0
+                && backgroundInFlight < Math.max(1, (int) (currentLimit * settings.backgroundShare())));
+    }
+
+    private void awaitTurn(CallPriority priority) {
+        if (queued[CallPriority.INTERACTIVE.ordinal()] + queued[CallPriority.BACKGROUND.ordinal()] >= settings.maxQueueLength()) {
+            throw reject(priority, "queue-full");
+        }
+
+        queued[priority.ordinal()]++;
+        try {
+            long remainingNanos = maxWait(priority).toNanos();
+            while (!canAcquire(priority)) {
+                if (remainingNanos <= 0) {
+                    throw reject(priority, "timeout");
+                }
+                remainingNanos = turns.get(priority).awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Waiting for a " + model + " call slot was interrupted", e);
+        } finally {
+            queued[priority.ordinal()]--;
+            signalWaiters();
+        }
+    }
+
+    private Duration maxWait(CallPriority priority) {
+        return priority == CallPriority.BACKGROUND ? settings.backgroundMaxWait() : settings.maxWait();
+    }
+
+    private ModelCallRejectedException reject(CallPriority priority, String reason) {
+        meterRegistry.counter(METRIC_PREFIX + ".rejected", "model", model, "priority", priority.tag(), "reason", reason).increment();
+
+        return new ModelCallRejectedException("Too many concurrent " + model + " model calls, rejected " + priority.tag() + " call (" + reason + ")");
+    }
+
+    // additive increase while the limit is actually used, multiplicative decrease when the latency jumps above its long-term average
+    private void onSuccess(Permit permit, long latencyNanos) {
+        lock.lock();
+        try {
+            release(permit);
+
+            boolean latencyGrew = smoothedLatencyNanos > 0 && latencyNanos > smoothedLatencyNanos * settings.latencyTolerance();
+            smoothedLatencyNanos = smoothedLatencyNanos < 0
+                    ? latencyNanos
+                    : smoothedLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+
+            if (latencyGrew) {
+                decrease(permit, LATENCY_BACKOFF_RATIO);
+            } else if ((inFlight + 1) * 2 >= limit) {
+                limit = Math.min(settings.maxLimit(), limit + 1 / limit);
+            }
+
+            signalWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onThrottled(Permit permit) {
+        lock.lock();
+        try {
+            release(permit);
+            decrease(permit, THROTTLING_BACKOFF_RATIO);
+            signalWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onIgnored(Permit permit) {
+        lock.lock();
+        try {
+            release(permit);
+            signalWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // calls started before the last decrease saw the old limit, letting them all back off again would collapse it
+    private void decrease(Permit permit, double ratio) {
+        if (permit.acquiredAt - lastDecreaseAt > 0) {
+            limit = Math.max(settings.minLimit(), limit * ratio);
+            lastDecreaseAt = System.nanoTime();
+        }
+    }
+
+    private void release(Permit permit) {
+        inFlight--;
+        if (permit.priority == CallPriority.BACKGROUND) {
+            backgroundInFlight--;
+        }
+    }
+
+    private void signalWaiters() {
+        turns.values().forEach(Condition::signalAll);
+    }
+
+    private int queued(CallPriority priority) {
+        return queued[priority.ordinal()];
+    }
+
+    public class Permit {
+        private final CallPriority priority;
+        private final long acquiredAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final AtomicLong firstResponseNanos = new AtomicLong(-1);
+
+        private Permit(CallPriority priority, long acquiredAt) {
+            this.priority = priority;
+            this.acquiredAt = acquiredAt;
+        }
+
+        // a streamed call is sampled up to its first chunk, the time spent streaming depends on the output length
+        public void firstResponse() {
+            firstResponseNanos.compareAndSet(-1, System.nanoTime() - acquiredAt);
+        }
+
+        public void success() {
+            if (released.compareAndSet(false, true)) {
+                long latencyNanos = firstResponseNanos.get();
+                onSuccess(this, latencyNanos >= 0 ? latencyNanos : System.nanoTime() - acquiredAt);
+            }
+        }
+
+        public void failure(Throwable throwable) {
+            if (released.compareAndSet(false, true)) {
+                if (ThrottlingErrors.isThrottling(throwable)) {
+                    onThrottled(this);
+                } else {
+                    onIgnored(this);
+                }
+            }
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                onIgnored(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+public enum CallPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<CallPriority> CURRENT = new ThreadLocal<>();
+
+    public static CallPriority current() {
+        CallPriority callPriority = CURRENT.get();
+        return callPriority == null ? INTERACTIVE : callPriority;
+    }
+
+    public <T> T run(Supplier<T> action) {
+        CallPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> action) {
+        CallPriority callPriority = current();
+        return () -> callPriority.run(action);
+    }
+
+    public void run(Runnable action) {
+        run(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,26 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ChatModelPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<ModelConcurrencyLimiters> modelConcurrencyLimiters;
+
+    public ChatModelPostProcessor(ObjectProvider<ModelConcurrencyLimiters> modelConcurrencyLimiters) {
+        this.modelConcurrencyLimiters = modelConcurrencyLimiters;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ChatModel chatModel) {
+            return modelConcurrencyLimiters.getObject().chat()
+                    .map(limiter -> (Object) new ConcurrencyLimitedChatModel(chatModel, limiter))
+                    .orElse(bean);
+        }
+
+        return bean;
+    }
+}
@@ -0,0 +1,68 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public class ConcurrencyLimitedChatModel implements ChatModel {
+    private final ChatModel delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitedChatModel(ChatModel delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(CallPriority.current());
+        try {
+            ChatResponse chatResponse = delegate.call(prompt);
+            complete(prompt, permit);
+            return chatResponse;
+        } catch (RuntimeException e) {
+            permit.failure(e);
+            throw e;
+        }
+    }
+
+    // the slot is held until the stream ends, a cancelled stream gives it back without a latency sample
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        CallPriority priority = CallPriority.current();
+
+        return Mono.fromCallable(() -> limiter.acquire(priority))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(permit -> delegate.stream(prompt)
+                        .doOnNext(chatResponse -> permit.firstResponse())
+                        .doOnComplete(() -> complete(prompt, permit))
+                        .doOnError(permit::failure)
+                        .doFinally(signalType -> permit.release()));
+    }
+
+    // tool calls are looped by the ToolCallAdvisor, a prompt that still runs them inside the model would time its tools
+    // as model latency, so only throttling may lower the limit for it
+    private static void complete(Prompt prompt, AdaptiveConcurrencyLimiter.Permit permit) {
+        if (runsToolLoop(prompt)) {
+            permit.release();
+        } else {
+            permit.success();
+        }
+    }
+
+    private static boolean runsToolLoop(Prompt prompt) {
+        return prompt.getOptions() instanceof ToolCallingChatOptions toolCallingChatOptions
+                && !Boolean.FALSE.equals(toolCallingChatOptions.getInternalToolExecutionEnabled())
+                && (!toolCallingChatOptions.getToolCallbacks().isEmpty() || !toolCallingChatOptions.getToolNames().isEmpty());
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+}
@@ -0,0 +1,28 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import com.dominikcebula.spring.ai.agent.embedding.ForwardingEmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+public class ConcurrencyLimitedEmbeddingModel extends ForwardingEmbeddingModel {
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitedEmbeddingModel(EmbeddingModel delegate, AdaptiveConcurrencyLimiter limiter) {
+        super(delegate);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(CallPriority.current());
+        try {
+            EmbeddingResponse embeddingResponse = delegate.call(request);
+            permit.success();
+            return embeddingResponse;
+        } catch (RuntimeException e) {
+            permit.failure(e);
+            throw e;
+        }
+    }
+}
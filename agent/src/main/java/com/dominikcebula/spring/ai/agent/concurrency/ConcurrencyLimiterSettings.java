@@ -0,0 +1,14 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import java.time.Duration;
+
+public record ConcurrencyLimiterSettings(
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        int maxQueueLength,
+        Duration maxWait,
+        Duration backgroundMaxWait,
+        double backgroundShare,
+        double latencyTolerance) {
+}
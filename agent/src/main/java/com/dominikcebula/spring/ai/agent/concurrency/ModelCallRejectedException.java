@@ -0,0 +1,13 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ModelCallRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ModelCallRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class ModelConcurrencyLimiters {
+    private final AdaptiveConcurrencyLimiter chatLimiter;
+    private final AdaptiveConcurrencyLimiter embeddingLimiter;
+
+    public ModelConcurrencyLimiters(
+            @Value("${agent.model-concurrency.enabled:true}") boolean enabled,
+            @Value("${agent.model-concurrency.chat.initial-limit:8}") int chatInitialLimit,
+            @Value("${agent.model-concurrency.chat.min-limit:1}") int chatMinLimit,
+            @Value("${agent.model-concurrency.chat.max-limit:32}") int chatMaxLimit,
+            @Value("${agent.model-concurrency.embedding.initial-limit:16}") int embeddingInitialLimit,
+            @Value("${agent.model-concurrency.embedding.min-limit:1}") int embeddingMinLimit,
+            @Value("${agent.model-concurrency.embedding.max-limit:64}") int embeddingMaxLimit,
+            @Value("${agent.model-concurrency.max-queue-length:100}") int maxQueueLength,
+            @Value("${agent.model-concurrency.max-wait:5s}") Duration maxWait,
+            @Value("${agent.model-concurrency.background-max-wait:60s}") Duration backgroundMaxWait,
+            @Value("${agent.model-concurrency.background-share:0.5}") double backgroundShare,
+            @Value("${agent.model-concurrency.latency-tolerance:2.0}") double latencyTolerance,
+            MeterRegistry meterRegistry) {
+        this.chatLimiter = enabled
+                ? AdaptiveConcurrencyLimiter.create("chat", new ConcurrencyLimiterSettings(
+                chatInitialLimit, chatMinLimit, chatMaxLimit, maxQueueLength, maxWait, backgroundMaxWait, backgroundShare, latencyTolerance), meterRegistry)
+                : null;
+        this.embeddingLimiter = enabled
+                ? AdaptiveConcurrencyLimiter.create("embedding", new ConcurrencyLimiterSettings(
+                embeddingInitialLimit, embeddingMinLimit, embeddingMaxLimit, maxQueueLength, maxWait, backgroundMaxWait, backgroundShare, latencyTolerance), meterRegistry)
+                : null;
+    }
+
+    public Optional<AdaptiveConcurrencyLimiter> chat() {
+        return Optional.ofNullable(chatLimiter);
+    }
+
+    public Optional<AdaptiveConcurrencyLimiter> embedding() {
+        return Optional.ofNullable(embeddingLimiter);
+    }
+}
@@ -0,0 +1,22 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+class ThrottlingErrors {
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private ThrottlingErrors() {
+    }
+
+    // the Bedrock client wraps service errors, so the whole cause chain is searched
+    static boolean isThrottling(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof SdkServiceException serviceException
+                    && (serviceException.isThrottlingException() || serviceException.statusCode() == TOO_MANY_REQUESTS)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.dominikcebula.spring.ai.agent.conversation;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class ConversationBusyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ConversationBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,129 @@
+package com.dominikcebula.spring.ai.agent.conversation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// turns are ordered up to their response only, memory extraction of a turn runs on the extraction pipeline after
+// the turn is released, so the next turn may not see those memories yet and extractions of consecutive turns can overlap
+@Component
+public class ConversationTurnSequencer {
+    private static final String METRIC_PREFIX = "agent.conversation.turns";
+
+    private final int maxQueueDepth;
+    private final Duration maxWait;
+
+    // one entry per conversation with turns in flight, so unrelated conversations never share a lock
+    private final Map<UUID, TurnQueue> turnQueues = new ConcurrentHashMap<>();
+
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timedOutCounter;
+
+    public ConversationTurnSequencer(
+            @Value("${agent.conversation.turns.max-queue-depth:4}") int maxQueueDepth,
+            @Value("${agent.conversation.turns.max-wait:10s}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        if (maxQueueDepth < 1) {
+            throw new IllegalArgumentException("Max queue depth must be at least 1, got " + maxQueueDepth);
+        }
+
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxWait = maxWait;
+
+        this.waitTimer = meterRegistry.timer(METRIC_PREFIX + ".wait");
+        this.queueFullCounter = meterRegistry.counter(METRIC_PREFIX + ".rejected", "reason", "queue-full");
+        this.timedOutCounter = meterRegistry.counter(METRIC_PREFIX + ".rejected", "reason", "timeout");
+        meterRegistry.gauge(METRIC_PREFIX + ".conversations", turnQueues, Map::size);
+    }
+
+    public <T> T run(UUID conversationId, Supplier<T> turn) {
+        TurnQueue turnQueue = acquire(conversationId);
+        try {
+            return turn.get();
+        } finally {
+            release(conversationId, turnQueue);
+        }
+    }
+
+    // the place is taken before the stream is returned, so a busy conversation is rejected before the SSE response is
+    // committed, the stream then holds it until it completes, fails or is cancelled
+    public <T> Flux<T> stream(UUID conversationId, Supplier<Flux<T>> turn) {
+        TurnQueue turnQueue = acquire(conversationId);
+        AtomicBoolean released = new AtomicBoolean();
+
+        return Flux.defer(turn)
+                .doFinally(signalType -> {
+                    if (released.compareAndSet(false, true)) {
+                        release(conversationId, turnQueue);
+                    }
+                });
+    }
+
+    private TurnQueue acquire(UUID conversationId) {
+        TurnQueue turnQueue = enqueue(conversationId);
+
+        long waitStartedAt = System.nanoTime();
+        try {
+            if (!turnQueue.turn.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                dequeue(conversationId);
+                timedOutCounter.increment();
+                throw new ConversationBusyException("Conversation " + conversationId + " is still busy after " + maxWait);
+            }
+        } catch (InterruptedException e) {
+            dequeue(conversationId);
+            Thread.currentThread().interrupt();
+            throw new ConversationBusyException("Interrupted while waiting for conversation " + conversationId);
+        } finally {
+            waitTimer.record(System.nanoTime() - waitStartedAt, TimeUnit.NANOSECONDS);
+        }
+
+        return turnQueue;
+    }
+
+    private TurnQueue enqueue(UUID conversationId) {
+        AtomicBoolean admitted = new AtomicBoolean();
+        TurnQueue turnQueue = turnQueues.compute(conversationId, (key, existingTurnQueue) -> {
+            TurnQueue queue = existingTurnQueue == null ? new TurnQueue() : existingTurnQueue;
+            if (queue.depth < maxQueueDepth) {
+                queue.depth++;
+                admitted.set(true);
+            }
+            return queue;
+        });
+
+        if (!admitted.get()) {
+            queueFullCounter.increment();
+            throw new ConversationBusyException("Conversation " + conversationId + " already has " + maxQueueDepth + " turns in progress");
+        }
+
+        return turnQueue;
+    }
+
+    private void release(UUID conversationId, TurnQueue turnQueue) {
+        turnQueue.turn.release();
+        dequeue(conversationId);
+    }
+
+    private void dequeue(UUID conversationId) {
+        turnQueues.computeIfPresent(conversationId, (key, queue) -> --queue.depth == 0 ? null : queue);
+    }
+
+    // depth is only read and written inside compute calls on the map, which are atomic per conversation
+    private static class TurnQueue {
+        private final Semaphore turn = new Semaphore(1, true);
+        private int depth;
+    }
+}
@@ -0,0 +1,248 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import com.dominikcebula.spring.ai.agent.concurrency.CallPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class BatchingEmbeddingModel extends ForwardingEmbeddingModel {
+    private static final String METRIC_PREFIX = "agent.embedding.batch";
+
+    private final int maxBatchSize;
+    private final Duration batchWindow;
+    private final Duration timeout;
+
+    private final ScheduledExecutorService flushScheduler;
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<BatchKey, PendingBatch> pendingBatches = new HashMap<>();
+
+    private final DistributionSummary batchSizeSummary;
+    private final DistributionSummary batchCallersSummary;
+    private final Timer batchWaitTimer;
+    private final Counter bypassedCounter;
+
+    public BatchingEmbeddingModel(EmbeddingModel delegate, int maxBatchSize, Duration batchWindow, Duration timeout, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindow = batchWindow;
+        this.timeout = timeout;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("embedding-batcher-");
+        threadFactory.setDaemon(true);
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.batchSizeSummary = DistributionSummary.builder(METRIC_PREFIX + ".size")
+                .baseUnit("texts")
+                .register(meterRegistry);
+        this.batchCallersSummary = DistributionSummary.builder(METRIC_PREFIX + ".callers")
+                .baseUnit("requests")
+                .register(meterRegistry);
+        this.batchWaitTimer = meterRegistry.timer(METRIC_PREFIX + ".wait");
+        this.bypassedCounter = meterRegistry.counter(METRIC_PREFIX + ".bypassed");
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        if (request.getInstructions().isEmpty() || request.getInstructions().size() >= maxBatchSize) {
+            bypassedCounter.increment();
+            return delegate.call(request);
+        }
+
+        PendingEmbedding pendingEmbedding = new PendingEmbedding(request.getInstructions(), CallPriority.current(), System.nanoTime(), new CompletableFuture<>());
+        enqueue(BatchKey.of(request.getOptions()), request.getOptions(), pendingEmbedding);
+
+        // the wait is bounded and interruptible, so a dead dispatch or a cancelled caller never leaves a thread parked here
+        try {
+            return pendingEmbedding.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Embedding batch failed", e.getCause());
+        } catch (TimeoutException e) {
+            pendingEmbedding.result().cancel(false);
+            throw new IllegalStateException("Embedding batch did not complete within " + timeout, e);
+        } catch (InterruptedException e) {
+            pendingEmbedding.result().cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an embedding batch", e);
+        }
+    }
+
+    private void enqueue(BatchKey batchKey, EmbeddingOptions options, PendingEmbedding pendingEmbedding) {
+        PendingBatch batchToDispatch = null;
+
+        synchronized (pendingBatches) {
+            PendingBatch pendingBatch = pendingBatches.get(batchKey);
+
+            if (pendingBatch != null && pendingBatch.textCount() + pendingEmbedding.texts().size() > maxBatchSize) {
+                pendingBatches.remove(batchKey);
+                batchToDispatch = pendingBatch;
+                pendingBatch = null;
+            }
+
+            if (pendingBatch == null) {
+                pendingBatch = new PendingBatch(options);
+                pendingBatches.put(batchKey, pendingBatch);
+                flushScheduler.schedule(() -> flush(batchKey), batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+
+            pendingBatch.add(pendingEmbedding);
+
+            if (pendingBatch.textCount() >= maxBatchSize) {
+                pendingBatches.remove(batchKey);
+                dispatch(pendingBatch);
+            }
+        }
+
+        if (batchToDispatch != null) {
+            dispatch(batchToDispatch);
+        }
+    }
+
+    private void flush(BatchKey batchKey) {
+        PendingBatch pendingBatch;
+        synchronized (pendingBatches) {
+            pendingBatch = pendingBatches.get(batchKey);
+            if (pendingBatch == null || !pendingBatch.isExpired(batchWindow)) {
+                return;
+            }
+            pendingBatches.remove(batchKey);
+        }
+
+        dispatch(pendingBatch);
+    }
+
+    private void dispatch(PendingBatch pendingBatch) {
+        try {
+            dispatchExecutor.execute(() -> execute(pendingBatch));
+        } catch (RejectedExecutionException e) {
+            pendingBatch.fail(e);
+        }
+    }
+
+    private void execute(PendingBatch pendingBatch) {
+        long dispatchTime = System.nanoTime();
+        List<PendingEmbedding> pendingEmbeddings = pendingBatch.pendingEmbeddings();
+        List<String> texts = pendingEmbeddings.stream()
+                .flatMap(pendingEmbedding -> pendingEmbedding.texts().stream())
+                .toList();
+
+        pendingEmbeddings.forEach(pendingEmbedding ->
+                batchWaitTimer.record(dispatchTime - pendingEmbedding.enqueuedAt(), TimeUnit.NANOSECONDS));
+        batchSizeSummary.record(texts.size());
+        batchCallersSummary.record(pendingEmbeddings.size());
+
+        try {
+            // the batch is dispatched on its own thread, it runs at the priority of its most urgent caller
+            EmbeddingResponse response = pendingBatch.priority()
+                    .run(() -> delegate.call(new EmbeddingRequest(texts, pendingBatch.options())));
+
+            int offset = 0;
+            for (PendingEmbedding pendingEmbedding : pendingEmbeddings) {
+                List<Embedding> embeddings = new ArrayList<>(pendingEmbedding.texts().size());
+                for (int idx = 0; idx < pendingEmbedding.texts().size(); idx++) {
+                    embeddings.add(new Embedding(response.getResults().get(offset + idx).getOutput(), idx));
+                }
+                offset += pendingEmbedding.texts().size();
+                pendingEmbedding.result().complete(new EmbeddingResponse(embeddings, response.getMetadata()));
+            }
+        } catch (Throwable e) {
+            pendingBatch.fail(e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        flushScheduler.shutdownNow();
+        dispatchExecutor.shutdownNow();
+
+        synchronized (pendingBatches) {
+            pendingBatches.values().forEach(pendingBatch -> pendingBatch.fail(new IllegalStateException("Embedding batcher was shut down")));
+            pendingBatches.clear();
+        }
+
+        super.destroy();
+    }
+
+    private record BatchKey(String model, Integer dimensions) {
+        static BatchKey of(EmbeddingOptions options) {
+            return new BatchKey(
+                    Optional.ofNullable(options).map(EmbeddingOptions::getModel).orElse(null),
+                    Optional.ofNullable(options).map(EmbeddingOptions::getDimensions).orElse(null));
+        }
+    }
+
+    private record PendingEmbedding(List<String> texts, CallPriority priority, long enqueuedAt, CompletableFuture<EmbeddingResponse> result) {
+    }
+
+    private static class PendingBatch {
+        private final EmbeddingOptions options;
+        private final long createdAt = System.nanoTime();
+        private final List<PendingEmbedding> pendingEmbeddings = new ArrayList<>();
+        private int textCount;
+
+        PendingBatch(EmbeddingOptions options) {
+            this.options = options;
+        }
+
+        void add(PendingEmbedding pendingEmbedding) {
+            pendingEmbeddings.add(pendingEmbedding);
+            textCount += pendingEmbedding.texts().size();
+        }
+
+        void fail(Throwable failure) {
+            pendingEmbeddings.forEach(pendingEmbedding -> pendingEmbedding.result().completeExceptionally(failure));
+        }
+
+        boolean isExpired(Duration batchWindow) {
+            return System.nanoTime() - createdAt >= batchWindow.toNanos();
+        }
+
+        EmbeddingOptions options() {
+            return options;
+        }
+
+        CallPriority priority() {
+            return pendingEmbeddings.stream()
+                    .map(PendingEmbedding::priority)
+                    .min(Comparator.naturalOrder())
+                    .orElse(CallPriority.INTERACTIVE);
+        }
+
+        List<PendingEmbedding> pendingEmbeddings() {
+            return pendingEmbeddings;
+        }
+
+        int textCount() {
+            return textCount;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+
+public class CachingEmbeddingModel extends ForwardingEmbeddingModel {
+    private static final String CACHE_NAME = "embeddings";
+
+    private final String defaultModelId;
+    private final Cache<String, float[]> cache;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, String defaultModelId, long maximumSize, Duration timeToLive, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.defaultModelId = defaultModelId;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        String modelId = getModelId(request.getOptions());
+
+        return callForMissing(request,
+                text -> Optional.ofNullable(cache.getIfPresent(cacheKey(modelId, text))),
+                (text, embedding) -> cache.put(cacheKey(modelId, text), embedding));
+    }
+
+    // input type and truncation change the vectors as much as the model version does, so they are part of the key
+    static String modelId(String model, String inputType, String truncate) {
+        return String.join("/", model, inputType, truncate).toLowerCase();
+    }
+
+    private String getModelId(EmbeddingOptions options) {
+        return Optional.ofNullable(options)
+                .map(EmbeddingOptions::getModel)
+                .orElse(defaultModelId);
+    }
+
+    private static String cacheKey(String modelId, String text) {
+        return modelId + ":" + sha256(text);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
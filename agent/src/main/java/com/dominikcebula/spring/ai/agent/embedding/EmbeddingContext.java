@@ -0,0 +1,86 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.dominikcebula.spring.ai.agent.memory.utils.ChatClientRequestUtils.findConversationId;
+
+public class EmbeddingContext {
+    public static final String EMBEDDING_CONTEXT = "embedding_context";
+
+    private static final ThreadLocal<EmbeddingContext> CURRENT = new ThreadLocal<>();
+
+    private final UUID conversationId;
+    private final Map<String, float[]> embeddings = new ConcurrentHashMap<>();
+
+    private EmbeddingContext(UUID conversationId) {
+        this.conversationId = conversationId;
+    }
+
+    public static ChatClientRequest attach(ChatClientRequest chatClientRequest) {
+        if (chatClientRequest.context().get(EMBEDDING_CONTEXT) instanceof EmbeddingContext) {
+            return chatClientRequest;
+        }
+
+        return chatClientRequest.mutate()
+                .context(EMBEDDING_CONTEXT, new EmbeddingContext(findConversationId(chatClientRequest).orElse(null)))
+                .build();
+    }
+
+    public static EmbeddingContext of(ChatClientRequest chatClientRequest) {
+        if (chatClientRequest.context().get(EMBEDDING_CONTEXT) instanceof EmbeddingContext embeddingContext) {
+            return embeddingContext;
+        }
+
+        return new EmbeddingContext(findConversationId(chatClientRequest).orElse(null));
+    }
+
+    static Optional<EmbeddingContext> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public <T> T run(Supplier<T> action) {
+        EmbeddingContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    // hands the context of the calling thread over to an action that runs on another thread
+    public static <T> Supplier<T> propagate(Supplier<T> action) {
+        return current()
+                .<Supplier<T>>map(embeddingContext -> () -> embeddingContext.run(action))
+                .orElse(action);
+    }
+
+    public void run(Runnable action) {
+        run(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    Optional<UUID> conversationId() {
+        return Optional.ofNullable(conversationId);
+    }
+
+    Optional<float[]> get(String text) {
+        return Optional.ofNullable(embeddings.get(text));
+    }
+
+    void put(String text, float[] embedding) {
+        embeddings.put(text, embedding);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import com.dominikcebula.spring.ai.agent.concurrency.ConcurrencyLimitedEmbeddingModel;
+import com.dominikcebula.spring.ai.agent.concurrency.ModelConcurrencyLimiters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class EmbeddingModelPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<ModelConcurrencyLimiters> modelConcurrencyLimiters;
+    private final boolean cacheEnabled;
+    private final String cacheModelId;
+    private final long cacheMaximumSize;
+    private final Duration cacheTimeToLive;
+    private final boolean batchingEnabled;
+    private final int batchingMaxBatchSize;
+    private final Duration batchingWindow;
+    private final Duration batchingTimeout;
+
+    public EmbeddingModelPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<ModelConcurrencyLimiters> modelConcurrencyLimiters,
+            @Value("${agent.embedding.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${agent.embedding.cache.model-id:}") String cacheModelId,
+            @Value("${spring.ai.bedrock.cohere.embedding.model:cohere.embed-multilingual-v3}") String cohereModel,
+            @Value("${spring.ai.bedrock.cohere.embedding.options.input-type:SEARCH_DOCUMENT}") String cohereInputType,
+            @Value("${spring.ai.bedrock.cohere.embedding.options.truncate:NONE}") String cohereTruncate,
+            @Value("${agent.embedding.cache.maximum-size:10000}") long cacheMaximumSize,
+            @Value("${agent.embedding.cache.time-to-live:1h}") Duration cacheTimeToLive,
+            @Value("${agent.embedding.batching.enabled:true}") boolean batchingEnabled,
+            @Value("${agent.embedding.batching.max-batch-size:96}") int batchingMaxBatchSize,
+            @Value("${agent.embedding.batching.window:5ms}") Duration batchingWindow,
+            @Value("${agent.embedding.batching.timeout:90s}") Duration batchingTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.modelConcurrencyLimiters = modelConcurrencyLimiters;
+        this.cacheEnabled = cacheEnabled;
+        this.cacheModelId = cacheModelId.isBlank() ? CachingEmbeddingModel.modelId(cohereModel, cohereInputType, cohereTruncate) : cacheModelId;
+        this.cacheMaximumSize = cacheMaximumSize;
+        this.cacheTimeToLive = cacheTimeToLive;
+        this.batchingEnabled = batchingEnabled;
+        this.batchingMaxBatchSize = batchingMaxBatchSize;
+        this.batchingWindow = batchingWindow;
+        this.batchingTimeout = batchingTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof EmbeddingModel embeddingModel) {
+            // limited below the batching, so a slot is held per Bedrock request and only while that request is in flight
+            EmbeddingModel decoratedEmbeddingModel = limitConcurrency(embeddingModel);
+
+            if (batchingEnabled) {
+                decoratedEmbeddingModel = new BatchingEmbeddingModel(
+                        decoratedEmbeddingModel, batchingMaxBatchSize, batchingWindow, batchingTimeout, meterRegistry.getObject());
+            }
+
+            if (cacheEnabled) {
+                decoratedEmbeddingModel = new CachingEmbeddingModel(
+                        decoratedEmbeddingModel, cacheModelId, cacheMaximumSize, cacheTimeToLive, meterRegistry.getObject());
+            }
+
+            return new RecordingEmbeddingModel(new RequestScopedEmbeddingModel(decoratedEmbeddingModel));
+        }
+
+        return bean;
+    }
+
+    private EmbeddingModel limitConcurrency(EmbeddingModel embeddingModel) {
+        return modelConcurrencyLimiters.getObject().embedding()
+                .map(limiter -> (EmbeddingModel) new ConcurrencyLimitedEmbeddingModel(embeddingModel, limiter))
+                .orElse(embeddingModel);
+    }
+}
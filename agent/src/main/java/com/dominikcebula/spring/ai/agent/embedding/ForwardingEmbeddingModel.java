@@ -0,0 +1,90 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public abstract class ForwardingEmbeddingModel implements EmbeddingModel, DisposableBean {
+    protected final EmbeddingModel delegate;
+
+    protected ForwardingEmbeddingModel(EmbeddingModel delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return delegate.call(request);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(getEmbeddingContent(document));
+    }
+
+    @Override
+    public String getEmbeddingContent(Document document) {
+        return delegate.getEmbeddingContent(document);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    // the decorators replace the provider's bean, so its shutdown is handed down the chain
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposableBean) {
+            disposableBean.destroy();
+        } else if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    protected EmbeddingResponse callForMissing(EmbeddingRequest request,
+                                               Function<String, Optional<float[]>> lookup,
+                                               BiConsumer<String, float[]> store) {
+        List<String> texts = request.getInstructions();
+
+        Map<String, float[]> resolved = new HashMap<>();
+        List<String> missingTexts = new ArrayList<>();
+        for (String text : texts) {
+            if (resolved.containsKey(text) || missingTexts.contains(text)) {
+                continue;
+            }
+            lookup.apply(text).ifPresentOrElse(
+                    embedding -> resolved.put(text, embedding),
+                    () -> missingTexts.add(text));
+        }
+
+        EmbeddingResponseMetadata metadata = new EmbeddingResponseMetadata();
+        if (!missingTexts.isEmpty()) {
+            EmbeddingResponse response = delegate.call(new EmbeddingRequest(missingTexts, request.getOptions()));
+            for (int idx = 0; idx < missingTexts.size(); idx++) {
+                float[] embedding = response.getResults().get(idx).getOutput();
+                resolved.put(missingTexts.get(idx), embedding);
+                store.accept(missingTexts.get(idx), embedding);
+            }
+            metadata = response.getMetadata();
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int idx = 0; idx < texts.size(); idx++) {
+            embeddings.add(new Embedding(resolved.get(texts.get(idx)), idx));
+        }
+
+        return new EmbeddingResponse(embeddings, metadata);
+    }
+}
@@ -0,0 +1,35 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import com.dominikcebula.spring.ai.agent.jfr.ConversationIdHash;
+import com.dominikcebula.spring.ai.agent.jfr.EmbeddingEvent;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+public class RecordingEmbeddingModel extends ForwardingEmbeddingModel {
+    public RecordingEmbeddingModel(EmbeddingModel delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        EmbeddingEvent embeddingEvent = new EmbeddingEvent();
+        embeddingEvent.begin();
+
+        EmbeddingResponse response = null;
+        try {
+            response = delegate.call(request);
+            return response;
+        } finally {
+            if (embeddingEvent.shouldCommit()) {
+                embeddingEvent.conversationIdHash = ConversationIdHash.of(EmbeddingContext.current()
+                        .flatMap(EmbeddingContext::conversationId)
+                        .orElse(null));
+                embeddingEvent.texts = request.getInstructions().size();
+                embeddingEvent.characters = request.getInstructions().stream().mapToInt(String::length).sum();
+                embeddingEvent.embeddings = response == null ? 0 : response.getResults().size();
+                embeddingEvent.commit();
+            }
+        }
+    }
+}
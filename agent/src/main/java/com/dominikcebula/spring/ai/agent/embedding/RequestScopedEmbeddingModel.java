@@ -0,0 +1,23 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.Optional;
+
+public class RequestScopedEmbeddingModel extends ForwardingEmbeddingModel {
+    public RequestScopedEmbeddingModel(EmbeddingModel delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        Optional<EmbeddingContext> embeddingContext = EmbeddingContext.current();
+        if (embeddingContext.isEmpty()) {
+            return delegate.call(request);
+        }
+
+        return callForMissing(request, embeddingContext.get()::get, embeddingContext.get()::put);
+    }
+}
@@ -0,0 +1,47 @@
+package com.dominikcebula.spring.ai.agent.hedging;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+class LatencyWindow {
+    private static final int MIN_SAMPLES = 20;
+
+    private final double percentile;
+    private final long[] samples;
+    private final int refreshInterval;
+
+    private int count;
+    private int next;
+    private int samplesSinceRefresh;
+    private long percentileNanos = -1;
+
+    LatencyWindow(int windowSize, double percentile) {
+        this.percentile = percentile;
+        this.samples = new long[windowSize];
+        this.refreshInterval = Math.max(1, windowSize / 20);
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        samplesSinceRefresh++;
+    }
+
+    // sorting the window on every call would cost more than the calls it guards, so the percentile is refreshed every few samples
+    synchronized Optional<Duration> percentile() {
+        if (count < MIN_SAMPLES) {
+            return Optional.empty();
+        }
+
+        if (percentileNanos < 0 || samplesSinceRefresh >= refreshInterval) {
+            long[] sortedSamples = Arrays.copyOf(samples, count);
+            Arrays.sort(sortedSamples);
+            percentileNanos = sortedSamples[Math.max(0, (int) Math.ceil(percentile * count) - 1)];
+            samplesSinceRefresh = 0;
+        }
+
+        return Optional.of(Duration.ofNanos(percentileNanos));
+    }
+}
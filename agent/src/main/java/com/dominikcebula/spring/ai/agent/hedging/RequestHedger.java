@@ -0,0 +1,148 @@
+package com.dominikcebula.spring.ai.agent.hedging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public final class RequestHedger implements AutoCloseable {
+    private static final String METRIC_PREFIX = "agent.hedging";
+    private static final double MAX_BUDGET = 10;
+
+    private final boolean enabled;
+    private final Duration minDelay;
+    private final double budgetPerRequest;
+    private final LatencyWindow latencyWindow;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter requestsCounter;
+    private final Counter hedgesCounter;
+    private final Counter hedgeWinsCounter;
+    private final Counter budgetExhaustedCounter;
+
+    private double budget;
+
+    public RequestHedger(String operation, boolean enabled, double delayPercentile, Duration minDelay, double budgetPerRequest, int windowSize, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minDelay = minDelay;
+        this.budgetPerRequest = budgetPerRequest;
+        this.latencyWindow = new LatencyWindow(windowSize, delayPercentile);
+
+        this.requestsCounter = meterRegistry.counter(METRIC_PREFIX + ".requests", "operation", operation);
+        this.hedgesCounter = meterRegistry.counter(METRIC_PREFIX + ".hedges", "operation", operation);
+        this.hedgeWinsCounter = meterRegistry.counter(METRIC_PREFIX + ".hedge-wins", "operation", operation);
+        this.budgetExhaustedCounter = meterRegistry.counter(METRIC_PREFIX + ".budget-exhausted", "operation", operation);
+
+        Gauge.builder(METRIC_PREFIX + ".delay", this, hedger -> hedger.hedgeDelay().map(delay -> delay.toNanos() / 1e9).orElse(0.0))
+                .tag("operation", operation)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // only for idempotent reads, the slower of the two attempts is interrupted and its result dropped,
+    // an attempt waiting on an embedding batch gives way too, since that wait is an interruptible get with a timeout
+    public <T> T call(Supplier<T> request) {
+        if (!enabled) {
+            return request.get();
+        }
+
+        requestsCounter.increment();
+        earnBudget();
+
+        long startedAt = System.nanoTime();
+        CompletionService<Attempt<T>> attempts = new ExecutorCompletionService<>(executor);
+        List<Future<Attempt<T>>> submittedAttempts = new ArrayList<>(2);
+        submittedAttempts.add(attempts.submit(() -> attempt(request, false)));
+
+        try {
+            Optional<Duration> hedgeDelay = hedgeDelay();
+            Future<Attempt<T>> completedAttempt = hedgeDelay.isPresent()
+                    ? attempts.poll(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS)
+                    : null;
+
+            if (completedAttempt == null && hedgeDelay.isPresent()) {
+                if (spendBudget()) {
+                    hedgesCounter.increment();
+                    submittedAttempts.add(attempts.submit(() -> attempt(request, true)));
+                } else {
+                    budgetExhaustedCounter.increment();
+                }
+            }
+
+            T result = firstSuccessful(attempts, submittedAttempts.size(), completedAttempt);
+            // the whole request is sampled, a slow primary that lost to a hedge is cancelled before it could report
+            // its own latency, and sampling only the winners would keep pulling the delay down
+            latencyWindow.record(System.nanoTime() - startedAt);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a hedged request", e);
+        } finally {
+            submittedAttempts.forEach(submittedAttempt -> submittedAttempt.cancel(true));
+        }
+    }
+
+    private static <T> Attempt<T> attempt(Supplier<T> request, boolean hedge) {
+        return new Attempt<>(request.get(), hedge);
+    }
+
+    // a failed attempt only fails the request once the other attempt failed as well
+    private <T> T firstSuccessful(CompletionService<Attempt<T>> attempts, int submittedAttempts, Future<Attempt<T>> completedAttempt) throws InterruptedException {
+        RuntimeException failure = null;
+
+        for (int remaining = submittedAttempts; remaining > 0; remaining--) {
+            Future<Attempt<T>> attempt = completedAttempt != null ? completedAttempt : attempts.take();
+            completedAttempt = null;
+
+            try {
+                Attempt<T> successfulAttempt = attempt.get();
+                if (successfulAttempt.hedge()) {
+                    hedgeWinsCounter.increment();
+                }
+                return successfulAttempt.result();
+            } catch (ExecutionException e) {
+                failure = e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            }
+        }
+
+        throw failure;
+    }
+
+    private Optional<Duration> hedgeDelay() {
+        return latencyWindow.percentile()
+                .map(percentile -> percentile.compareTo(minDelay) < 0 ? minDelay : percentile);
+    }
+
+    private synchronized void earnBudget() {
+        budget = Math.min(MAX_BUDGET, budget + budgetPerRequest);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budget < 1) {
+            return false;
+        }
+
+        budget -= 1;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private record Attempt<T>(T result, boolean hedge) {
+    }
+}
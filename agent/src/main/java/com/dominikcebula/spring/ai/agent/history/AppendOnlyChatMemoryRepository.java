@@ -0,0 +1,21 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+public interface AppendOnlyChatMemoryRepository extends ChatMemoryRepository {
+    String MESSAGE_SEQUENCE = "messageSequence";
+
+    List<Message> append(String conversationId, List<Message> messages);
+
+    void deleteUpTo(String conversationId, long sequence);
+
+    static long sequenceOf(Message message) {
+        if (message.getMetadata().get(MESSAGE_SEQUENCE) instanceof Number sequence) {
+            return sequence.longValue();
+        }
+        throw new IllegalArgumentException("Message was not read from an append-only chat memory repository");
+    }
+}
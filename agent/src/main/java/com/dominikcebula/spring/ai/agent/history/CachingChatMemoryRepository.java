@@ -0,0 +1,103 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Primary
+@Component
+public class CachingChatMemoryRepository implements AppendOnlyChatMemoryRepository {
+    private static final String CACHE_NAME = "chat-memory";
+
+    private final AppendOnlyChatMemoryRepository delegate;
+    private final int readLimit;
+    private final Cache<String, List<Message>> cache;
+
+    public CachingChatMemoryRepository(
+            MongoAppendOnlyChatMemoryRepository delegate,
+            @Value("${agent.history.repository.read-limit:200}") int readLimit,
+            @Value("${agent.history.cache.maximum-size:10000}") long maximumSize,
+            @Value("${agent.history.cache.expire-after-access:30m}") Duration expireAfterAccess,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.readLimit = readLimit;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        return delegate.findConversationIds();
+    }
+
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        return cache.get(conversationId, delegate::findByConversationId);
+    }
+
+    // only the new messages go downstream, a cached conversation is extended in memory
+    @Override
+    public List<Message> append(String conversationId, List<Message> messages) {
+        List<Message> appendedMessages = delegate.append(conversationId, messages);
+
+        if (!appendedMessages.isEmpty()) {
+            cache.asMap().computeIfPresent(conversationId, (key, cachedMessages) -> extend(cachedMessages, appendedMessages));
+        }
+
+        return appendedMessages;
+    }
+
+    // cached messages are always a contiguous run of sequences, anything that would break it drops the entry instead
+    private List<Message> extend(List<Message> cachedMessages, List<Message> appendedMessages) {
+        long lastCachedSequence = cachedMessages.isEmpty() ? 0 : AppendOnlyChatMemoryRepository.sequenceOf(cachedMessages.getLast());
+
+        if (AppendOnlyChatMemoryRepository.sequenceOf(appendedMessages.getLast()) <= lastCachedSequence) {
+            return cachedMessages;
+        }
+        if (AppendOnlyChatMemoryRepository.sequenceOf(appendedMessages.getFirst()) != lastCachedSequence + 1) {
+            return null;
+        }
+
+        List<Message> conversationMessages = Stream.concat(cachedMessages.stream(), appendedMessages.stream()).toList();
+        return conversationMessages.subList(Math.max(0, conversationMessages.size() - readLimit), conversationMessages.size());
+    }
+
+    @Override
+    public void deleteUpTo(String conversationId, long sequence) {
+        delegate.deleteUpTo(conversationId, sequence);
+
+        cache.asMap().computeIfPresent(conversationId, (key, cachedMessages) -> cachedMessages.stream()
+                .filter(message -> AppendOnlyChatMemoryRepository.sequenceOf(message) > sequence)
+                .toList());
+    }
+
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        delegate.saveAll(conversationId, messages);
+        invalidate(conversationId);
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        delegate.deleteByConversationId(conversationId);
+        invalidate(conversationId);
+    }
+
+    public void invalidate(String conversationId) {
+        cache.invalidate(conversationId);
+    }
+}
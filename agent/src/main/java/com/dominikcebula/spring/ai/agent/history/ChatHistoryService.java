@@ -0,0 +1,176 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import com.dominikcebula.spring.ai.agent.concurrency.CallPriority;
+import com.dominikcebula.spring.ai.agent.jfr.ChatMemoryLoadEvent;
+import com.dominikcebula.spring.ai.agent.jfr.ChatMemorySaveEvent;
+import com.dominikcebula.spring.ai.agent.jfr.ConversationIdHash;
+import com.dominikcebula.spring.ai.agent.jfr.PayloadSize;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ChatHistoryService implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChatHistoryService.class);
+
+    private static final String METRIC_PREFIX = "agent.history.summary";
+
+    private final AppendOnlyChatMemoryRepository chatMemoryRepository;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final ConversationSummarizer conversationSummarizer;
+    private final TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+    private final int maxVerbatimTurns;
+    private final int tokenBudget;
+    private final Duration shutdownTimeout;
+
+    private final ThreadPoolExecutor summaryExecutor;
+    private final Set<String> pendingSummaries = ConcurrentHashMap.newKeySet();
+
+    private final Counter refreshedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    private final Timer refreshTimer;
+
+    public ChatHistoryService(
+            AppendOnlyChatMemoryRepository chatMemoryRepository,
+            ConversationSummaryRepository conversationSummaryRepository,
+            ConversationSummarizer conversationSummarizer,
+            @Value("${agent.history.max-verbatim-turns:4}") int maxVerbatimTurns,
+            @Value("${agent.history.token-budget:4000}") int tokenBudget,
+            @Value("${agent.history.summary-queue-capacity:100}") int summaryQueueCapacity,
+            @Value("${agent.history.shutdown-timeout:30s}") Duration shutdownTimeout,
+            MeterRegistry meterRegistry) {
+        this.chatMemoryRepository = chatMemoryRepository;
+        this.conversationSummaryRepository = conversationSummaryRepository;
+        this.conversationSummarizer = conversationSummarizer;
+        this.maxVerbatimTurns = maxVerbatimTurns;
+        this.tokenBudget = tokenBudget;
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.refreshedCounter = meterRegistry.counter(METRIC_PREFIX + ".refreshed");
+        this.skippedCounter = meterRegistry.counter(METRIC_PREFIX + ".skipped");
+        this.failedCounter = meterRegistry.counter(METRIC_PREFIX + ".failed");
+        this.refreshTimer = meterRegistry.timer(METRIC_PREFIX + ".duration");
+
+        this.summaryExecutor = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(summaryQueueCapacity),
+                new CustomizableThreadFactory("history-summary-"));
+    }
+
+    public ChatHistory load(UUID conversationId) {
+        ChatMemoryLoadEvent chatMemoryLoadEvent = new ChatMemoryLoadEvent();
+        chatMemoryLoadEvent.begin();
+
+        String id = conversationId.toString();
+
+        ChatHistoryWindow window = ChatHistoryWindow.of(chatMemoryRepository.findByConversationId(id), maxVerbatimTurns, tokenBudget, tokenCountEstimator);
+        Optional<String> summary = conversationSummaryRepository.findByConversationId(id)
+                .map(ConversationSummary::summary);
+
+        if (window.hasSummarizableMessages()) {
+            scheduleSummaryRefresh(id);
+        }
+
+        if (chatMemoryLoadEvent.shouldCommit()) {
+            chatMemoryLoadEvent.conversationIdHash = ConversationIdHash.of(conversationId);
+            chatMemoryLoadEvent.messages = window.verbatimMessages().size();
+            chatMemoryLoadEvent.characters = PayloadSize.characters(window.verbatimMessages());
+            chatMemoryLoadEvent.summaryCharacters = PayloadSize.characters(summary.orElse(null));
+            chatMemoryLoadEvent.commit();
+        }
+
+        return new ChatHistory(summary, window.verbatimMessages());
+    }
+
+    public void append(UUID conversationId, List<Message> messages) {
+        ChatMemorySaveEvent chatMemorySaveEvent = new ChatMemorySaveEvent();
+        chatMemorySaveEvent.begin();
+
+        chatMemoryRepository.append(conversationId.toString(), messages);
+
+        if (chatMemorySaveEvent.shouldCommit()) {
+            chatMemorySaveEvent.conversationIdHash = ConversationIdHash.of(conversationId);
+            chatMemorySaveEvent.messages = messages.size();
+            chatMemorySaveEvent.characters = PayloadSize.characters(messages);
+            chatMemorySaveEvent.commit();
+        }
+    }
+
+    private void scheduleSummaryRefresh(String conversationId) {
+        if (!pendingSummaries.add(conversationId)) {
+            return;
+        }
+
+        try {
+            summaryExecutor.execute(() -> {
+                try {
+                    refreshTimer.record(() -> CallPriority.BACKGROUND.run(() -> refreshSummary(conversationId)));
+                    refreshedCounter.increment();
+                } catch (RuntimeException e) {
+                    failedCounter.increment();
+                    LOGGER.error("Refreshing summary of conversation {} failed", conversationId, e);
+                } finally {
+                    pendingSummaries.remove(conversationId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingSummaries.remove(conversationId);
+            skippedCounter.increment();
+        }
+    }
+
+    // messages are removed by sequence, so turns appended while the summary was being written are never lost
+    private void refreshSummary(String conversationId) {
+        ChatHistoryWindow window = ChatHistoryWindow.of(chatMemoryRepository.findByConversationId(conversationId), maxVerbatimTurns, tokenBudget, tokenCountEstimator);
+        if (!window.hasSummarizableMessages()) {
+            return;
+        }
+
+        Optional<ConversationSummary> previousSummary = conversationSummaryRepository.findByConversationId(conversationId);
+        String summary = conversationSummarizer.summarize(
+                previousSummary.map(ConversationSummary::summary).orElse(""),
+                window.summarizableMessages());
+
+        conversationSummaryRepository.save(new ConversationSummary(
+                conversationId,
+                summary,
+                previousSummary.map(ConversationSummary::summarizedMessages).orElse(0L) + window.summarizableMessages().size(),
+                Instant.now()));
+        chatMemoryRepository.deleteUpTo(conversationId, AppendOnlyChatMemoryRepository.sequenceOf(window.summarizableMessages().getLast()));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        summaryExecutor.shutdown();
+        if (!summaryExecutor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("Summary refreshes did not finish within {}, abandoned {} refreshes",
+                    shutdownTimeout, summaryExecutor.shutdownNow().size());
+        }
+    }
+
+    public record ChatHistory(Optional<String> summary, List<Message> verbatimMessages) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.List;
+import java.util.Objects;
+
+public record ChatHistoryWindow(List<Message> summarizableMessages, List<Message> verbatimMessages) {
+
+    // walks back turn by turn, a turn starting at a user message; the latest turn is kept even if it alone exceeds the budget
+    public static ChatHistoryWindow of(List<Message> messages, int maxVerbatimTurns, int tokenBudget, TokenCountEstimator tokenCountEstimator) {
+        int verbatimStart = messages.size();
+        int verbatimTurns = 0;
+        int verbatimTokens = 0;
+
+        int turnEnd = messages.size();
+        for (int idx = messages.size() - 1; idx >= 0 && verbatimTurns < maxVerbatimTurns; idx--) {
+            if (messages.get(idx).getMessageType() != MessageType.USER && idx > 0) {
+                continue;
+            }
+
+            int turnTokens = messages.subList(idx, turnEnd).stream()
+                    .mapToInt(message -> tokenCountEstimator.estimate(Objects.requireNonNullElse(message.getText(), "")))
+                    .sum();
+            if (verbatimTurns > 0 && verbatimTokens + turnTokens > tokenBudget) {
+                break;
+            }
+
+            verbatimStart = idx;
+            verbatimTurns++;
+            verbatimTokens += turnTokens;
+            turnEnd = idx;
+        }
+
+        return new ChatHistoryWindow(messages.subList(0, verbatimStart), messages.subList(verbatimStart, messages.size()));
+    }
+
+    public boolean hasSummarizableMessages() {
+        return !summarizableMessages.isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import com.dominikcebula.spring.ai.agent.model.ModelRouter;
+import com.dominikcebula.spring.ai.agent.model.ModelTask;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class ConversationSummarizer {
+    private final ModelRouter modelRouter;
+    private final int summaryMaxWords;
+
+    public ConversationSummarizer(ModelRouter modelRouter, @Value("${agent.history.summary-max-words:300}") int summaryMaxWords) {
+        this.modelRouter = modelRouter;
+        this.summaryMaxWords = summaryMaxWords;
+    }
+
+    public String summarize(String previousSummary, List<Message> messages) {
+        String transcript = messages.stream()
+                .map(message -> message.getMessageType().name() + ": " + message.getText())
+                .collect(Collectors.joining("\n"));
+
+        ChatResponse summaryResponse = modelRouter.call(ModelTask.CONVERSATION_SUMMARIZATION, new Prompt(List.of(
+                new SystemMessage(getSummarizationSystemMessage()),
+                new UserMessage(getSummarizationUserMessage(previousSummary, transcript))
+        )));
+
+        return summaryResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .map(AssistantMessage::getText)
+                .collect(Collectors.joining())
+                .trim();
+    }
+
+    private String getSummarizationSystemMessage() {
+        return """
+                You maintain a running summary of a conversation between a user and a travel booking assistant.
+                
+                Merge the new messages into the existing summary.
+                Keep destinations, dates, travellers, budgets, preferences, booking references and open questions.
+                Drop greetings, tool output details and anything that was superseded later in the conversation.
+                
+                Answer with the updated summary only, in at most %d words.
+                """.formatted(summaryMaxWords);
+    }
+
+    private String getSummarizationUserMessage(String previousSummary, String transcript) {
+        return """
+                EXISTING SUMMARY:
+                """ +
+                (previousSummary.isBlank() ? "(none)" : previousSummary)
+                + """
+                
+                NEW MESSAGES:
+                """ +
+                transcript;
+    }
+}
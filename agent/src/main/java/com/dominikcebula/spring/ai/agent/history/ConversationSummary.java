@@ -0,0 +1,13 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+public record ConversationSummary(
+        @Id String conversationId,
+        String summary,
+        long summarizedMessages,
+        Instant updatedAt
+) {
+}
@@ -0,0 +1,26 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public class ConversationSummaryRepository {
+    // kept next to the ai_chat_memory_messages collection the chat history is appended to
+    private static final String COLLECTION_NAME = "ai_chat_memory_summary";
+
+    private final MongoTemplate mongoTemplate;
+
+    public ConversationSummaryRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Optional<ConversationSummary> findByConversationId(String conversationId) {
+        return Optional.ofNullable(mongoTemplate.findById(conversationId, ConversationSummary.class, COLLECTION_NAME));
+    }
+
+    public void save(ConversationSummary conversationSummary) {
+        mongoTemplate.save(conversationSummary, COLLECTION_NAME);
+    }
+}
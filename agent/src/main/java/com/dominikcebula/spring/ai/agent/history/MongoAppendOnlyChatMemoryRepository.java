@@ -0,0 +1,226 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class MongoAppendOnlyChatMemoryRepository implements AppendOnlyChatMemoryRepository, InitializingBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoAppendOnlyChatMemoryRepository.class);
+
+    private static final String MESSAGES_COLLECTION = "ai_chat_memory_messages";
+    private static final String SEQUENCES_COLLECTION = "ai_chat_memory_sequences";
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_CONVERSATION_ID = "conversationId";
+    private static final String FIELD_SEQUENCE = "sequence";
+    private static final String FIELD_TRIMMED_TO = "trimmedTo";
+    private static final String FIELD_TRIM_PENDING = "trimPending";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_TIMESTAMP = "timestamp";
+
+    private final MongoTemplate mongoTemplate;
+    private final int readLimit;
+    private final int maxMessagesPerConversation;
+
+    private final Counter appendedCounter;
+    private final Counter trimmedCounter;
+
+    public MongoAppendOnlyChatMemoryRepository(
+            MongoTemplate mongoTemplate,
+            @Value("${agent.history.repository.read-limit:200}") int readLimit,
+            @Value("${agent.history.repository.max-messages-per-conversation:500}") int maxMessagesPerConversation,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.readLimit = readLimit;
+        this.maxMessagesPerConversation = maxMessagesPerConversation;
+
+        this.appendedCounter = meterRegistry.counter("agent.history.repository.appended");
+        this.trimmedCounter = meterRegistry.counter("agent.history.repository.trimmed");
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        mongoTemplate.indexOps(MESSAGES_COLLECTION).createIndex(new Index()
+                .on(FIELD_CONVERSATION_ID, Sort.Direction.ASC)
+                .on(FIELD_SEQUENCE, Sort.Direction.ASC)
+                .unique()
+                .named("conversationId_sequence"));
+        mongoTemplate.indexOps(SEQUENCES_COLLECTION).createIndex(new Index()
+                .on(FIELD_TRIM_PENDING, Sort.Direction.ASC)
+                .sparse()
+                .named("trimPending"));
+    }
+
+    @Override
+    public List<String> findConversationIds() {
+        return mongoTemplate.findDistinct(new Query(), FIELD_CONVERSATION_ID, MESSAGES_COLLECTION, String.class);
+    }
+
+    // the newest messages are read backwards along the index and put back in conversation order
+    @Override
+    public List<Message> findByConversationId(String conversationId) {
+        Query query = Query.query(Criteria.where(FIELD_CONVERSATION_ID).is(conversationId))
+                .with(Sort.by(Sort.Direction.DESC, FIELD_SEQUENCE))
+                .limit(readLimit);
+
+        List<Document> documents = new ArrayList<>(mongoTemplate.find(query, Document.class, MESSAGES_COLLECTION));
+        return documents.reversed().stream()
+                .map(MongoAppendOnlyChatMemoryRepository::toMessage)
+                .toList();
+    }
+
+    @Override
+    public List<Message> append(String conversationId, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+
+        Document sequence = allocateSequences(conversationId, messages.size());
+        long lastSequence = ((Number) sequence.get(FIELD_SEQUENCE)).longValue();
+        long firstSequence = lastSequence - messages.size() + 1;
+
+        Instant timestamp = Instant.now();
+        List<Document> documents = new ArrayList<>(messages.size());
+        for (int idx = 0; idx < messages.size(); idx++) {
+            documents.add(toDocument(conversationId, firstSequence + idx, messages.get(idx), timestamp));
+        }
+
+        mongoTemplate.insert(documents, MESSAGES_COLLECTION);
+        appendedCounter.increment(messages.size());
+
+        if (lastSequence - trimmedTo(sequence) > maxMessagesPerConversation && !sequence.containsKey(FIELD_TRIM_PENDING)) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where(FIELD_ID).is(conversationId)),
+                    new Update().set(FIELD_TRIM_PENDING, true), SEQUENCES_COLLECTION);
+        }
+
+        return documents.stream()
+                .map(MongoAppendOnlyChatMemoryRepository::toMessage)
+                .toList();
+    }
+
+    // kept for callers of the plain ChatMemoryRepository contract, which replaces the whole conversation
+    @Override
+    public void saveAll(String conversationId, List<Message> messages) {
+        mongoTemplate.remove(Query.query(Criteria.where(FIELD_CONVERSATION_ID).is(conversationId)), MESSAGES_COLLECTION);
+        resetTrimming(conversationId);
+        append(conversationId, messages);
+    }
+
+    @Override
+    public void deleteUpTo(String conversationId, long sequence) {
+        mongoTemplate.remove(Query.query(Criteria.where(FIELD_CONVERSATION_ID).is(conversationId)
+                .and(FIELD_SEQUENCE).lte(sequence)), MESSAGES_COLLECTION);
+    }
+
+    @Override
+    public void deleteByConversationId(String conversationId) {
+        mongoTemplate.remove(Query.query(Criteria.where(FIELD_CONVERSATION_ID).is(conversationId)), MESSAGES_COLLECTION);
+        mongoTemplate.remove(Query.query(Criteria.where(FIELD_ID).is(conversationId)), SEQUENCES_COLLECTION);
+    }
+
+    // trim progress lives on the sequence document, so pending trims survive a restart and a trim only removes what is new since the last one
+    @Scheduled(fixedDelayString = "${agent.history.repository.trim-interval:1m}")
+    public void trimConversations() {
+        Query pendingTrims = Query.query(Criteria.where(FIELD_TRIM_PENDING).is(true));
+        for (Document sequence : mongoTemplate.find(pendingTrims, Document.class, SEQUENCES_COLLECTION)) {
+            String conversationId = sequence.getString(FIELD_ID);
+            try {
+                trimConversation(conversationId, ((Number) sequence.get(FIELD_SEQUENCE)).longValue(), trimmedTo(sequence));
+            } catch (RuntimeException e) {
+                LOGGER.error("Trimming chat memory of conversation {} failed", conversationId, e);
+            }
+        }
+    }
+
+    private void trimConversation(String conversationId, long lastSequence, long trimmedTo) {
+        long trimSequence = lastSequence - maxMessagesPerConversation;
+        if (trimSequence > trimmedTo) {
+            long trimmedMessages = mongoTemplate.remove(Query.query(Criteria.where(FIELD_CONVERSATION_ID).is(conversationId)
+                    .and(FIELD_SEQUENCE).gt(trimmedTo).lte(trimSequence)), MESSAGES_COLLECTION).getDeletedCount();
+            trimmedCounter.increment(trimmedMessages);
+        }
+
+        // the flag stays set when messages were appended meanwhile, they are trimmed on the next run
+        mongoTemplate.updateFirst(Query.query(Criteria.where(FIELD_ID).is(conversationId)),
+                new Update().max(FIELD_TRIMMED_TO, trimSequence), SEQUENCES_COLLECTION);
+        mongoTemplate.updateFirst(Query.query(Criteria.where(FIELD_ID).is(conversationId).and(FIELD_SEQUENCE).is(lastSequence)),
+                new Update().unset(FIELD_TRIM_PENDING), SEQUENCES_COLLECTION);
+    }
+
+    // sequences keep counting after a replace, nothing up to the current one is left to trim
+    private void resetTrimming(String conversationId) {
+        Document sequence = mongoTemplate.findAndModify(
+                Query.query(Criteria.where(FIELD_ID).is(conversationId)),
+                new Update().unset(FIELD_TRIM_PENDING),
+                Document.class,
+                SEQUENCES_COLLECTION);
+        if (sequence != null) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where(FIELD_ID).is(conversationId)),
+                    new Update().max(FIELD_TRIMMED_TO, ((Number) sequence.get(FIELD_SEQUENCE)).longValue()), SEQUENCES_COLLECTION);
+        }
+    }
+
+    private Document allocateSequences(String conversationId, int count) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where(FIELD_ID).is(conversationId)),
+                new Update().inc(FIELD_SEQUENCE, count),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class,
+                SEQUENCES_COLLECTION);
+    }
+
+    private static long trimmedTo(Document sequence) {
+        return sequence.get(FIELD_TRIMMED_TO) instanceof Number trimmedTo ? trimmedTo.longValue() : 0L;
+    }
+
+    private static Document toDocument(String conversationId, long sequence, Message message, Instant timestamp) {
+        if (message.getMessageType() == MessageType.TOOL) {
+            throw new IllegalArgumentException("Tool response messages are not kept in chat memory");
+        }
+
+        return new Document()
+                .append(FIELD_CONVERSATION_ID, conversationId)
+                .append(FIELD_SEQUENCE, sequence)
+                .append(FIELD_TYPE, message.getMessageType().name())
+                .append(FIELD_CONTENT, message.getText())
+                .append(FIELD_TIMESTAMP, Date.from(timestamp));
+    }
+
+    private static Message toMessage(Document document) {
+        String content = document.getString(FIELD_CONTENT);
+        Map<String, Object> metadata = Map.of(MESSAGE_SEQUENCE, ((Number) document.get(FIELD_SEQUENCE)).longValue());
+
+        return switch (MessageType.valueOf(document.getString(FIELD_TYPE))) {
+            case USER -> UserMessage.builder().text(content).metadata(metadata).build();
+            case ASSISTANT -> AssistantMessage.builder().content(content).properties(metadata).build();
+            case SYSTEM -> SystemMessage.builder().text(content).metadata(metadata).build();
+            case TOOL -> throw new IllegalStateException("Unexpected tool response message in chat memory");
+        };
+    }
+}
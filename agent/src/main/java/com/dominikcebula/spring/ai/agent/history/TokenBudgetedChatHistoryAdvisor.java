@@ -0,0 +1,103 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import com.dominikcebula.spring.ai.agent.prompt.PromptContext;
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.dominikcebula.spring.ai.agent.memory.utils.ChatClientRequestUtils.getConversationId;
+import static org.springframework.ai.chat.client.advisor.api.BaseAdvisor.DEFAULT_SCHEDULER;
+
+@Component
+public class TokenBudgetedChatHistoryAdvisor implements CallAdvisor, StreamAdvisor {
+    private final ChatHistoryService chatHistoryService;
+
+    public TokenBudgetedChatHistoryAdvisor(ChatHistoryService chatHistoryService) {
+        this.chatHistoryService = chatHistoryService;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        ChatClientResponse chatClientResponse = callAdvisorChain.nextCall(addHistory(chatClientRequest));
+
+        recordAssistantResponse(chatClientRequest, chatClientResponse);
+
+        return chatClientResponse;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        Flux<ChatClientResponse> chatClientResponses = Mono.fromCallable(() -> addHistory(chatClientRequest))
+                .subscribeOn(DEFAULT_SCHEDULER)
+                .flatMapMany(streamAdvisorChain::nextStream);
+
+        return new ChatClientMessageAggregator().aggregateChatClientResponse(chatClientResponses,
+                chatClientResponse -> recordAssistantResponse(chatClientRequest, chatClientResponse));
+    }
+
+    private ChatClientRequest addHistory(ChatClientRequest chatClientRequest) {
+        UUID conversationId = getConversationId(chatClientRequest);
+        ChatHistoryService.ChatHistory chatHistory = chatHistoryService.load(conversationId);
+
+        List<Message> promptMessages = chatClientRequest.prompt().getInstructions();
+        List<Message> systemMessages = promptMessages.stream()
+                .filter(message -> message.getMessageType() == MessageType.SYSTEM)
+                .toList();
+        List<Message> turnMessages = promptMessages.stream()
+                .filter(message -> message.getMessageType() != MessageType.SYSTEM)
+                .toList();
+
+        List<Message> messages = new ArrayList<>(systemMessages);
+        messages.addAll(chatHistory.verbatimMessages());
+        messages.addAll(turnMessages);
+
+        chatHistoryService.append(conversationId, List.of(chatClientRequest.prompt().getUserMessage()));
+
+        ChatClientRequest chatClientRequestWithHistory = chatClientRequest.mutate()
+                .prompt(chatClientRequest.prompt().mutate().messages(messages).build())
+                .build();
+
+        return chatHistory.summary()
+                .map(summary -> PromptContext.addBlock(chatClientRequestWithHistory, """
+                        Summary of the earlier part of this conversation:
+                        """ + summary))
+                .orElse(chatClientRequestWithHistory);
+    }
+
+    private void recordAssistantResponse(ChatClientRequest chatClientRequest, ChatClientResponse chatClientResponse) {
+        List<Message> assistantMessages = Optional.ofNullable(chatClientResponse.chatResponse())
+                .map(chatResponse -> chatResponse.getResults().stream()
+                        .map(Generation::getOutput)
+                        .map(Message.class::cast)
+                        .toList())
+                .orElse(List.of());
+
+        chatHistoryService.append(getConversationId(chatClientRequest), assistantMessages);
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return Advisor.DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dominikcebula.spring.ai.agent.Advisor")
+@Label("Advisor")
+@Category({"Agent", "Advisor Chain"})
+@Description("Time between entering and leaving one position of the advisor chain")
+public class AdvisorEvent extends Event {
+    @Label("Conversation Id Hash")
+    public long conversationIdHash;
+
+    @Label("Position")
+    public String position;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Prompt Messages")
+    public int promptMessages;
+
+    @Label("Prompt Characters")
+    public int promptCharacters;
+}
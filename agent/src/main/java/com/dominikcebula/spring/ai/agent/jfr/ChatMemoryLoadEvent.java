@@ -0,0 +1,25 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dominikcebula.spring.ai.agent.ChatMemoryLoad")
+@Label("Chat Memory Load")
+@Category({"Agent", "Chat Memory"})
+@Description("Chat history loaded for a turn")
+public class ChatMemoryLoadEvent extends Event {
+    @Label("Conversation Id Hash")
+    public long conversationIdHash;
+
+    @Label("Messages")
+    public int messages;
+
+    @Label("Characters")
+    public int characters;
+
+    @Label("Summary Characters")
+    public int summaryCharacters;
+}
@@ -0,0 +1,22 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dominikcebula.spring.ai.agent.ChatMemorySave")
+@Label("Chat Memory Save")
+@Category({"Agent", "Chat Memory"})
+@Description("Messages appended to the chat history")
+public class ChatMemorySaveEvent extends Event {
+    @Label("Conversation Id Hash")
+    public long conversationIdHash;
+
+    @Label("Messages")
+    public int messages;
+
+    @Label("Characters")
+    public int characters;
+}
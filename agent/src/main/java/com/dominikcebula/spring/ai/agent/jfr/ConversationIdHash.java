@@ -0,0 +1,30 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+public class ConversationIdHash {
+    public static final long UNKNOWN = 0;
+
+    private ConversationIdHash() {
+    }
+
+    // recordings leave the service, so they carry a one-way hash that still lets events of one conversation be grouped
+    public static long of(UUID conversationId) {
+        if (conversationId == null) {
+            return UNKNOWN;
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(ByteBuffer.allocate(16)
+                    .putLong(conversationId.getMostSignificantBits())
+                    .putLong(conversationId.getLeastSignificantBits())
+                    .array());
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
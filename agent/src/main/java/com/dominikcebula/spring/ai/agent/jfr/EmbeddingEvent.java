@@ -0,0 +1,25 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dominikcebula.spring.ai.agent.Embedding")
+@Label("Embedding")
+@Category({"Agent", "Embedding"})
+@Description("One call to the embedding model")
+public class EmbeddingEvent extends Event {
+    @Label("Conversation Id Hash")
+    public long conversationIdHash;
+
+    @Label("Texts")
+    public int texts;
+
+    @Label("Characters")
+    public int characters;
+
+    @Label("Embeddings")
+    public int embeddings;
+}
@@ -0,0 +1,28 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dominikcebula.spring.ai.agent.MemoryExtraction")
+@Label("Memory Extraction")
+@Category({"Agent", "Memory"})
+@Description("Long-term memories extracted from a finished turn and stored")
+public class MemoryExtractionEvent extends Event {
+    @Label("Conversation Id Hash")
+    public long conversationIdHash;
+
+    @Label("Prompt Characters")
+    public int promptCharacters;
+
+    @Label("Response Characters")
+    public int responseCharacters;
+
+    @Label("Extracted Memories")
+    public int extractedMemories;
+
+    @Label("Stored Memories")
+    public int storedMemories;
+}
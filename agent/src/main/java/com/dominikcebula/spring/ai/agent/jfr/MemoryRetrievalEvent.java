@@ -0,0 +1,25 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dominikcebula.spring.ai.agent.MemoryRetrieval")
+@Label("Memory Retrieval")
+@Category({"Agent", "Memory"})
+@Description("Long-term memories looked up for a user prompt")
+public class MemoryRetrievalEvent extends Event {
+    @Label("Conversation Id Hash")
+    public long conversationIdHash;
+
+    @Label("Prompt Characters")
+    public int promptCharacters;
+
+    @Label("Retrieved Memories")
+    public int retrievedMemories;
+
+    @Label("Memory Characters")
+    public int memoryCharacters;
+}
@@ -0,0 +1,20 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+public class PayloadSize {
+    private PayloadSize() {
+    }
+
+    public static int characters(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    public static int characters(List<? extends Message> messages) {
+        return messages.stream()
+                .mapToInt(message -> characters(message.getText()))
+                .sum();
+    }
+}
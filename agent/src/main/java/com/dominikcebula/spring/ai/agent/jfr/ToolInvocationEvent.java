@@ -0,0 +1,28 @@
+package com.dominikcebula.spring.ai.agent.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.dominikcebula.spring.ai.agent.ToolInvocation")
+@Label("Tool Invocation")
+@Category({"Agent", "Tools"})
+@Description("One invocation of an MCP tool")
+public class ToolInvocationEvent extends Event {
+    @Label("Conversation Id Hash")
+    public long conversationIdHash;
+
+    @Label("Tool Name")
+    public String toolName;
+
+    @Label("Input Characters")
+    public int inputCharacters;
+
+    @Label("Output Characters")
+    public int outputCharacters;
+
+    @Label("Failed")
+    public boolean failed;
+}
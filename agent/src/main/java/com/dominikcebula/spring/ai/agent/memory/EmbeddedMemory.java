@@ -0,0 +1,9 @@
+package com.dominikcebula.spring.ai.agent.memory;
+
+import static com.dominikcebula.spring.ai.agent.memory.utils.VectorUtils.similarityScore;
+
+public record EmbeddedMemory(MemoryType memoryType, float[] embedding) {
+    public boolean isSimilarTo(EmbeddedMemory other, float similarityThreshold) {
+        return memoryType == other.memoryType && similarityScore(embedding, other.embedding) >= similarityThreshold;
+    }
+}
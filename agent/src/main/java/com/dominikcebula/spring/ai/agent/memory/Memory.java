@@ -11,8 +11,3 @@ public record Memory(
         LocalDateTime createdAt
 ) {
 }
-
-enum MemoryType {
-    EPISODIC,
-    SEMANTIC
-}
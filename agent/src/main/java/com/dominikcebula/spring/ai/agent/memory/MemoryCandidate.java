@@ -0,0 +1,4 @@
+package com.dominikcebula.spring.ai.agent.memory;
+
+record MemoryCandidate(String content, MemoryType memoryType) {
+}
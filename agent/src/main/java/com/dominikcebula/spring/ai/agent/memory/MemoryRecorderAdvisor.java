@@ -1,19 +1,31 @@
 package com.dominikcebula.spring.ai.agent.memory;
 
+import com.dominikcebula.spring.ai.agent.concurrency.CallPriority;
+import com.dominikcebula.spring.ai.agent.embedding.EmbeddingContext;
+import com.dominikcebula.spring.ai.agent.jfr.ConversationIdHash;
+import com.dominikcebula.spring.ai.agent.jfr.MemoryExtractionEvent;
+import com.dominikcebula.spring.ai.agent.jfr.PayloadSize;
+import com.dominikcebula.spring.ai.agent.memory.extraction.MemoryExtractionFilter;
+import com.dominikcebula.spring.ai.agent.memory.extraction.MemoryExtractionPipeline;
+import com.dominikcebula.spring.ai.agent.model.ModelRouter;
+import com.dominikcebula.spring.ai.agent.model.ModelTask;
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
 import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
-import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.converter.BeanOutputConverter;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,33 +35,66 @@ import static com.dominikcebula.spring.ai.agent.memory.MemoryDefinitions.SIMILAR
 import static com.dominikcebula.spring.ai.agent.memory.utils.ChatClientRequestUtils.getConversationId;
 
 @Component
-public class MemoryRecorderAdvisor implements CallAdvisor {
+public class MemoryRecorderAdvisor implements CallAdvisor, StreamAdvisor {
     private final MemoryService memoryService;
-    private final ChatModel chatModel;
+    private final ModelRouter modelRouter;
+    private final MemoryExtractionPipeline memoryExtractionPipeline;
+    private final MemoryExtractionFilter memoryExtractionFilter;
 
-    public MemoryRecorderAdvisor(MemoryService memoryService, ChatModel chatModel) {
+    public MemoryRecorderAdvisor(MemoryService memoryService, ModelRouter modelRouter, MemoryExtractionPipeline memoryExtractionPipeline, MemoryExtractionFilter memoryExtractionFilter) {
         this.memoryService = memoryService;
-        this.chatModel = chatModel;
+        this.modelRouter = modelRouter;
+        this.memoryExtractionPipeline = memoryExtractionPipeline;
+        this.memoryExtractionFilter = memoryExtractionFilter;
     }
 
     @Override
     public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
         ChatClientResponse chatClientResponse = callAdvisorChain.nextCall(chatClientRequest);
 
-        extractAndStoreMemories(chatClientRequest, chatClientResponse);
+        submitMemoryExtraction(chatClientRequest, chatClientResponse);
 
         return chatClientResponse;
     }
 
-    private void extractAndStoreMemories(ChatClientRequest chatClientRequest, ChatClientResponse chatClientResponse) {
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return new ChatClientMessageAggregator().aggregateChatClientResponse(streamAdvisorChain.nextStream(chatClientRequest),
+                chatClientResponse -> submitMemoryExtraction(chatClientRequest, chatClientResponse));
+    }
+
+    // turns that are unlikely to carry a memory never reach the extraction queue
+    private void submitMemoryExtraction(ChatClientRequest chatClientRequest, ChatClientResponse chatClientResponse) {
         String userPrompt = chatClientRequest.prompt().getUserMessage().getText();
         String chatResponse = getChatResponse(chatClientResponse);
 
+        if (memoryExtractionFilter.shouldExtract(userPrompt, chatResponse)) {
+            memoryExtractionPipeline.submit(() -> CallPriority.BACKGROUND.run(() -> extractAndStoreMemories(chatClientRequest, userPrompt, chatResponse)));
+        }
+    }
+
+    private void extractAndStoreMemories(ChatClientRequest chatClientRequest, String userPrompt, String chatResponse) {
+        MemoryExtractionEvent memoryExtractionEvent = new MemoryExtractionEvent();
+        memoryExtractionEvent.begin();
+
         MemoryExtractionResult memoryExtractionResult = extractMemories(userPrompt, chatResponse);
 
-        memoryExtractionResult = filterOutSimilarMemories(chatClientRequest, memoryExtractionResult);
+        MemoryExtractionResult storedMemories = EmbeddingContext.of(chatClientRequest).run(() -> {
+            MemoryExtractionResult newMemories = filterOutSimilarMemories(chatClientRequest, memoryExtractionResult);
+
+            storeExtractedMemories(chatClientRequest, newMemories);
+
+            return newMemories;
+        });
 
-        storeExtractedMemories(chatClientRequest, memoryExtractionResult);
+        if (memoryExtractionEvent.shouldCommit()) {
+            memoryExtractionEvent.conversationIdHash = ConversationIdHash.of(getConversationId(chatClientRequest));
+            memoryExtractionEvent.promptCharacters = PayloadSize.characters(userPrompt);
+            memoryExtractionEvent.responseCharacters = PayloadSize.characters(chatResponse);
+            memoryExtractionEvent.extractedMemories = memoryExtractionResult.memories().size();
+            memoryExtractionEvent.storedMemories = storedMemories.memories().size();
+            memoryExtractionEvent.commit();
+        }
     }
 
     @NonNull
@@ -67,7 +112,7 @@ public class MemoryRecorderAdvisor implements CallAdvisor {
         String memoryExtractionUserMessage = getMemoryExtractionUserMessage(userPrompt, chatResponse);
         String memoryExtractionSystemMessage = getMemoryExtractionSystemMessage();
 
-        ChatResponse memoryExtractionResponse = chatModel.call(new Prompt(List.of(
+        ChatResponse memoryExtractionResponse = modelRouter.call(ModelTask.MEMORY_EXTRACTION, new Prompt(List.of(
                 new UserMessage(memoryExtractionUserMessage),
                 new SystemMessage(memoryExtractionSystemMessage)
         )));
@@ -82,10 +127,8 @@ public class MemoryRecorderAdvisor implements CallAdvisor {
 
     private MemoryExtractionResult filterOutSimilarMemories(ChatClientRequest chatClientRequest, MemoryExtractionResult memoryExtractionResult) {
         return new MemoryExtractionResult(
-                memoryExtractionResult.memories().stream()
-                        .filter(memory -> !memoryService.similarMemoryExists(
-                                getConversationId(chatClientRequest), memory.content(), memory.memoryType(), SIMILARITY_90_PRC))
-                        .toList());
+                memoryService.filterOutSimilarMemories(
+                        getConversationId(chatClientRequest), memoryExtractionResult.memories(), SIMILARITY_90_PRC));
     }
 
     private void storeExtractedMemories(ChatClientRequest chatClientRequest, MemoryExtractionResult memoryExtractionResult) {
@@ -147,9 +190,6 @@ public class MemoryRecorderAdvisor implements CallAdvisor {
         return HIGHEST_PRECEDENCE + 60;
     }
 
-    private record MemoryCandidate(String content, MemoryType memoryType) {
-    }
-
     private record MemoryExtractionResult(List<MemoryCandidate> memories) {
     }
 
@@ -1,10 +1,19 @@
 package com.dominikcebula.spring.ai.agent.memory;
 
+import com.dominikcebula.spring.ai.agent.embedding.EmbeddingContext;
+import com.dominikcebula.spring.ai.agent.jfr.ConversationIdHash;
+import com.dominikcebula.spring.ai.agent.jfr.MemoryRetrievalEvent;
+import com.dominikcebula.spring.ai.agent.jfr.PayloadSize;
+import com.dominikcebula.spring.ai.agent.prompt.PromptContext;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
 import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.stream.IntStream;
@@ -12,9 +21,10 @@ import java.util.stream.IntStream;
 import static com.dominikcebula.spring.ai.agent.memory.MemoryDefinitions.MEMORY_LIMIT_5_MEMORIES;
 import static com.dominikcebula.spring.ai.agent.memory.MemoryDefinitions.SIMILARITY_90_PRC;
 import static com.dominikcebula.spring.ai.agent.memory.utils.ChatClientRequestUtils.getConversationId;
+import static org.springframework.ai.chat.client.advisor.api.BaseAdvisor.DEFAULT_SCHEDULER;
 
 @Component
-public class MemoryRetrievalAdvisor implements CallAdvisor {
+public class MemoryRetrievalAdvisor implements CallAdvisor, StreamAdvisor {
     private final MemoryService memoryService;
 
     public MemoryRetrievalAdvisor(MemoryService memoryService) {
@@ -23,42 +33,53 @@ public class MemoryRetrievalAdvisor implements CallAdvisor {
 
     @Override
     public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        return callAdvisorChain.nextCall(augmentWithMemories(chatClientRequest));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return Mono.fromCallable(() -> augmentWithMemories(chatClientRequest))
+                .subscribeOn(DEFAULT_SCHEDULER)
+                .flatMapMany(streamAdvisorChain::nextStream);
+    }
+
+    private ChatClientRequest augmentWithMemories(ChatClientRequest originalChatClientRequest) {
+        ChatClientRequest chatClientRequest = EmbeddingContext.attach(originalChatClientRequest);
         String userPrompt = chatClientRequest.prompt().getUserMessage().getText();
 
-        List<Memory> memories = memoryService.retrieveMemory(
+        MemoryRetrievalEvent memoryRetrievalEvent = new MemoryRetrievalEvent();
+        memoryRetrievalEvent.begin();
+
+        List<Memory> memories = EmbeddingContext.of(chatClientRequest).run(() -> memoryService.retrieveMemory(
                 getConversationId(chatClientRequest),
-                userPrompt, MEMORY_LIMIT_5_MEMORIES, SIMILARITY_90_PRC);
-
-        if (!memories.isEmpty()) {
-            String memory = """
-                    Use the Long-term MEMORY below if relevant. Keep answers factual and concise.
-                    
-                    ----- MEMORY -----
-                    """ +
-                    IntStream.range(0, memories.size())
-                            .mapToObj(idx -> String.format("%d. Memory Type: %s, Memory Content: %s",
-                                    idx + 1, memories.get(idx).memoryType(), memories.get(idx).content()))
-                            .reduce("", (a, b) -> a + b + "\n")
-                    + """
-                    ------------------
-                    """;
-
-            chatClientRequest.prompt().augmentSystemMessage(message -> {
-                String currentPrompt = message.getText();
-
-                String promptWithMemory = new StringBuilder()
-                        .append(currentPrompt)
-                        .append("\n\n")
-                        .append(memory)
-                        .toString();
-
-                return message.mutate()
-                        .text(promptWithMemory)
-                        .build();
-            });
+                userPrompt, MEMORY_LIMIT_5_MEMORIES, SIMILARITY_90_PRC));
+
+        if (memoryRetrievalEvent.shouldCommit()) {
+            memoryRetrievalEvent.conversationIdHash = ConversationIdHash.of(getConversationId(chatClientRequest));
+            memoryRetrievalEvent.promptCharacters = PayloadSize.characters(userPrompt);
+            memoryRetrievalEvent.retrievedMemories = memories.size();
+            memoryRetrievalEvent.memoryCharacters = memories.stream().mapToInt(memory -> PayloadSize.characters(memory.content())).sum();
+            memoryRetrievalEvent.commit();
         }
 
-        return callAdvisorChain.nextCall(chatClientRequest);
+        if (memories.isEmpty()) {
+            return chatClientRequest;
+        }
+
+        String memory = """
+                Use the Long-term MEMORY below if relevant. Keep answers factual and concise.
+                
+                ----- MEMORY -----
+                """ +
+                IntStream.range(0, memories.size())
+                        .mapToObj(idx -> String.format("%d. Memory Type: %s, Memory Content: %s",
+                                idx + 1, memories.get(idx).memoryType(), memories.get(idx).content()))
+                        .reduce("", (a, b) -> a + b + "\n")
+                + """
+                ------------------
+                """;
+
+        return PromptContext.addBlock(chatClientRequest, memory);
     }
 
     @Override
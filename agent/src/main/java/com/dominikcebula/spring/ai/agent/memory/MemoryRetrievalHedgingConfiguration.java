@@ -0,0 +1,36 @@
+package com.dominikcebula.spring.ai.agent.memory;
+
+import com.dominikcebula.spring.ai.agent.hedging.RequestHedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class MemoryRetrievalHedgingConfiguration {
+    private final boolean enabled;
+    private final double delayPercentile;
+    private final Duration minDelay;
+    private final double budget;
+    private final int windowSize;
+
+    public MemoryRetrievalHedgingConfiguration(
+            @Value("${agent.memory.retrieval.hedging.enabled:false}") boolean enabled,
+            @Value("${agent.memory.retrieval.hedging.delay-percentile:0.95}") double delayPercentile,
+            @Value("${agent.memory.retrieval.hedging.min-delay:20ms}") Duration minDelay,
+            @Value("${agent.memory.retrieval.hedging.budget:0.05}") double budget,
+            @Value("${agent.memory.retrieval.hedging.window-size:1000}") int windowSize) {
+        this.enabled = enabled;
+        this.delayPercentile = delayPercentile;
+        this.minDelay = minDelay;
+        this.budget = budget;
+        this.windowSize = windowSize;
+    }
+
+    @Bean
+    public RequestHedger memoryRetrievalHedger(MeterRegistry meterRegistry) {
+        return new RequestHedger("memory-retrieval", enabled, delayPercentile, minDelay, budget, windowSize, meterRegistry);
+    }
+}
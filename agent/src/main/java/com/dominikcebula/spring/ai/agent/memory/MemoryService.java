@@ -1,31 +1,65 @@
 package com.dominikcebula.spring.ai.agent.memory;
 
+import com.dominikcebula.spring.ai.agent.concurrency.CallPriority;
+import com.dominikcebula.spring.ai.agent.embedding.EmbeddingContext;
+import com.dominikcebula.spring.ai.agent.hedging.RequestHedger;
 import com.dominikcebula.spring.ai.agent.memory.utils.DateUtils;
+import com.dominikcebula.spring.ai.agent.memory.vectorstore.DocumentListing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.util.Collections.singletonList;
 
 @Service
-public class MemoryService {
+public class MemoryService implements DisposableBean {
     private static final String META_CONVERSATION_ID = "conversationId";
     private static final String META_MEMORY_TYPE = "memoryType";
     private static final String META_CREATED_AT = "createdAt";
 
-    private final VectorStore vectorStore;
+    private static final String VECTOR_STORE_METRIC = "agent.memory.vector-store.duration";
 
-    public MemoryService(VectorStore vectorStore) {
+    private final VectorStore vectorStore;
+    private final DocumentListing documentListing;
+    private final EmbeddingModel embeddingModel;
+    private final RequestHedger memoryRetrievalHedger;
+    private final ExecutorService deduplicationExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer storeTimer;
+    private final Timer deduplicationSearchTimer;
+    private final Timer retrievalSearchTimer;
+    private final Timer listingTimer;
+    private final Timer deleteTimer;
+
+    public MemoryService(VectorStore vectorStore, DocumentListing documentListing, EmbeddingModel embeddingModel,
+                         RequestHedger memoryRetrievalHedger, MeterRegistry meterRegistry) {
         this.vectorStore = vectorStore;
+        this.documentListing = documentListing;
+        this.embeddingModel = embeddingModel;
+        this.memoryRetrievalHedger = memoryRetrievalHedger;
+
+        this.storeTimer = meterRegistry.timer(VECTOR_STORE_METRIC, "operation", "store");
+        this.deduplicationSearchTimer = meterRegistry.timer(VECTOR_STORE_METRIC, "operation", "deduplication-search");
+        this.retrievalSearchTimer = meterRegistry.timer(VECTOR_STORE_METRIC, "operation", "retrieval-search");
+        this.listingTimer = meterRegistry.timer(VECTOR_STORE_METRIC, "operation", "listing");
+        this.deleteTimer = meterRegistry.timer(VECTOR_STORE_METRIC, "operation", "delete");
     }
 
     public void storeMemory(UUID conversationId, String content, MemoryType memoryType) {
@@ -41,24 +75,56 @@ public class MemoryService {
                 )
         );
 
-        vectorStore.add(singletonList(document));
+        storeTimer.record(() -> vectorStore.add(singletonList(document)));
+    }
+
+    // candidates are embedded in one batch, the vectors land in the turn's EmbeddingContext and the per-candidate searches reuse them
+    public List<MemoryCandidate> filterOutSimilarMemories(UUID conversationId, List<MemoryCandidate> candidates, float distanceThreshold) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<float[]> embeddings = embeddingModel.embed(candidates.stream().map(MemoryCandidate::content).toList());
+
+        List<CompletableFuture<Boolean>> similarMemoryLookups = candidates.stream()
+                .map(candidate -> CompletableFuture.supplyAsync(
+                        EmbeddingContext.propagate(CallPriority.propagate(() -> similarMemoryExists(conversationId, candidate, distanceThreshold))),
+                        deduplicationExecutor))
+                .toList();
+
+        List<EmbeddedMemory> acceptedCandidates = new ArrayList<>();
+        List<MemoryCandidate> newMemories = new ArrayList<>();
+        for (int idx = 0; idx < candidates.size(); idx++) {
+            MemoryCandidate candidate = candidates.get(idx);
+            EmbeddedMemory embeddedCandidate = new EmbeddedMemory(candidate.memoryType(), embeddings.get(idx));
+
+            boolean similarCandidateAccepted = acceptedCandidates.stream()
+                    .anyMatch(acceptedCandidate -> acceptedCandidate.isSimilarTo(embeddedCandidate, distanceThreshold));
+
+            if (!similarCandidateAccepted && !similarMemoryLookups.get(idx).join()) {
+                newMemories.add(candidate);
+                acceptedCandidates.add(embeddedCandidate);
+            }
+        }
+
+        return newMemories;
     }
 
-    public boolean similarMemoryExists(UUID conversationId, String content, MemoryType memoryType, float distanceThreshold) {
+    private boolean similarMemoryExists(UUID conversationId, MemoryCandidate candidate, float distanceThreshold) {
         FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder();
 
         Filter.Expression filterExpression = filterExpressionBuilder.and(
                 filterExpressionBuilder.eq(META_CONVERSATION_ID, conversationId.toString()),
-                filterExpressionBuilder.eq(META_MEMORY_TYPE, memoryType.name())
+                filterExpressionBuilder.eq(META_MEMORY_TYPE, candidate.memoryType().name())
         ).build();
 
-        List<Document> foundMemories = vectorStore.similaritySearch(
+        List<Document> foundMemories = deduplicationSearchTimer.record(() -> vectorStore.similaritySearch(
                 SearchRequest.builder()
-                        .query(content)
+                        .query(candidate.content())
                         .topK(1)
                         .filterExpression(filterExpression)
                         .similarityThreshold(distanceThreshold)
-                        .build());
+                        .build()));
 
         return !foundMemories.isEmpty();
     }
@@ -68,19 +134,57 @@ public class MemoryService {
 
         Filter.Expression filterExpression = filterExpressionBuilder.eq(META_CONVERSATION_ID, conversationId.toString()).build();
 
-        List<Document> documents = vectorStore.similaritySearch(
-                SearchRequest.builder()
-                        .query(userPrompt)
-                        .topK(limit)
-                        .filterExpression(filterExpression)
-                        .similarityThreshold(distanceThreshold)
-                        .build());
+        SearchRequest searchRequest = SearchRequest.builder()
+                .query(userPrompt)
+                .topK(limit)
+                .filterExpression(filterExpression)
+                .similarityThreshold(distanceThreshold)
+                .build();
+
+        // the search embeds the prompt itself, so a hedged attempt covers both the embedding call and the vector search
+        List<Document> documents = retrievalSearchTimer.record(() -> memoryRetrievalHedger.call(
+                EmbeddingContext.propagate(CallPriority.propagate(() -> vectorStore.similaritySearch(searchRequest)))));
 
         return documents.stream()
                 .map(this::mapToMemory)
                 .toList();
     }
 
+    // listed by metadata alone and paged by id, a similarity query would cap the conversation at topK
+    public List<Memory> findMemories(UUID conversationId, int pageSize) {
+        FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder();
+
+        Filter.Expression filterExpression = filterExpressionBuilder.eq(META_CONVERSATION_ID, conversationId.toString()).build();
+
+        List<Memory> memories = new ArrayList<>();
+        String afterId = null;
+        List<Document> page;
+        do {
+            String pageAfterId = afterId;
+            page = listingTimer.record(() -> documentListing.list(filterExpression, pageAfterId, pageSize));
+            page.stream()
+                    .map(this::mapToMemory)
+                    .forEach(memories::add);
+            afterId = page.isEmpty() ? afterId : page.getLast().getId();
+        } while (page.size() == pageSize);
+
+        return memories;
+    }
+
+    public List<String> findConversationIds() {
+        return listingTimer.record(() -> documentListing.distinctValues(META_CONVERSATION_ID));
+    }
+
+    public void deleteMemories(List<UUID> memoryIds) {
+        if (memoryIds.isEmpty()) {
+            return;
+        }
+
+        deleteTimer.record(() -> vectorStore.delete(memoryIds.stream()
+                .map(UUID::toString)
+                .toList()));
+    }
+
     private Memory mapToMemory(Document document) {
         return new Memory(
                 UUID.fromString(document.getId()),
@@ -90,4 +194,9 @@ public class MemoryService {
                 DateUtils.toLocalDateTime((Date) document.getMetadata().get(META_CREATED_AT))
         );
     }
+
+    @Override
+    public void destroy() {
+        deduplicationExecutor.shutdownNow();
+    }
 }
@@ -0,0 +1,6 @@
+package com.dominikcebula.spring.ai.agent.memory;
+
+public enum MemoryType {
+    EPISODIC,
+    SEMANTIC
+}
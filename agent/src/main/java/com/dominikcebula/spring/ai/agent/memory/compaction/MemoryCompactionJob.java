@@ -0,0 +1,141 @@
+package com.dominikcebula.spring.ai.agent.memory.compaction;
+
+import com.dominikcebula.spring.ai.agent.memory.Memory;
+import com.dominikcebula.spring.ai.agent.memory.MemoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@ConditionalOnProperty(name = "agent.memory.compaction.enabled", havingValue = "true")
+public class MemoryCompactionJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryCompactionJob.class);
+
+    private static final String METRIC_PREFIX = "agent.memory.compaction";
+
+    private final MemoryService memoryService;
+    private final MemoryCompactionPlanner memoryCompactionPlanner;
+    private final int pageSize;
+    private final int deleteBatchSize;
+    private final boolean dryRun;
+
+    private final Counter duplicateCounter;
+    private final Counter expiredCounter;
+    private final Counter cappedCounter;
+    private final Counter failedCounter;
+    private final Timer compactionTimer;
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    public MemoryCompactionJob(
+            MemoryService memoryService,
+            EmbeddingModel embeddingModel,
+            @Value("${agent.memory.compaction.merge-similarity-threshold:0.9}") float mergeSimilarityThreshold,
+            @Value("${agent.memory.compaction.episodic-time-to-live:90d}") Duration episodicTimeToLive,
+            @Value("${agent.memory.compaction.max-memories-per-conversation:200}") int maxMemoriesPerConversation,
+            @Value("${agent.memory.compaction.page-size:500}") int pageSize,
+            @Value("${agent.memory.compaction.delete-batch-size:100}") int deleteBatchSize,
+            @Value("${agent.memory.compaction.dry-run:true}") boolean dryRun,
+            MeterRegistry meterRegistry) {
+        this.memoryService = memoryService;
+        this.memoryCompactionPlanner = new MemoryCompactionPlanner(embeddingModel, mergeSimilarityThreshold, episodicTimeToLive, maxMemoriesPerConversation);
+        this.pageSize = pageSize;
+        this.deleteBatchSize = deleteBatchSize;
+        this.dryRun = dryRun;
+
+        String dryRunTag = String.valueOf(dryRun);
+        this.duplicateCounter = meterRegistry.counter(METRIC_PREFIX + ".memories", "reason", "duplicate", "dry-run", dryRunTag);
+        this.expiredCounter = meterRegistry.counter(METRIC_PREFIX + ".memories", "reason", "expired", "dry-run", dryRunTag);
+        this.cappedCounter = meterRegistry.counter(METRIC_PREFIX + ".memories", "reason", "capped", "dry-run", dryRunTag);
+        this.failedCounter = meterRegistry.counter(METRIC_PREFIX + ".failed");
+        this.compactionTimer = meterRegistry.timer(METRIC_PREFIX + ".duration");
+    }
+
+    @Scheduled(cron = "${agent.memory.compaction.cron:0 0 3 * * *}")
+    public void compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            LOGGER.warn("Memory compaction is still running, skipping this run");
+            return;
+        }
+
+        try {
+            compactionTimer.record(this::compactAllConversations);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void compactAllConversations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> pendingDeletes = new ArrayList<>();
+
+        // conversation ids come from the memories themselves, the chat history of a conversation may already be trimmed away
+        for (String conversationId : memoryService.findConversationIds()) {
+            parseConversationId(conversationId).ifPresent(parsedConversationId -> {
+                try {
+                    MemoryCompactionPlan plan = compactConversation(parsedConversationId, now);
+                    pendingDeletes.addAll(plan.memoriesToDelete());
+                } catch (RuntimeException e) {
+                    failedCounter.increment();
+                    LOGGER.error("Memory compaction of conversation {} failed", conversationId, e);
+                }
+            });
+
+            if (pendingDeletes.size() >= deleteBatchSize) {
+                deleteMemories(pendingDeletes);
+            }
+        }
+
+        deleteMemories(pendingDeletes);
+    }
+
+    private MemoryCompactionPlan compactConversation(UUID conversationId, LocalDateTime now) {
+        List<Memory> memories = memoryService.findMemories(conversationId, pageSize);
+        MemoryCompactionPlan plan = memoryCompactionPlanner.plan(conversationId, memories, now);
+
+        duplicateCounter.increment(plan.duplicateMemories().size());
+        expiredCounter.increment(plan.expiredMemories().size());
+        cappedCounter.increment(plan.cappedMemories().size());
+
+        if (!plan.isEmpty()) {
+            LOGGER.info("{}Compacting conversation {}: {} of {} memories are duplicates, {} expired, {} over the cap",
+                    dryRun ? "[dry-run] " : "", conversationId, plan.duplicateMemories().size(), memories.size(),
+                    plan.expiredMemories().size(), plan.cappedMemories().size());
+        }
+
+        return plan;
+    }
+
+    private void deleteMemories(List<UUID> pendingDeletes) {
+        if (!dryRun) {
+            for (int from = 0; from < pendingDeletes.size(); from += deleteBatchSize) {
+                memoryService.deleteMemories(pendingDeletes.subList(from, Math.min(from + deleteBatchSize, pendingDeletes.size())));
+            }
+        }
+        pendingDeletes.clear();
+    }
+
+    private static Optional<UUID> parseConversationId(String conversationId) {
+        try {
+            return Optional.of(UUID.fromString(conversationId));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Skipping memory compaction of conversation with non UUID id {}", conversationId);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dominikcebula.spring.ai.agent.memory.compaction;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public record MemoryCompactionPlan(
+        UUID conversationId,
+        List<UUID> duplicateMemories,
+        List<UUID> expiredMemories,
+        List<UUID> cappedMemories
+) {
+    public List<UUID> memoriesToDelete() {
+        return Stream.of(duplicateMemories, expiredMemories, cappedMemories)
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    public boolean isEmpty() {
+        return duplicateMemories.isEmpty() && expiredMemories.isEmpty() && cappedMemories.isEmpty();
+    }
+}
@@ -0,0 +1,72 @@
+package com.dominikcebula.spring.ai.agent.memory.compaction;
+
+import com.dominikcebula.spring.ai.agent.memory.EmbeddedMemory;
+import com.dominikcebula.spring.ai.agent.memory.Memory;
+import com.dominikcebula.spring.ai.agent.memory.MemoryType;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+public class MemoryCompactionPlanner {
+    private final EmbeddingModel embeddingModel;
+    private final float mergeSimilarityThreshold;
+    private final Duration episodicTimeToLive;
+    private final int maxMemoriesPerConversation;
+
+    public MemoryCompactionPlanner(EmbeddingModel embeddingModel, float mergeSimilarityThreshold, Duration episodicTimeToLive, int maxMemoriesPerConversation) {
+        this.embeddingModel = embeddingModel;
+        this.mergeSimilarityThreshold = mergeSimilarityThreshold;
+        this.episodicTimeToLive = episodicTimeToLive;
+        this.maxMemoriesPerConversation = maxMemoriesPerConversation;
+    }
+
+    public MemoryCompactionPlan plan(UUID conversationId, List<Memory> memories, LocalDateTime now) {
+        LocalDateTime episodicExpiry = now.minus(episodicTimeToLive);
+
+        List<UUID> expiredMemories = new ArrayList<>();
+        List<Memory> liveMemories = new ArrayList<>();
+        for (Memory memory : memories) {
+            if (memory.memoryType() == MemoryType.EPISODIC && memory.createdAt().isBefore(episodicExpiry)) {
+                expiredMemories.add(memory.id());
+            } else {
+                liveMemories.add(memory);
+            }
+        }
+
+        // newest first, so every cluster is represented by its most recent wording
+        liveMemories.sort(Comparator.comparing(Memory::createdAt).reversed());
+
+        List<UUID> duplicateMemories = new ArrayList<>();
+        List<Memory> keptMemories = new ArrayList<>();
+        List<EmbeddedMemory> clusterRepresentatives = new ArrayList<>();
+        List<float[]> embeddings = liveMemories.isEmpty()
+                ? List.of()
+                : embeddingModel.embed(liveMemories.stream().map(Memory::content).toList());
+        for (int idx = 0; idx < liveMemories.size(); idx++) {
+            Memory memory = liveMemories.get(idx);
+            EmbeddedMemory embeddedMemory = new EmbeddedMemory(memory.memoryType(), embeddings.get(idx));
+
+            boolean joinsExistingCluster = clusterRepresentatives.stream()
+                    .anyMatch(representative -> representative.isSimilarTo(embeddedMemory, mergeSimilarityThreshold));
+
+            if (joinsExistingCluster) {
+                duplicateMemories.add(memory.id());
+            } else {
+                clusterRepresentatives.add(embeddedMemory);
+                keptMemories.add(memory);
+            }
+        }
+
+        List<UUID> cappedMemories = keptMemories.stream()
+                .skip(maxMemoriesPerConversation)
+                .map(Memory::id)
+                .toList();
+
+        return new MemoryCompactionPlan(conversationId, duplicateMemories, expiredMemories, cappedMemories);
+    }
+}
@@ -0,0 +1,55 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static java.util.regex.Pattern.UNICODE_CASE;
+
+@Component
+public class CueMemoryExtractionGate implements MemoryExtractionGate {
+    private static final double BIAS = -2.5;
+    private static final double WORD_COUNT_WEIGHT = 0.02;
+    private static final int WORD_COUNT_CAP = 50;
+
+    private static final List<Cue> USER_CUES = List.of(
+            new Cue(3.0, "\\b(prefer\\w*|like|love|enjoy|hate|dislike|favou?rite|rather|avoid|always|never|usually|only)\\b"),
+            new Cue(3.0, "\\b(visa|passport|citizen\\w*|nationality|schengen|esta|residence permit|driver'?s licen[cs]e)\\b"),
+            new Cue(2.0, "\\b(i am|i'm|i have|we are|we're|my|our|travel+ing with|wife|husband|partner|kids|children|family|allergic|vegetarian|vegan|wheelchair|pet|dog|budget)\\b"),
+            new Cue(1.0, "\\b(economy|business class|first class|window|aisle|non-?stop|direct|luxury|cheap\\w*|suv|electric|automatic|manual)\\b"),
+            new Cue(-4.0, "^\\W*(yes|yeah|yep|no|nope|ok|okay|sure|thanks|thank you|great|perfect|cool|fine|sounds good|go ahead|do it|book it|confirm\\w*|the (first|second|third|last|cheapest) one)\\W*$"));
+
+    private static final List<Cue> ASSISTANT_CUES = List.of(
+            new Cue(1.0, "\\b(visa|passport|entry requirements?)\\b"),
+            new Cue(0.5, "\\b(noted|i'll remember|as you prefer|your preference)\\b"));
+
+    @Override
+    public double memoryProbability(String userPrompt, String assistantResponse) {
+        double score = BIAS
+                + score(USER_CUES, userPrompt)
+                + score(ASSISTANT_CUES, assistantResponse)
+                + WORD_COUNT_WEIGHT * Math.min(wordCount(userPrompt), WORD_COUNT_CAP);
+
+        return 1.0 / (1.0 + Math.exp(-score));
+    }
+
+    private static double score(List<Cue> cues, String text) {
+        return cues.stream()
+                .filter(cue -> cue.pattern().matcher(text).find())
+                .mapToDouble(Cue::weight)
+                .sum();
+    }
+
+    private static int wordCount(String text) {
+        String trimmedText = text.strip();
+        return trimmedText.isEmpty() ? 0 : trimmedText.split("\\s+").length;
+    }
+
+    private record Cue(double weight, Pattern pattern) {
+        Cue(double weight, String regex) {
+            this(weight, Pattern.compile(regex, CASE_INSENSITIVE | UNICODE_CASE));
+        }
+    }
+}
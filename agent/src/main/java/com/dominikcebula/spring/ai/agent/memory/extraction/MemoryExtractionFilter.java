@@ -0,0 +1,39 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MemoryExtractionFilter {
+    private static final String METRIC_NAME = "agent.memory.extraction.gate";
+
+    private final MemoryExtractionGate memoryExtractionGate;
+    private final boolean enabled;
+    private final double threshold;
+
+    private final Counter runCounter;
+    private final Counter skippedCounter;
+
+    public MemoryExtractionFilter(
+            MemoryExtractionGate memoryExtractionGate,
+            @Value("${agent.memory.extraction.gate.enabled:true}") boolean enabled,
+            @Value("${agent.memory.extraction.gate.threshold:0.3}") double threshold,
+            MeterRegistry meterRegistry) {
+        this.memoryExtractionGate = memoryExtractionGate;
+        this.enabled = enabled;
+        this.threshold = threshold;
+
+        this.runCounter = meterRegistry.counter(METRIC_NAME, "decision", "run");
+        this.skippedCounter = meterRegistry.counter(METRIC_NAME, "decision", "skipped");
+    }
+
+    public boolean shouldExtract(String userPrompt, String assistantResponse) {
+        boolean shouldExtract = !enabled || memoryExtractionGate.memoryProbability(userPrompt, assistantResponse) >= threshold;
+
+        (shouldExtract ? runCounter : skippedCounter).increment();
+
+        return shouldExtract;
+    }
+}
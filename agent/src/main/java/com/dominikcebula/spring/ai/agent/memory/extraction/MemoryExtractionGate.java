@@ -0,0 +1,5 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+public interface MemoryExtractionGate {
+    double memoryProbability(String userPrompt, String assistantResponse);
+}
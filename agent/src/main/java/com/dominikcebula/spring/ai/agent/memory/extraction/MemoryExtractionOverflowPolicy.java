@@ -0,0 +1,7 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+public enum MemoryExtractionOverflowPolicy {
+    DROP_NEWEST,
+    DROP_OLDEST,
+    CALLER_RUNS
+}
@@ -0,0 +1,140 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class MemoryExtractionPipeline implements SmartLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryExtractionPipeline.class);
+
+    private static final String METRIC_PREFIX = "agent.memory.extraction";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration shutdownTimeout;
+
+    private final Counter submittedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer extractionTimer;
+
+    private volatile boolean running;
+
+    public MemoryExtractionPipeline(
+            @Value("${agent.memory.extraction.pool-size:2}") int poolSize,
+            @Value("${agent.memory.extraction.queue-capacity:100}") int queueCapacity,
+            @Value("${agent.memory.extraction.overflow-policy:DROP_OLDEST}") MemoryExtractionOverflowPolicy overflowPolicy,
+            @Value("${agent.memory.extraction.shutdown-timeout:30s}") Duration shutdownTimeout,
+            MeterRegistry meterRegistry) {
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.submittedCounter = meterRegistry.counter(METRIC_PREFIX + ".submitted");
+        this.droppedCounter = meterRegistry.counter(METRIC_PREFIX + ".dropped", "policy", overflowPolicy.name());
+        this.failedCounter = meterRegistry.counter(METRIC_PREFIX + ".failed");
+        this.extractionTimer = meterRegistry.timer(METRIC_PREFIX + ".duration");
+
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("memory-extraction-"),
+                rejectedExecutionHandler(overflowPolicy));
+
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public void submit(Runnable extraction) {
+        if (!running) {
+            droppedCounter.increment();
+            LOGGER.warn("Memory extraction pipeline is not running, dropping extraction task");
+            return;
+        }
+
+        submittedCounter.increment();
+        executor.execute(() -> runExtraction(extraction));
+    }
+
+    private void runExtraction(Runnable extraction) {
+        try {
+            extractionTimer.record(extraction);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            LOGGER.error("Memory extraction failed", e);
+        }
+    }
+
+    private RejectedExecutionHandler rejectedExecutionHandler(MemoryExtractionOverflowPolicy overflowPolicy) {
+        return switch (overflowPolicy) {
+            case DROP_NEWEST -> (task, executor) -> droppedCounter.increment();
+            case DROP_OLDEST -> (task, executor) -> {
+                if (executor.isShutdown()) {
+                    droppedCounter.increment();
+                    return;
+                }
+                if (executor.getQueue().poll() != null) {
+                    droppedCounter.increment();
+                }
+                executor.execute(task);
+            };
+            case CALLER_RUNS -> (task, executor) -> {
+                if (executor.isShutdown()) {
+                    droppedCounter.increment();
+                    return;
+                }
+                task.run();
+            };
+        };
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                List<Runnable> abandonedExtractions = executor.shutdownNow();
+                droppedCounter.increment(abandonedExtractions.size());
+                LOGGER.warn("Memory extraction pipeline did not drain within {}, abandoned {} extractions",
+                        shutdownTimeout, abandonedExtractions.size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SHUTDOWN_AFTER_WEB_SERVER_PHASE;
+    }
+
+    private static final int SHUTDOWN_AFTER_WEB_SERVER_PHASE = DEFAULT_PHASE - 4096;
+}
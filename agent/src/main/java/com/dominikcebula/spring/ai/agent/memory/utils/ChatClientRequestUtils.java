@@ -16,4 +16,10 @@ public class ChatClientRequestUtils {
     public static UUID getConversationId(ChatClientRequest chatClientRequest) {
         return (UUID) Optional.of(chatClientRequest.context().get(CONVERSATION_ID)).orElseThrow();
     }
+
+    public static Optional<UUID> findConversationId(ChatClientRequest chatClientRequest) {
+        return chatClientRequest.context().get(CONVERSATION_ID) instanceof UUID conversationId
+                ? Optional.of(conversationId)
+                : Optional.empty();
+    }
 }
@@ -0,0 +1,32 @@
+package com.dominikcebula.spring.ai.agent.memory.utils;
+
+public class VectorUtils {
+    private VectorUtils() {
+    }
+
+    public static double cosineSimilarity(float[] first, float[] second) {
+        if (first.length != second.length) {
+            throw new IllegalArgumentException("Vectors must have the same dimensions: " + first.length + " != " + second.length);
+        }
+
+        double dotProduct = 0.0;
+        double firstNorm = 0.0;
+        double secondNorm = 0.0;
+        for (int idx = 0; idx < first.length; idx++) {
+            dotProduct += first[idx] * second[idx];
+            firstNorm += first[idx] * first[idx];
+            secondNorm += second[idx] * second[idx];
+        }
+
+        if (firstNorm == 0.0 || secondNorm == 0.0) {
+            return 0.0;
+        }
+
+        return dotProduct / (Math.sqrt(firstNorm) * Math.sqrt(secondNorm));
+    }
+
+    // Atlas Vector Search normalizes cosine similarity to a 0..1 score, thresholds are expressed on that scale
+    public static double similarityScore(float[] first, float[] second) {
+        return (1.0 + cosineSimilarity(first, second)) / 2.0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import java.util.function.ToDoubleFunction;
+
+class BinaryVectorCodec implements VectorCodec<BinaryVectorCodec.BinaryVector> {
+    @Override
+    public BinaryVector encode(float[] normalizedVector) {
+        long[] bits = new long[(normalizedVector.length + Long.SIZE - 1) / Long.SIZE];
+        for (int idx = 0; idx < normalizedVector.length; idx++) {
+            if (normalizedVector[idx] > 0.0f) {
+                bits[idx / Long.SIZE] |= 1L << (idx % Long.SIZE);
+            }
+        }
+        return new BinaryVector(bits, normalizedVector.length);
+    }
+
+    @Override
+    public ToDoubleFunction<BinaryVector> distanceTo(float[] normalizedQuery) {
+        BinaryVector encodedQuery = encode(normalizedQuery);
+        return code -> distance(encodedQuery, code);
+    }
+
+    // the share of differing sign bits estimates the angle between the original vectors
+    @Override
+    public double distance(BinaryVector first, BinaryVector second) {
+        int hammingDistance = 0;
+        for (int idx = 0; idx < first.bits().length; idx++) {
+            hammingDistance += Long.bitCount(first.bits()[idx] ^ second.bits()[idx]);
+        }
+        return 1.0 - Math.cos(Math.PI * hammingDistance / first.dimensions());
+    }
+
+    @Override
+    public int bytesPerVector(int dimensions) {
+        return (dimensions + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+    }
+
+    record BinaryVector(long[] bits, int dimensions) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+
+// Spring AI vector stores can only be queried by similarity, listing by metadata alone needs a store specific query
+public interface DocumentListing {
+    // documents ordered by id, afterId is the last id of the previous page or null for the first one
+    List<Document> list(Filter.Expression filterExpression, String afterId, int limit);
+
+    List<String> distinctValues(String metadataField);
+}
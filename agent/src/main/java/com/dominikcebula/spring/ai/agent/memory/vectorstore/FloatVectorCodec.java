@@ -0,0 +1,25 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import java.util.function.ToDoubleFunction;
+
+class FloatVectorCodec implements VectorCodec<float[]> {
+    @Override
+    public float[] encode(float[] normalizedVector) {
+        return normalizedVector;
+    }
+
+    @Override
+    public ToDoubleFunction<float[]> distanceTo(float[] normalizedQuery) {
+        return code -> VectorCodec.exactDistance(normalizedQuery, code);
+    }
+
+    @Override
+    public double distance(float[] first, float[] second) {
+        return VectorCodec.exactDistance(first, second);
+    }
+
+    @Override
+    public int bytesPerVector(int dimensions) {
+        return dimensions * Float.BYTES;
+    }
+}
@@ -0,0 +1,243 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
+
+class HnswIndex<T> {
+    private final VectorCodec<T> codec;
+    private final int maxConnections;
+    private final int maxConnectionsLayer0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final List<Node<T>> nodes = new ArrayList<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(VectorCodec<T> codec, int maxConnections, int efConstruction, long seed) {
+        this.codec = codec;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLayer0 = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(maxConnections);
+        this.random = new Random(seed);
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    IntToDoubleFunction distanceTo(float[] query) {
+        ToDoubleFunction<T> distanceToQuery = codec.distanceTo(query);
+        return node -> distanceToQuery.applyAsDouble(nodes.get(node).code);
+    }
+
+    int add(float[] vector) {
+        int node = nodes.size();
+        int level = randomLevel();
+        nodes.add(new Node<>(codec.encode(vector), level, maxConnections, maxConnectionsLayer0));
+
+        if (entryPoint == -1) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        ToDoubleFunction<T> distanceToVector = codec.distanceTo(vector);
+        int currentEntryPoint = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            currentEntryPoint = greedyClosest(distanceToVector, currentEntryPoint, layer);
+        }
+
+        for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+            List<ScoredNode> candidates = searchLayer(distanceToVector, currentEntryPoint, efConstruction, layer);
+            int layerMaxConnections = layer == 0 ? maxConnectionsLayer0 : maxConnections;
+
+            for (ScoredNode neighbour : selectNeighbours(candidates, maxConnections)) {
+                nodes.get(node).connect(layer, neighbour.node());
+                connectAndPrune(neighbour.node(), node, layer, layerMaxConnections);
+            }
+
+            currentEntryPoint = candidates.getFirst().node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+
+        return node;
+    }
+
+    List<ScoredNode> search(float[] query, int limit, int ef, IntPredicate accept) {
+        if (entryPoint == -1) {
+            return List.of();
+        }
+
+        ToDoubleFunction<T> distanceToQuery = codec.distanceTo(query);
+        int currentEntryPoint = entryPoint;
+        for (int layer = maxLevel; layer > 0; layer--) {
+            currentEntryPoint = greedyClosest(distanceToQuery, currentEntryPoint, layer);
+        }
+
+        int currentEf = Math.max(ef, limit);
+        while (true) {
+            List<ScoredNode> accepted = searchLayer(distanceToQuery, currentEntryPoint, currentEf, 0).stream()
+                    .filter(scoredNode -> accept.test(scoredNode.node()))
+                    .limit(limit)
+                    .toList();
+
+            if (accepted.size() >= limit || currentEf >= nodes.size()) {
+                return accepted;
+            }
+
+            currentEf = Math.min(currentEf * 2, nodes.size());
+        }
+    }
+
+    private int greedyClosest(ToDoubleFunction<T> distanceToQuery, int start, int layer) {
+        int current = start;
+        double currentDistance = distanceToQuery.applyAsDouble(nodes.get(current).code);
+
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node<T> node = nodes.get(current);
+            for (int idx = 0; idx < node.neighbourCounts[layer]; idx++) {
+                int neighbour = node.neighbours[layer][idx];
+                double neighbourDistance = distanceToQuery.applyAsDouble(nodes.get(neighbour).code);
+                if (neighbourDistance < currentDistance) {
+                    current = neighbour;
+                    currentDistance = neighbourDistance;
+                    improved = true;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    private List<ScoredNode> searchLayer(ToDoubleFunction<T> distanceToQuery, int start, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<ScoredNode> candidates = new PriorityQueue<>(Comparator.comparingDouble(ScoredNode::distance));
+        PriorityQueue<ScoredNode> results = new PriorityQueue<>(Comparator.comparingDouble(ScoredNode::distance).reversed());
+
+        ScoredNode startNode = new ScoredNode(start, distanceToQuery.applyAsDouble(nodes.get(start).code));
+        visited.set(start);
+        candidates.add(startNode);
+        results.add(startNode);
+
+        while (!candidates.isEmpty()) {
+            ScoredNode closest = candidates.poll();
+            if (results.size() >= ef && closest.distance() > results.peek().distance()) {
+                break;
+            }
+
+            Node<T> node = nodes.get(closest.node());
+            for (int idx = 0; idx < node.neighbourCounts[layer]; idx++) {
+                int neighbour = node.neighbours[layer][idx];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+
+                double neighbourDistance = distanceToQuery.applyAsDouble(nodes.get(neighbour).code);
+                if (results.size() < ef || neighbourDistance < results.peek().distance()) {
+                    ScoredNode scoredNeighbour = new ScoredNode(neighbour, neighbourDistance);
+                    candidates.add(scoredNeighbour);
+                    results.add(scoredNeighbour);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<ScoredNode> sortedResults = new ArrayList<>(results);
+        sortedResults.sort(Comparator.comparingDouble(ScoredNode::distance));
+        return sortedResults;
+    }
+
+    private List<ScoredNode> selectNeighbours(List<ScoredNode> candidates, int limit) {
+        return candidates.stream()
+                .limit(limit)
+                .toList();
+    }
+
+    private void connectAndPrune(int node, int newNeighbour, int layer, int layerMaxConnections) {
+        Node<T> target = nodes.get(node);
+        if (target.neighbourCounts[layer] < layerMaxConnections) {
+            target.connect(layer, newNeighbour);
+            return;
+        }
+
+        List<ScoredNode> neighbours = new ArrayList<>(layerMaxConnections + 1);
+        for (int idx = 0; idx < target.neighbourCounts[layer]; idx++) {
+            int neighbour = target.neighbours[layer][idx];
+            neighbours.add(new ScoredNode(neighbour, codec.distance(target.code, nodes.get(neighbour).code)));
+        }
+        neighbours.add(new ScoredNode(newNeighbour, codec.distance(target.code, nodes.get(newNeighbour).code)));
+        neighbours.sort(Comparator.comparingDouble(ScoredNode::distance));
+
+        target.neighbourCounts[layer] = 0;
+        for (ScoredNode neighbour : neighbours.subList(0, layerMaxConnections)) {
+            target.connect(layer, neighbour.node());
+        }
+    }
+
+    private int randomLevel() {
+        return (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0.0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+
+        float[] normalized = Arrays.copyOf(vector, vector.length);
+        if (norm > 0.0) {
+            for (int idx = 0; idx < normalized.length; idx++) {
+                normalized[idx] = (float) (normalized[idx] / norm);
+            }
+        }
+        return normalized;
+    }
+
+    record ScoredNode(int node, double distance) {
+    }
+
+    private static class Node<T> {
+        private final T code;
+        private final int[][] neighbours;
+        private final int[] neighbourCounts;
+
+        Node(T code, int level, int maxConnections, int maxConnectionsLayer0) {
+            this.code = code;
+            this.neighbours = new int[level + 1][];
+            this.neighbourCounts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                neighbours[layer] = new int[layer == 0 ? maxConnectionsLayer0 : maxConnections];
+            }
+        }
+
+        void connect(int layer, int neighbour) {
+            for (int idx = 0; idx < neighbourCounts[layer]; idx++) {
+                if (neighbours[layer][idx] == neighbour) {
+                    return;
+                }
+            }
+            neighbours[layer][neighbourCounts[layer]++] = neighbour;
+        }
+    }
+}
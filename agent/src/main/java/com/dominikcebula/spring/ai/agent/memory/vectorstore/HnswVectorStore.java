@@ -0,0 +1,507 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
+import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class HnswVectorStore extends AbstractObservationVectorStore implements DocumentListing, AutoCloseable {
+    private static final String VECTOR_STORE_NAME = "hnsw";
+
+    private final int maxConnections;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int exactSearchThreshold;
+    private final Set<String> indexedMetadataFields;
+    private final Path snapshotPath;
+    private final VectorQuantization quantization;
+    private final int rerankOversampling;
+    private final RawVectorFile rawVectors;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService snapshotScheduler;
+
+    private HnswIndex<?> index;
+    private List<StoredDocument> documents = new ArrayList<>();
+    private Map<String, Integer> nodesById = new HashMap<>();
+    private Map<String, Map<Object, Set<Integer>>> metadataIndex = new HashMap<>();
+    private int deletedDocuments;
+    private volatile boolean dirty;
+
+    private HnswVectorStore(Builder builder) {
+        super(builder);
+        this.maxConnections = builder.maxConnections;
+        this.efConstruction = builder.efConstruction;
+        this.efSearch = builder.efSearch;
+        this.exactSearchThreshold = builder.exactSearchThreshold;
+        this.indexedMetadataFields = Set.copyOf(builder.indexedMetadataFields);
+        this.snapshotPath = builder.snapshotPath;
+        this.quantization = builder.quantization;
+        this.rerankOversampling = builder.rerankOversampling;
+        this.rawVectors = openRawVectors();
+        this.index = newIndex();
+
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            HnswVectorStoreSnapshot.read(snapshotPath).forEach(this::insert);
+            dirty = false;
+        }
+
+        if (snapshotPath != null && builder.snapshotInterval != null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("hnsw-snapshot-");
+            threadFactory.setDaemon(true);
+            this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            long intervalMillis = builder.snapshotInterval.toMillis();
+            snapshotScheduler.scheduleWithFixedDelay(this::saveSnapshotIfDirty, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotScheduler = null;
+        }
+    }
+
+    public static Builder builder(EmbeddingModel embeddingModel) {
+        return new Builder(embeddingModel);
+    }
+
+    @Override
+    public void doAdd(List<Document> documentsToAdd) {
+        List<float[]> embeddings = embeddingModel.embed(documentsToAdd, EmbeddingOptions.builder().build(), batchingStrategy);
+
+        lock.writeLock().lock();
+        try {
+            for (int idx = 0; idx < documentsToAdd.size(); idx++) {
+                Document document = documentsToAdd.get(idx);
+                insert(new StoredDocument(
+                        document.getId(),
+                        document.getText(),
+                        normalizeMetadata(document.getMetadata()),
+                        HnswIndex.normalize(embeddings.get(idx))));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void doDelete(List<String> idList) {
+        lock.writeLock().lock();
+        try {
+            idList.forEach(this::remove);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void doDelete(Filter.Expression filterExpression) {
+        lock.writeLock().lock();
+        try {
+            documents.stream()
+                    .filter(document -> document != null && MetadataFilterEvaluator.matches(filterExpression, document.metadata()))
+                    .map(StoredDocument::id)
+                    .toList()
+                    .forEach(this::remove);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> doSimilaritySearch(SearchRequest request) {
+        float[] query = HnswIndex.normalize(embeddingModel.embed(request.getQuery()));
+
+        lock.readLock().lock();
+        try {
+            Optional<Set<Integer>> indexedCandidates = request.hasFilterExpression()
+                    ? indexedCandidates(request.getFilterExpression())
+                    : Optional.empty();
+
+            int candidatesLimit = isQuantized() ? request.getTopK() * rerankOversampling : request.getTopK();
+            List<HnswIndex.ScoredNode> scoredNodes = indexedCandidates
+                    .filter(candidates -> candidates.size() <= exactSearchThreshold)
+                    .map(candidates -> exactSearch(query, candidates, candidatesLimit, request))
+                    .orElseGet(() -> approximateSearch(query, candidatesLimit, request));
+
+            if (isQuantized()) {
+                scoredNodes = rerank(query, scoredNodes, request.getTopK());
+            }
+
+            // the threshold is only ever applied to exact scores, quantized distances are too coarse for it
+            return scoredNodes.stream()
+                    .map(scoredNode -> toDocument(documents.get(scoredNode.node()), similarityScore(scoredNode)))
+                    .filter(document -> document.getScore() >= request.getSimilarityThreshold())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> list(Filter.Expression filterExpression, String afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Stream<Integer> candidates = indexedCandidates(filterExpression)
+                    .map(Set::stream)
+                    .orElseGet(() -> IntStream.range(0, documents.size()).boxed());
+
+            return candidates
+                    .map(documents::get)
+                    .filter(document -> document != null && MetadataFilterEvaluator.matches(filterExpression, document.metadata()))
+                    .filter(document -> afterId == null || document.id().compareTo(afterId) > 0)
+                    .sorted(Comparator.comparing(StoredDocument::id))
+                    .limit(limit)
+                    .map(document -> toDocument(document, null))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> distinctValues(String metadataField) {
+        lock.readLock().lock();
+        try {
+            Stream<Object> values = indexedMetadataFields.contains(metadataField)
+                    ? metadataIndex.getOrDefault(metadataField, Map.of()).entrySet().stream()
+                    .filter(entry -> !entry.getValue().isEmpty())
+                    .map(Map.Entry::getKey)
+                    : documents.stream()
+                    .filter(Objects::nonNull)
+                    .map(document -> document.metadata().get(metadataField))
+                    .filter(Objects::nonNull);
+
+            return values
+                    .map(Object::toString)
+                    .distinct()
+                    .sorted()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<HnswIndex.ScoredNode> exactSearch(float[] query, Set<Integer> candidates, int limit, SearchRequest request) {
+        IntToDoubleFunction distanceToQuery = index.distanceTo(query);
+        return candidates.stream()
+                .filter(node -> matchesFilter(node, request))
+                .map(node -> new HnswIndex.ScoredNode(node, distanceToQuery.applyAsDouble(node)))
+                .sorted(Comparator.comparingDouble(HnswIndex.ScoredNode::distance))
+                .limit(limit)
+                .toList();
+    }
+
+    private List<HnswIndex.ScoredNode> approximateSearch(float[] query, int limit, SearchRequest request) {
+        return index.search(query, limit, Math.max(efSearch, limit), node -> matchesFilter(node, request));
+    }
+
+    private List<HnswIndex.ScoredNode> rerank(float[] query, List<HnswIndex.ScoredNode> candidates, int limit) {
+        return candidates.stream()
+                .map(candidate -> new HnswIndex.ScoredNode(candidate.node(), VectorCodec.exactDistance(query, rawVectors.read(candidate.node()))))
+                .sorted(Comparator.comparingDouble(HnswIndex.ScoredNode::distance))
+                .limit(limit)
+                .toList();
+    }
+
+    private boolean matchesFilter(int node, SearchRequest request) {
+        StoredDocument document = documents.get(node);
+        return document != null
+                && (!request.hasFilterExpression() || MetadataFilterEvaluator.matches(request.getFilterExpression(), document.metadata()));
+    }
+
+    // only conjunctions of equality conditions on indexed fields can narrow the candidates down
+    private Optional<Set<Integer>> indexedCandidates(Filter.Expression expression) {
+        return switch (expression.type()) {
+            case EQ -> {
+                String key = ((Filter.Key) expression.left()).key();
+                if (!indexedMetadataFields.contains(key)) {
+                    yield Optional.empty();
+                }
+                Object value = MetadataFilterEvaluator.normalize(((Filter.Value) expression.right()).value());
+                yield Optional.of(metadataIndex.getOrDefault(key, Map.of()).getOrDefault(value, Set.of()));
+            }
+            case AND -> {
+                Optional<Set<Integer>> left = indexedCandidates(unwrap(expression.left()));
+                Optional<Set<Integer>> right = indexedCandidates(unwrap(expression.right()));
+                if (left.isPresent() && right.isPresent()) {
+                    Set<Integer> intersection = new HashSet<>(left.get());
+                    intersection.retainAll(right.get());
+                    yield Optional.of(intersection);
+                }
+                yield left.isPresent() ? left : right;
+            }
+            default -> Optional.empty();
+        };
+    }
+
+    private static Filter.Expression unwrap(Filter.Operand operand) {
+        return operand instanceof Filter.Group group ? group.content() : (Filter.Expression) operand;
+    }
+
+    private void insert(StoredDocument document) {
+        remove(document.id());
+
+        int node = index.add(document.embedding());
+        if (isQuantized()) {
+            // full precision vectors live on disk, only the quantized codes stay on the heap
+            rawVectors.write(node, document.embedding());
+            documents.add(document.withoutEmbedding());
+        } else {
+            documents.add(document);
+        }
+        nodesById.put(document.id(), node);
+        indexMetadata(node, document);
+        dirty = true;
+    }
+
+    private void remove(String id) {
+        Integer node = nodesById.remove(id);
+        if (node == null) {
+            return;
+        }
+
+        StoredDocument document = documents.get(node);
+        documents.set(node, null);
+        deletedDocuments++;
+        indexedMetadataFields.forEach(field -> Optional.ofNullable(document.metadata().get(field))
+                .map(MetadataFilterEvaluator::normalize)
+                .map(value -> metadataIndex.getOrDefault(field, Map.of()).get(value))
+                .ifPresent(nodes -> nodes.remove(node)));
+        dirty = true;
+    }
+
+    private void indexMetadata(int node, StoredDocument document) {
+        indexedMetadataFields.forEach(field -> Optional.ofNullable(document.metadata().get(field))
+                .map(MetadataFilterEvaluator::normalize)
+                .ifPresent(value -> metadataIndex
+                        .computeIfAbsent(field, key -> new HashMap<>())
+                        .computeIfAbsent(value, key -> new HashSet<>())
+                        .add(node)));
+    }
+
+    // deleted nodes stay in the graph to keep it navigable, the graph is rebuilt once they dominate it
+    private void compactIfNeeded() {
+        if (deletedDocuments * 2 < documents.size()) {
+            return;
+        }
+
+        List<StoredDocument> liveDocuments = liveDocuments();
+        if (isQuantized()) {
+            rawVectors.clear();
+        }
+        index = newIndex();
+        documents = new ArrayList<>();
+        nodesById = new HashMap<>();
+        metadataIndex = new HashMap<>();
+        deletedDocuments = 0;
+        liveDocuments.forEach(this::insert);
+    }
+
+    private List<StoredDocument> liveDocuments() {
+        List<StoredDocument> liveDocuments = new ArrayList<>();
+        for (int node = 0; node < documents.size(); node++) {
+            StoredDocument document = documents.get(node);
+            if (document != null) {
+                liveDocuments.add(isQuantized() ? document.withEmbedding(rawVectors.read(node)) : document);
+            }
+        }
+        return liveDocuments;
+    }
+
+    private HnswIndex<?> newIndex() {
+        return new HnswIndex<>(VectorCodec.of(quantization), maxConnections, efConstruction, 42L);
+    }
+
+    private RawVectorFile openRawVectors() {
+        if (!isQuantized()) {
+            return null;
+        }
+        return snapshotPath != null
+                ? RawVectorFile.open(snapshotPath.resolveSibling(snapshotPath.getFileName() + ".vectors"))
+                : RawVectorFile.openTemporary();
+    }
+
+    private boolean isQuantized() {
+        return quantization != VectorQuantization.NONE;
+    }
+
+    public void saveSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+
+        List<StoredDocument> snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = liveDocuments();
+            dirty = false;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            HnswVectorStoreSnapshot.write(snapshotPath, snapshot);
+        } catch (UncheckedIOException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    private void saveSnapshotIfDirty() {
+        if (dirty) {
+            saveSnapshot();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        saveSnapshot();
+        if (rawVectors != null) {
+            rawVectors.close();
+        }
+    }
+
+    private static double similarityScore(HnswIndex.ScoredNode scoredNode) {
+        double cosineSimilarity = 1.0 - scoredNode.distance();
+        return (1.0 + cosineSimilarity) / 2.0;
+    }
+
+    static Document toDocument(StoredDocument storedDocument, Double score) {
+        return Document.builder()
+                .id(storedDocument.id())
+                .text(storedDocument.text())
+                .metadata(new HashMap<>(storedDocument.metadata()))
+                .score(score)
+                .build();
+    }
+
+    // mirrors the types MongoDB hands back, so documents read the same regardless of the store
+    static Map<String, Object> normalizeMetadata(Map<String, Object> metadata) {
+        Map<String, Object> normalizedMetadata = new LinkedHashMap<>();
+        metadata.forEach((key, value) -> normalizedMetadata.put(key, switch (value) {
+            case LocalDateTime localDateTime -> Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+            case Instant instant -> Date.from(instant);
+            case Enum<?> enumValue -> enumValue.name();
+            default -> value;
+        }));
+        return normalizedMetadata;
+    }
+
+    @Override
+    public VectorStoreObservationContext.Builder createObservationContextBuilder(String operationName) {
+        return VectorStoreObservationContext.builder(VECTOR_STORE_NAME, operationName)
+                .dimensions(embeddingModel.dimensions())
+                .similarityMetric("cosine");
+    }
+
+    record StoredDocument(String id, String text, Map<String, Object> metadata, float[] embedding) {
+        StoredDocument withEmbedding(float[] embedding) {
+            return new StoredDocument(id, text, metadata, embedding);
+        }
+
+        StoredDocument withoutEmbedding() {
+            return withEmbedding(null);
+        }
+    }
+
+    public static class Builder extends AbstractVectorStoreBuilder<Builder> {
+        private int maxConnections = 16;
+        private int efConstruction = 200;
+        private int efSearch = 64;
+        private int exactSearchThreshold = 2_000;
+        private List<String> indexedMetadataFields = List.of();
+        private Path snapshotPath;
+        private Duration snapshotInterval;
+        private VectorQuantization quantization = VectorQuantization.NONE;
+        private int rerankOversampling = 4;
+
+        private Builder(EmbeddingModel embeddingModel) {
+            super(embeddingModel);
+        }
+
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder efConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+            return this;
+        }
+
+        public Builder efSearch(int efSearch) {
+            this.efSearch = efSearch;
+            return this;
+        }
+
+        public Builder exactSearchThreshold(int exactSearchThreshold) {
+            this.exactSearchThreshold = exactSearchThreshold;
+            return this;
+        }
+
+        public Builder indexedMetadataFields(List<String> indexedMetadataFields) {
+            this.indexedMetadataFields = indexedMetadataFields;
+            return this;
+        }
+
+        public Builder snapshotPath(Path snapshotPath) {
+            this.snapshotPath = snapshotPath;
+            return this;
+        }
+
+        public Builder snapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        public Builder quantization(VectorQuantization quantization) {
+            this.quantization = quantization;
+            return this;
+        }
+
+        public Builder rerankOversampling(int rerankOversampling) {
+            this.rerankOversampling = rerankOversampling;
+            return this;
+        }
+
+        @Override
+        public HnswVectorStore build() {
+            return new HnswVectorStore(this);
+        }
+    }
+}
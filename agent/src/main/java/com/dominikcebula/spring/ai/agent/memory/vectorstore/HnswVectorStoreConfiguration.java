@@ -0,0 +1,66 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.ai.vectorstore.SpringAIVectorStoreTypes.TYPE;
+
+@Configuration
+@ConditionalOnProperty(name = TYPE, havingValue = "hnsw")
+public class HnswVectorStoreConfiguration {
+    private final int maxConnections;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int exactSearchThreshold;
+    private final List<String> indexedMetadataFields;
+    private final String snapshotPath;
+    private final Duration snapshotInterval;
+    private final VectorQuantization quantization;
+    private final int rerankOversampling;
+
+    public HnswVectorStoreConfiguration(
+            @Value("${agent.memory.vector-store.hnsw.max-connections:16}") int maxConnections,
+            @Value("${agent.memory.vector-store.hnsw.ef-construction:200}") int efConstruction,
+            @Value("${agent.memory.vector-store.hnsw.ef-search:64}") int efSearch,
+            @Value("${agent.memory.vector-store.hnsw.exact-search-threshold:2000}") int exactSearchThreshold,
+            @Value("${agent.memory.vector-store.hnsw.indexed-metadata-fields:conversationId,memoryType}") List<String> indexedMetadataFields,
+            @Value("${agent.memory.vector-store.hnsw.snapshot-path:}") String snapshotPath,
+            @Value("${agent.memory.vector-store.hnsw.snapshot-interval:1m}") Duration snapshotInterval,
+            @Value("${agent.memory.vector-store.hnsw.quantization:NONE}") VectorQuantization quantization,
+            @Value("${agent.memory.vector-store.hnsw.rerank-oversampling:4}") int rerankOversampling) {
+        this.maxConnections = maxConnections;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.exactSearchThreshold = exactSearchThreshold;
+        this.indexedMetadataFields = indexedMetadataFields;
+        this.snapshotPath = snapshotPath;
+        this.snapshotInterval = snapshotInterval;
+        this.quantization = quantization;
+        this.rerankOversampling = rerankOversampling;
+    }
+
+    @Bean
+    public HnswVectorStore vectorStore(EmbeddingModel embeddingModel, ObjectProvider<ObservationRegistry> observationRegistry) {
+        return HnswVectorStore.builder(embeddingModel)
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                .maxConnections(maxConnections)
+                .efConstruction(efConstruction)
+                .efSearch(efSearch)
+                .exactSearchThreshold(exactSearchThreshold)
+                .indexedMetadataFields(indexedMetadataFields)
+                .snapshotPath(snapshotPath.isBlank() ? null : Path.of(snapshotPath))
+                .snapshotInterval(snapshotInterval)
+                .quantization(quantization)
+                .rerankOversampling(rerankOversampling)
+                .build();
+    }
+}
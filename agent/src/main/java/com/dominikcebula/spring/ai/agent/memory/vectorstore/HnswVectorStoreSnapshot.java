@@ -0,0 +1,148 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class HnswVectorStoreSnapshot {
+    private static final int MAGIC = 0x484E5357;
+    private static final int VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_DATE = 5;
+
+    private HnswVectorStoreSnapshot() {
+    }
+
+    static void write(Path snapshotPath, List<HnswVectorStore.StoredDocument> documents) {
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporaryPath = Files.createTempFile(parent, snapshotPath.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(documents.size());
+                for (HnswVectorStore.StoredDocument document : documents) {
+                    writeString(output, document.id());
+                    writeString(output, document.text());
+                    writeMetadata(output, document.metadata());
+                    output.writeInt(document.embedding().length);
+                    for (float value : document.embedding()) {
+                        output.writeFloat(value);
+                    }
+                }
+            }
+
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write vector store snapshot " + snapshotPath, e);
+        }
+    }
+
+    static List<HnswVectorStore.StoredDocument> read(Path snapshotPath) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IllegalStateException("Unsupported vector store snapshot " + snapshotPath);
+            }
+
+            int documentCount = input.readInt();
+            List<HnswVectorStore.StoredDocument> documents = new ArrayList<>(documentCount);
+            for (int idx = 0; idx < documentCount; idx++) {
+                String id = readString(input);
+                String text = readString(input);
+                Map<String, Object> metadata = readMetadata(input);
+                float[] embedding = new float[input.readInt()];
+                for (int dimension = 0; dimension < embedding.length; dimension++) {
+                    embedding[dimension] = input.readFloat();
+                }
+                documents.add(new HnswVectorStore.StoredDocument(id, text, metadata, embedding));
+            }
+            return documents;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read vector store snapshot " + snapshotPath, e);
+        }
+    }
+
+    private static void writeMetadata(DataOutputStream output, Map<String, Object> metadata) throws IOException {
+        output.writeInt(metadata.size());
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            writeString(output, entry.getKey());
+            switch (entry.getValue()) {
+                case null -> output.writeByte(TYPE_NULL);
+                case Long value -> {
+                    output.writeByte(TYPE_LONG);
+                    output.writeLong(value);
+                }
+                case Integer value -> {
+                    output.writeByte(TYPE_LONG);
+                    output.writeLong(value);
+                }
+                case Number value -> {
+                    output.writeByte(TYPE_DOUBLE);
+                    output.writeDouble(value.doubleValue());
+                }
+                case Boolean value -> {
+                    output.writeByte(TYPE_BOOLEAN);
+                    output.writeBoolean(value);
+                }
+                case Date value -> {
+                    output.writeByte(TYPE_DATE);
+                    output.writeLong(value.getTime());
+                }
+                default -> {
+                    output.writeByte(TYPE_STRING);
+                    writeString(output, entry.getValue().toString());
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> readMetadata(DataInputStream input) throws IOException {
+        int entryCount = input.readInt();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (int idx = 0; idx < entryCount; idx++) {
+            String key = readString(input);
+            byte type = input.readByte();
+            metadata.put(key, switch (type) {
+                case TYPE_NULL -> null;
+                case TYPE_STRING -> readString(input);
+                case TYPE_LONG -> input.readLong();
+                case TYPE_DOUBLE -> input.readDouble();
+                case TYPE_BOOLEAN -> input.readBoolean();
+                case TYPE_DATE -> new Date(input.readLong());
+                default -> throw new IllegalStateException("Unknown metadata type " + type);
+            });
+        }
+        return metadata;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,50 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import java.util.function.ToDoubleFunction;
+
+class Int8VectorCodec implements VectorCodec<Int8VectorCodec.Int8Vector> {
+    private static final float MAX_CODE = 127.0f;
+
+    @Override
+    public Int8Vector encode(float[] normalizedVector) {
+        float maxAbsoluteValue = 0.0f;
+        for (float value : normalizedVector) {
+            maxAbsoluteValue = Math.max(maxAbsoluteValue, Math.abs(value));
+        }
+
+        float scale = maxAbsoluteValue == 0.0f ? 1.0f : maxAbsoluteValue / MAX_CODE;
+        byte[] codes = new byte[normalizedVector.length];
+        for (int idx = 0; idx < normalizedVector.length; idx++) {
+            codes[idx] = (byte) Math.round(normalizedVector[idx] / scale);
+        }
+        return new Int8Vector(codes, scale);
+    }
+
+    @Override
+    public ToDoubleFunction<Int8Vector> distanceTo(float[] normalizedQuery) {
+        return code -> {
+            double dotProduct = 0.0;
+            for (int idx = 0; idx < normalizedQuery.length; idx++) {
+                dotProduct += normalizedQuery[idx] * code.codes()[idx];
+            }
+            return 1.0 - dotProduct * code.scale();
+        };
+    }
+
+    @Override
+    public double distance(Int8Vector first, Int8Vector second) {
+        long dotProduct = 0;
+        for (int idx = 0; idx < first.codes().length; idx++) {
+            dotProduct += first.codes()[idx] * second.codes()[idx];
+        }
+        return 1.0 - dotProduct * first.scale() * second.scale();
+    }
+
+    @Override
+    public int bytesPerVector(int dimensions) {
+        return dimensions + Float.BYTES;
+    }
+
+    record Int8Vector(byte[] codes, float scale) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+class MetadataFilterEvaluator {
+    private MetadataFilterEvaluator() {
+    }
+
+    static boolean matches(Filter.Expression expression, Map<String, Object> metadata) {
+        return switch (expression.type()) {
+            case AND -> matches(operand(expression.left()), metadata) && matches(operand(expression.right()), metadata);
+            case OR -> matches(operand(expression.left()), metadata) || matches(operand(expression.right()), metadata);
+            case NOT -> !matches(operand(expression.left()), metadata);
+            case EQ -> Objects.equals(normalize(metadataValue(expression, metadata)), normalize(filterValue(expression)));
+            case NE -> !Objects.equals(normalize(metadataValue(expression, metadata)), normalize(filterValue(expression)));
+            case GT -> compare(expression, metadata, result -> result > 0);
+            case GTE -> compare(expression, metadata, result -> result >= 0);
+            case LT -> compare(expression, metadata, result -> result < 0);
+            case LTE -> compare(expression, metadata, result -> result <= 0);
+            case IN -> filterValues(expression).stream()
+                    .anyMatch(value -> Objects.equals(normalize(metadataValue(expression, metadata)), normalize(value)));
+            case NIN -> filterValues(expression).stream()
+                    .noneMatch(value -> Objects.equals(normalize(metadataValue(expression, metadata)), normalize(value)));
+            case ISNULL -> metadataValue(expression, metadata) == null;
+            case ISNOTNULL -> metadataValue(expression, metadata) != null;
+        };
+    }
+
+    // the value a conjunction pins the given key to, if it pins it to a single one
+    static Optional<Object> equalityValue(Filter.Expression expression, String key) {
+        return switch (expression.type()) {
+            case EQ -> key.equals(((Filter.Key) expression.left()).key())
+                    ? Optional.ofNullable(filterValue(expression))
+                    : Optional.empty();
+            case AND -> equalityValue(operand(expression.left()), key)
+                    .or(() -> equalityValue(operand(expression.right()), key));
+            default -> Optional.empty();
+        };
+    }
+
+    private static Filter.Expression operand(Filter.Operand operand) {
+        if (operand instanceof Filter.Group group) {
+            return group.content();
+        }
+        return (Filter.Expression) operand;
+    }
+
+    private static Object metadataValue(Filter.Expression expression, Map<String, Object> metadata) {
+        return metadata.get(((Filter.Key) expression.left()).key());
+    }
+
+    private static Object filterValue(Filter.Expression expression) {
+        return ((Filter.Value) expression.right()).value();
+    }
+
+    private static Collection<?> filterValues(Filter.Expression expression) {
+        if (filterValue(expression) instanceof Collection<?> values) {
+            return values;
+        }
+        throw new IllegalArgumentException("Filter value of " + expression.type() + " expression must be a collection");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean compare(Filter.Expression expression, Map<String, Object> metadata, IntPredicate comparison) {
+        Object metadataValue = normalize(metadataValue(expression, metadata));
+        Object filterValue = normalize(filterValue(expression));
+
+        if (metadataValue == null || filterValue == null) {
+            return false;
+        }
+        if (metadataValue instanceof Double && filterValue instanceof Double
+                || metadataValue instanceof Instant && filterValue instanceof Instant
+                || metadataValue instanceof String && filterValue instanceof String
+                || metadataValue instanceof Boolean && filterValue instanceof Boolean) {
+            return comparison.test(((Comparable) metadataValue).compareTo(filterValue));
+        }
+        throw new IllegalArgumentException("Cannot compare " + metadataValue.getClass() + " with " + filterValue.getClass());
+    }
+
+    static Object normalize(Object value) {
+        return switch (value) {
+            case null -> null;
+            case Number number -> number.doubleValue();
+            case Date date -> date.toInstant();
+            case LocalDateTime localDateTime -> localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+            case Enum<?> enumValue -> enumValue.name();
+            case String text -> parseInstant(text);
+            default -> value;
+        };
+    }
+
+    private static Object parseInstant(String text) {
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            return text;
+        }
+    }
+}
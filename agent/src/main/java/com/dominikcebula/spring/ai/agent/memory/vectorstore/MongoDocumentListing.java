@@ -0,0 +1,124 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.springframework.ai.vectorstore.SpringAIVectorStoreTypes.MONGODB_ATLAS;
+import static org.springframework.ai.vectorstore.SpringAIVectorStoreTypes.TYPE;
+
+// reads the collection the Atlas vector store writes to, documents there keep their id, text and metadata in these fields
+@Component
+@ConditionalOnProperty(name = TYPE, havingValue = MONGODB_ATLAS, matchIfMissing = true)
+public class MongoDocumentListing implements DocumentListing {
+    private static final String ID_FIELD = "_id";
+    private static final String CONTENT_FIELD = "content";
+    private static final String METADATA_FIELD = "metadata";
+
+    private final MongoTemplate mongoTemplate;
+    private final String collectionName;
+
+    public MongoDocumentListing(
+            MongoTemplate mongoTemplate,
+            @Value("${spring.ai.vectorstore.mongodb.collection-name:vector_store}") String collectionName) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionName = collectionName;
+    }
+
+    @Override
+    public List<Document> list(Filter.Expression filterExpression, String afterId, int limit) {
+        Query query = new Query(criteria(filterExpression))
+                .with(Sort.by(Sort.Direction.ASC, ID_FIELD))
+                .limit(limit);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where(ID_FIELD).gt(afterId));
+        }
+        query.fields().include(ID_FIELD, CONTENT_FIELD, METADATA_FIELD);
+
+        return mongoTemplate.find(query, org.bson.Document.class, collectionName).stream()
+                .map(MongoDocumentListing::toDocument)
+                .toList();
+    }
+
+    // grouped in an aggregation rather than distinct(), whose result has to fit into a single 16MB document
+    @Override
+    public List<String> distinctValues(String metadataField) {
+        String path = METADATA_FIELD + "." + metadataField;
+        Aggregation aggregation = Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where(path).exists(true)),
+                        Aggregation.group(path),
+                        Aggregation.sort(Sort.Direction.ASC, ID_FIELD))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        try (Stream<org.bson.Document> groups = mongoTemplate.aggregateStream(aggregation, collectionName, org.bson.Document.class)) {
+            return groups
+                    .map(group -> group.get(ID_FIELD))
+                    .filter(Objects::nonNull)
+                    .map(Object::toString)
+                    .toList();
+        }
+    }
+
+    private static Document toDocument(org.bson.Document mongoDocument) {
+        org.bson.Document metadata = mongoDocument.get(METADATA_FIELD, org.bson.Document.class);
+        return Document.builder()
+                .id(mongoDocument.get(ID_FIELD).toString())
+                .text(mongoDocument.getString(CONTENT_FIELD))
+                .metadata(metadata != null ? new HashMap<>(metadata) : Map.of())
+                .build();
+    }
+
+    // the Atlas converter only targets $vectorSearch pre-filters, a plain find needs the same expression as criteria
+    private static Criteria criteria(Filter.Expression expression) {
+        return switch (expression.type()) {
+            case AND -> new Criteria().andOperator(criteria(operand(expression.left())), criteria(operand(expression.right())));
+            case OR -> new Criteria().orOperator(criteria(operand(expression.left())), criteria(operand(expression.right())));
+            case NOT -> new Criteria().norOperator(criteria(operand(expression.left())));
+            case EQ -> field(expression).is(value(expression));
+            case NE -> field(expression).ne(value(expression));
+            case GT -> field(expression).gt(value(expression));
+            case GTE -> field(expression).gte(value(expression));
+            case LT -> field(expression).lt(value(expression));
+            case LTE -> field(expression).lte(value(expression));
+            case IN -> field(expression).in(values(expression));
+            case NIN -> field(expression).nin(values(expression));
+            case ISNULL -> field(expression).is(null);
+            case ISNOTNULL -> field(expression).ne(null);
+        };
+    }
+
+    private static Filter.Expression operand(Filter.Operand operand) {
+        return operand instanceof Filter.Group group ? group.content() : (Filter.Expression) operand;
+    }
+
+    private static Criteria field(Filter.Expression expression) {
+        return Criteria.where(METADATA_FIELD + "." + ((Filter.Key) expression.left()).key());
+    }
+
+    private static Object value(Filter.Expression expression) {
+        Object value = ((Filter.Value) expression.right()).value();
+        return value instanceof Enum<?> enumValue ? enumValue.name() : value;
+    }
+
+    private static Collection<?> values(Filter.Expression expression) {
+        if (value(expression) instanceof Collection<?> values) {
+            return values;
+        }
+        throw new IllegalArgumentException("Filter value of " + expression.type() + " expression must be a collection");
+    }
+}
@@ -0,0 +1,423 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.vectorstore.AbstractVectorStoreBuilder;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.observation.AbstractObservationVectorStore;
+import org.springframework.ai.vectorstore.observation.VectorStoreObservationContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class PartitionedVectorStore extends AbstractObservationVectorStore implements DocumentListing, AutoCloseable {
+    private static final String VECTOR_STORE_NAME = "partitioned";
+    private static final String CACHE_NAME = "memory-partitions";
+    private static final String PARTITION_FILE_PREFIX = "partition-";
+    private static final String PARTITION_FILE_SUFFIX = ".bin";
+
+    private final String partitionKey;
+    private final int bucketCount;
+    private final Path directory;
+    private final LoadingCache<String, Partition> partitions;
+    private final Map<String, String> partitionValuesById = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushScheduler;
+
+    private PartitionedVectorStore(Builder builder) {
+        super(builder);
+        this.partitionKey = builder.partitionKey;
+        this.bucketCount = builder.bucketCount;
+        this.directory = builder.directory;
+
+        Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder()
+                .executor(builder.maintenanceExecutor)
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats();
+        // without a directory there is nowhere to page partitions out to, so they stay resident
+        if (directory != null) {
+            cacheBuilder
+                    .maximumSize(builder.maximumLoadedPartitions)
+                    .expireAfterAccess(builder.idleTimeout);
+        }
+        this.partitions = cacheBuilder
+                .<String, Partition>evictionListener((partitionValue, partition, cause) -> {
+                    if (partitionValue != null && partition != null) {
+                        flush(partitionValue, partition);
+                    }
+                })
+                .build(this::loadPartition);
+
+        if (builder.meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(builder.meterRegistry, partitions, CACHE_NAME);
+        }
+
+        // partitions that stay hot are never evicted, so they are flushed on an interval like the HNSW snapshot
+        if (directory != null && builder.flushInterval != null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("memory-partition-flush-");
+            threadFactory.setDaemon(true);
+            this.flushScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            long intervalMillis = builder.flushInterval.toMillis();
+            flushScheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flushScheduler = null;
+        }
+    }
+
+    public static Builder builder(EmbeddingModel embeddingModel) {
+        return new Builder(embeddingModel);
+    }
+
+    @Override
+    public void doAdd(List<Document> documentsToAdd) {
+        List<float[]> embeddings = embeddingModel.embed(documentsToAdd, EmbeddingOptions.builder().build(), batchingStrategy);
+
+        Map<String, List<HnswVectorStore.StoredDocument>> documentsByPartitionValue = new LinkedHashMap<>();
+        for (int idx = 0; idx < documentsToAdd.size(); idx++) {
+            Document document = documentsToAdd.get(idx);
+            HnswVectorStore.StoredDocument storedDocument = new HnswVectorStore.StoredDocument(
+                    document.getId(),
+                    document.getText(),
+                    HnswVectorStore.normalizeMetadata(document.getMetadata()),
+                    HnswIndex.normalize(embeddings.get(idx)));
+            documentsByPartitionValue.computeIfAbsent(partitionValue(storedDocument.metadata()), key -> new ArrayList<>())
+                    .add(storedDocument);
+        }
+
+        documentsByPartitionValue.forEach((partitionValue, storedDocuments) -> {
+            // a document whose partition value changed must not stay behind in its old partition
+            Set<String> ids = storedDocuments.stream()
+                    .map(HnswVectorStore.StoredDocument::id)
+                    .collect(Collectors.toSet());
+            ids.stream()
+                    .map(partitionValuesById::get)
+                    .filter(previousPartitionValue -> previousPartitionValue != null && !previousPartitionValue.equals(partitionValue))
+                    .distinct()
+                    .toList()
+                    .forEach(previousPartitionValue -> updatePartition(previousPartitionValue, partition ->
+                            partition.removeIf(document -> ids.contains(document.id()))));
+
+            updatePartition(partitionValue, partition -> storedDocuments.forEach(partition::put));
+        });
+    }
+
+    // the id index covers every document added or loaded since start, ids it has never seen still need a scan
+    @Override
+    public void doDelete(List<String> idList) {
+        Set<String> ids = Set.copyOf(idList);
+
+        Map<String, Set<String>> idsByPartitionValue = new HashMap<>();
+        boolean unknownIds = false;
+        for (String id : ids) {
+            String partitionValue = partitionValuesById.get(id);
+            if (partitionValue != null) {
+                idsByPartitionValue.computeIfAbsent(partitionValue, key -> new HashSet<>()).add(id);
+            } else {
+                unknownIds = true;
+            }
+        }
+
+        idsByPartitionValue.forEach((partitionValue, partitionIds) ->
+                updatePartition(partitionValue, partition -> partition.removeIf(document -> partitionIds.contains(document.id()))));
+
+        if (unknownIds) {
+            allPartitionValues().forEach(partitionValue -> updatePartition(partitionValue, partition -> partition.removeIf(document -> ids.contains(document.id()))));
+        }
+    }
+
+    @Override
+    protected void doDelete(Filter.Expression filterExpression) {
+        partitionValuesMatching(filterExpression).forEach(partitionValue -> updatePartition(partitionValue, partition ->
+                partition.removeIf(document -> MetadataFilterEvaluator.matches(filterExpression, document.metadata()))));
+    }
+
+    @Override
+    public List<Document> doSimilaritySearch(SearchRequest request) {
+        float[] query = HnswIndex.normalize(embeddingModel.embed(request.getQuery()));
+        Optional<String> partitionValue = request.hasFilterExpression()
+                ? MetadataFilterEvaluator.equalityValue(request.getFilterExpression(), partitionKey).map(Object::toString)
+                : Optional.empty();
+
+        Stream<HnswVectorStore.StoredDocument> candidates = partitionValue
+                .map(value -> partitions.get(value).documents().stream())
+                .orElseGet(() -> allPartitionValues().stream().flatMap(value -> peekPartition(value).documents().stream()));
+
+        return candidates
+                .filter(document -> !request.hasFilterExpression() || MetadataFilterEvaluator.matches(request.getFilterExpression(), document.metadata()))
+                .map(document -> HnswVectorStore.toDocument(document, similarityScore(query, document.embedding())))
+                .filter(document -> document.getScore() >= request.getSimilarityThreshold())
+                .sorted(Comparator.comparingDouble(Document::getScore).reversed())
+                .limit(request.getTopK())
+                .toList();
+    }
+
+    @Override
+    public List<Document> list(Filter.Expression filterExpression, String afterId, int limit) {
+        return partitionValuesMatching(filterExpression).stream()
+                .flatMap(partitionValue -> peekPartition(partitionValue).documents().stream())
+                .filter(document -> MetadataFilterEvaluator.matches(filterExpression, document.metadata()))
+                .filter(document -> afterId == null || document.id().compareTo(afterId) > 0)
+                .sorted(Comparator.comparing(HnswVectorStore.StoredDocument::id))
+                .limit(limit)
+                .map(document -> HnswVectorStore.toDocument(document, null))
+                .toList();
+    }
+
+    // the partition key can be read off the file names, empty partitions never keep one, any other field needs every partition loaded
+    @Override
+    public List<String> distinctValues(String metadataField) {
+        Stream<String> values = partitionKey.equals(metadataField)
+                ? allPartitionValues().stream()
+                .filter(partitionValue -> !partitionValue.isEmpty())
+                .filter(partitionValue -> Optional.ofNullable(partitions.getIfPresent(partitionValue))
+                        .map(partition -> !partition.documents().isEmpty())
+                        .orElse(true))
+                : allPartitionValues().stream()
+                .flatMap(partitionValue -> peekPartition(partitionValue).documents().stream())
+                .map(document -> document.metadata().get(metadataField))
+                .filter(Objects::nonNull)
+                .map(Object::toString);
+
+        return values
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private void updatePartition(String partitionValue, Consumer<Partition> update) {
+        // compute holds the entry lock, so an update can never race with the partition being paged out
+        partitions.asMap().compute(partitionValue, (key, partition) -> {
+            Partition resident = partition != null ? partition : loadPartition(key);
+            update.accept(resident);
+            return resident;
+        });
+    }
+
+    // scans outside the partition key should not push the hot partitions out of memory
+    private Partition peekPartition(String partitionValue) {
+        Partition partition = partitions.getIfPresent(partitionValue);
+        return partition != null ? partition : loadPartition(partitionValue);
+    }
+
+    private Collection<String> partitionValuesMatching(Filter.Expression filterExpression) {
+        return MetadataFilterEvaluator.equalityValue(filterExpression, partitionKey)
+                .map(value -> (Collection<String>) List.of(value.toString()))
+                .orElseGet(this::allPartitionValues);
+    }
+
+    private Collection<String> allPartitionValues() {
+        Set<String> partitionValues = new HashSet<>(partitions.asMap().keySet());
+        if (directory != null && Files.isDirectory(directory)) {
+            try (Stream<Path> partitionFiles = Files.find(directory, 2, (path, attributes) -> isPartitionFile(path))) {
+                partitionFiles.map(PartitionedVectorStore::partitionValueOf).forEach(partitionValues::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to list memory partitions in " + directory, e);
+            }
+        }
+        return partitionValues;
+    }
+
+    private String partitionValue(Map<String, Object> metadata) {
+        return Objects.toString(metadata.get(partitionKey), "");
+    }
+
+    private Partition loadPartition(String partitionValue) {
+        Partition partition = new Partition();
+        Path partitionPath = partitionPath(partitionValue);
+        if (directory != null && Files.exists(partitionPath)) {
+            HnswVectorStoreSnapshot.read(partitionPath).forEach(partition::put);
+        }
+        partition.dirty = false;
+        return partition;
+    }
+
+    // every partition value has a file of its own, so a flush rewrites only what that partition holds
+    private void flush(String partitionValue, Partition partition) {
+        if (directory == null || !partition.dirty) {
+            return;
+        }
+
+        List<HnswVectorStore.StoredDocument> documents = partition.documents();
+        if (documents.isEmpty()) {
+            deletePartitionFile(partitionValue);
+        } else {
+            HnswVectorStoreSnapshot.write(partitionPath(partitionValue), documents);
+        }
+        partition.dirty = false;
+    }
+
+    private void deletePartitionFile(String partitionValue) {
+        try {
+            Files.deleteIfExists(partitionPath(partitionValue));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete memory partition " + partitionPath(partitionValue), e);
+        }
+    }
+
+    // files are spread over bucket directories to keep any single directory small
+    private Path partitionPath(String partitionValue) {
+        int bucket = Math.floorMod(partitionValue.hashCode(), bucketCount);
+        return directory
+                .resolve("bucket-%05d".formatted(bucket))
+                .resolve(PARTITION_FILE_PREFIX + URLEncoder.encode(partitionValue, StandardCharsets.UTF_8) + PARTITION_FILE_SUFFIX);
+    }
+
+    private static boolean isPartitionFile(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(PARTITION_FILE_PREFIX) && fileName.endsWith(PARTITION_FILE_SUFFIX);
+    }
+
+    private static String partitionValueOf(Path partitionPath) {
+        String fileName = partitionPath.getFileName().toString();
+        return URLDecoder.decode(fileName.substring(PARTITION_FILE_PREFIX.length(), fileName.length() - PARTITION_FILE_SUFFIX.length()), StandardCharsets.UTF_8);
+    }
+
+    public void flush() {
+        partitions.asMap().forEach((partitionValue, partition) ->
+                partitions.asMap().computeIfPresent(partitionValue, (key, resident) -> {
+                    flush(key, resident);
+                    return resident;
+                }));
+    }
+
+    @Override
+    public void close() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+        }
+        flush();
+    }
+
+    private static double similarityScore(float[] query, float[] embedding) {
+        double cosineSimilarity = 1.0 - VectorCodec.exactDistance(query, embedding);
+        return (1.0 + cosineSimilarity) / 2.0;
+    }
+
+    @Override
+    public VectorStoreObservationContext.Builder createObservationContextBuilder(String operationName) {
+        return VectorStoreObservationContext.builder(VECTOR_STORE_NAME, operationName)
+                .dimensions(embeddingModel.dimensions())
+                .similarityMetric("cosine");
+    }
+
+    // the documents of one partition value, every change is mirrored in the id index
+    private class Partition {
+        private final Map<String, HnswVectorStore.StoredDocument> documents = new LinkedHashMap<>();
+        private volatile boolean dirty;
+
+        synchronized void put(HnswVectorStore.StoredDocument document) {
+            documents.put(document.id(), document);
+            partitionValuesById.put(document.id(), partitionValue(document.metadata()));
+            dirty = true;
+        }
+
+        synchronized void removeIf(Predicate<HnswVectorStore.StoredDocument> predicate) {
+            documents.values().removeIf(document -> {
+                if (predicate.test(document)) {
+                    partitionValuesById.remove(document.id(), partitionValue(document.metadata()));
+                    dirty = true;
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        synchronized List<HnswVectorStore.StoredDocument> documents() {
+            return List.copyOf(documents.values());
+        }
+    }
+
+    public static class Builder extends AbstractVectorStoreBuilder<Builder> {
+        private String partitionKey = "conversationId";
+        private int bucketCount = 4_096;
+        private Path directory;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private long maximumLoadedPartitions = 256;
+        private MeterRegistry meterRegistry;
+        private Duration flushInterval;
+        private Executor maintenanceExecutor = ForkJoinPool.commonPool();
+
+        private Builder(EmbeddingModel embeddingModel) {
+            super(embeddingModel);
+        }
+
+        public Builder partitionKey(String partitionKey) {
+            this.partitionKey = partitionKey;
+            return this;
+        }
+
+        public Builder bucketCount(int bucketCount) {
+            this.bucketCount = bucketCount;
+            return this;
+        }
+
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder maximumLoadedPartitions(long maximumLoadedPartitions) {
+            this.maximumLoadedPartitions = maximumLoadedPartitions;
+            return this;
+        }
+
+        public Builder flushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public Builder maintenanceExecutor(Executor maintenanceExecutor) {
+            this.maintenanceExecutor = maintenanceExecutor;
+            return this;
+        }
+
+        @Override
+        public PartitionedVectorStore build() {
+            return new PartitionedVectorStore(this);
+        }
+    }
+}
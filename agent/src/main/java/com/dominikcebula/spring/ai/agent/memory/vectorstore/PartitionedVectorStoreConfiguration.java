@@ -0,0 +1,57 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.springframework.ai.vectorstore.SpringAIVectorStoreTypes.TYPE;
+
+@Configuration
+@ConditionalOnProperty(name = TYPE, havingValue = "partitioned")
+public class PartitionedVectorStoreConfiguration {
+    private final String partitionKey;
+    private final int bucketCount;
+    private final String directory;
+    private final Duration idleTimeout;
+    private final long maximumLoadedPartitions;
+    private final Duration flushInterval;
+
+    public PartitionedVectorStoreConfiguration(
+            @Value("${agent.memory.vector-store.partitioned.partition-key:conversationId}") String partitionKey,
+            @Value("${agent.memory.vector-store.partitioned.bucket-count:4096}") int bucketCount,
+            @Value("${agent.memory.vector-store.partitioned.directory:}") String directory,
+            @Value("${agent.memory.vector-store.partitioned.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${agent.memory.vector-store.partitioned.maximum-loaded-partitions:256}") long maximumLoadedPartitions,
+            @Value("${agent.memory.vector-store.partitioned.flush-interval:1m}") Duration flushInterval) {
+        this.partitionKey = partitionKey;
+        this.bucketCount = bucketCount;
+        this.directory = directory;
+        this.idleTimeout = idleTimeout;
+        this.maximumLoadedPartitions = maximumLoadedPartitions;
+        this.flushInterval = flushInterval;
+    }
+
+    @Bean
+    public PartitionedVectorStore vectorStore(EmbeddingModel embeddingModel,
+                                              ObjectProvider<ObservationRegistry> observationRegistry,
+                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return PartitionedVectorStore.builder(embeddingModel)
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                .meterRegistry(meterRegistry.getIfUnique())
+                .partitionKey(partitionKey)
+                .bucketCount(bucketCount)
+                .directory(directory.isBlank() ? null : Path.of(directory))
+                .idleTimeout(idleTimeout)
+                .maximumLoadedPartitions(maximumLoadedPartitions)
+                .flushInterval(flushInterval)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+class RawVectorFile implements AutoCloseable {
+    private final FileChannel channel;
+    private int dimensions = -1;
+
+    private RawVectorFile(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static RawVectorFile open(Path path) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            return new RawVectorFile(FileChannel.open(path, CREATE, READ, WRITE, TRUNCATE_EXISTING));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open raw vector file " + path, e);
+        }
+    }
+
+    static RawVectorFile openTemporary() {
+        try {
+            Path path = Files.createTempFile("memory-vector-store", ".vectors");
+            return new RawVectorFile(FileChannel.open(path, READ, WRITE, TRUNCATE_EXISTING, DELETE_ON_CLOSE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open temporary raw vector file", e);
+        }
+    }
+
+    void write(int slot, float[] vector) {
+        if (dimensions == -1) {
+            dimensions = vector.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(dimensions * Float.BYTES);
+        buffer.asFloatBuffer().put(vector);
+        try {
+            channel.write(buffer, offset(slot));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write raw vector " + slot, e);
+        }
+    }
+
+    float[] read(int slot) {
+        ByteBuffer buffer = ByteBuffer.allocate(dimensions * Float.BYTES);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset(slot) + buffer.position()) < 0) {
+                    throw new IllegalStateException("Raw vector " + slot + " is not stored");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read raw vector " + slot, e);
+        }
+
+        float[] vector = new float[dimensions];
+        buffer.flip();
+        buffer.asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    void clear() {
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to clear raw vector file", e);
+        }
+    }
+
+    private long offset(int slot) {
+        return (long) slot * dimensions * Float.BYTES;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close raw vector file", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import java.util.function.ToDoubleFunction;
+
+interface VectorCodec<T> {
+    T encode(float[] normalizedVector);
+
+    ToDoubleFunction<T> distanceTo(float[] normalizedQuery);
+
+    double distance(T first, T second);
+
+    int bytesPerVector(int dimensions);
+
+    // vectors are normalized on insert, so the dot product is the cosine similarity
+    static double exactDistance(float[] first, float[] second) {
+        double dotProduct = 0.0;
+        for (int idx = 0; idx < first.length; idx++) {
+            dotProduct += first[idx] * second[idx];
+        }
+        return 1.0 - dotProduct;
+    }
+
+    static VectorCodec<?> of(VectorQuantization quantization) {
+        return switch (quantization) {
+            case NONE -> new FloatVectorCodec();
+            case INT8 -> new Int8VectorCodec();
+            case BINARY -> new BinaryVectorCodec();
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+public enum VectorQuantization {
+    NONE,
+    INT8,
+    BINARY
+}
@@ -0,0 +1,33 @@
+package com.dominikcebula.spring.ai.agent.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class AdvisorChainInstrumentation {
+    private static final String MODEL_POSITION = "ChatModel";
+
+    private final MeterRegistry meterRegistry;
+
+    public AdvisorChainInstrumentation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // a timing advisor runs right before every advisor and before the model call, so each position is timed on its own
+    public List<Advisor> instrument(List<Advisor> advisors) {
+        List<Advisor> instrumentedAdvisors = new ArrayList<>();
+
+        for (Advisor advisor : advisors) {
+            instrumentedAdvisors.add(new ChainPositionTimingAdvisor(advisor.getName(), advisor.getOrder() - 1, meterRegistry));
+            instrumentedAdvisors.add(advisor);
+        }
+        instrumentedAdvisors.add(new ChainPositionTimingAdvisor(MODEL_POSITION, Ordered.LOWEST_PRECEDENCE - 1, meterRegistry));
+
+        return instrumentedAdvisors;
+    }
+}
@@ -0,0 +1,131 @@
+package com.dominikcebula.spring.ai.agent.metrics;
+
+import com.dominikcebula.spring.ai.agent.jfr.AdvisorEvent;
+import com.dominikcebula.spring.ai.agent.jfr.ConversationIdHash;
+import com.dominikcebula.spring.ai.agent.jfr.PayloadSize;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.dominikcebula.spring.ai.agent.memory.utils.ChatClientRequestUtils.findConversationId;
+
+public class ChainPositionTimingAdvisor implements CallAdvisor, StreamAdvisor {
+    public static final String CHAIN_TIMING = "advisor_chain_timing";
+
+    private static final String METRIC_NAME = "agent.advisor.duration";
+
+    private final String position;
+    private final int order;
+    private final Timer callTimer;
+    private final Timer streamTimer;
+
+    public ChainPositionTimingAdvisor(String position, int order, MeterRegistry meterRegistry) {
+        this.position = position;
+        this.order = order;
+        this.callTimer = meterRegistry.timer(METRIC_NAME, "position", position, "mode", "call");
+        this.streamTimer = meterRegistry.timer(METRIC_NAME, "position", position, "mode", "stream");
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        ChatClientRequest timedChatClientRequest = withChainTiming(chatClientRequest);
+        AtomicLong attributedNanos = chainTiming(timedChatClientRequest);
+
+        AdvisorEvent advisorEvent = new AdvisorEvent();
+        advisorEvent.begin();
+
+        long attributedAtStart = attributedNanos.get();
+        long startedAt = System.nanoTime();
+        try {
+            return callAdvisorChain.nextCall(timedChatClientRequest);
+        } finally {
+            record(callTimer, attributedNanos, attributedAtStart, startedAt);
+            commit(advisorEvent, "call", timedChatClientRequest);
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        ChatClientRequest timedChatClientRequest = withChainTiming(chatClientRequest);
+        AtomicLong attributedNanos = chainTiming(timedChatClientRequest);
+
+        return Flux.defer(() -> {
+            AdvisorEvent advisorEvent = new AdvisorEvent();
+            advisorEvent.begin();
+
+            long attributedAtStart = attributedNanos.get();
+            long startedAt = System.nanoTime();
+            Runnable finish = () -> {
+                record(streamTimer, attributedNanos, attributedAtStart, startedAt);
+                commit(advisorEvent, "stream", timedChatClientRequest);
+            };
+
+            // completion and errors pass each position from the model outwards before they reach the subscriber,
+            // a cancel goes the other way and only its finally hook runs once the positions below have been cancelled
+            return streamAdvisorChain.nextStream(timedChatClientRequest)
+                    .doOnComplete(finish)
+                    .doOnError(error -> finish.run())
+                    .doFinally(signalType -> {
+                        if (signalType == SignalType.CANCEL) {
+                            finish.run();
+                        }
+                    });
+        });
+    }
+
+    // positions finish from the model outwards, each one keeps its elapsed time minus what the positions below it
+    // recorded meanwhile, which also holds when the tool loop runs the model position more than once
+    private static void record(Timer timer, AtomicLong attributedNanos, long attributedAtStart, long startedAt) {
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long ownNanos = elapsedNanos - (attributedNanos.get() - attributedAtStart);
+        timer.record(ownNanos, TimeUnit.NANOSECONDS);
+        attributedNanos.addAndGet(ownNanos);
+    }
+
+    private void commit(AdvisorEvent advisorEvent, String mode, ChatClientRequest chatClientRequest) {
+        if (!advisorEvent.shouldCommit()) {
+            return;
+        }
+
+        advisorEvent.conversationIdHash = ConversationIdHash.of(findConversationId(chatClientRequest).orElse(null));
+        advisorEvent.position = position;
+        advisorEvent.mode = mode;
+        advisorEvent.promptMessages = chatClientRequest.prompt().getInstructions().size();
+        advisorEvent.promptCharacters = PayloadSize.characters(chatClientRequest.prompt().getInstructions());
+        advisorEvent.commit();
+    }
+
+    private static ChatClientRequest withChainTiming(ChatClientRequest chatClientRequest) {
+        if (chatClientRequest.context().get(CHAIN_TIMING) instanceof AtomicLong) {
+            return chatClientRequest;
+        }
+
+        return chatClientRequest.mutate()
+                .context(CHAIN_TIMING, new AtomicLong())
+                .build();
+    }
+
+    private static AtomicLong chainTiming(ChatClientRequest chatClientRequest) {
+        return (AtomicLong) chatClientRequest.context().get(CHAIN_TIMING);
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName() + "[" + position + "]";
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,54 @@
+package com.dominikcebula.spring.ai.agent.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.observation.ChatModelObservationContext;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Optional;
+
+@Component
+public class TokenUsageObservationHandler implements ObservationHandler<ChatModelObservationContext> {
+    private static final String METRIC_NAME = "agent.model.tokens";
+    private static final String UNKNOWN_MODEL = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    public TokenUsageObservationHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ChatModelObservationContext;
+    }
+
+    @Override
+    public void onStop(ChatModelObservationContext context) {
+        Optional.ofNullable(context.getResponse())
+                .map(ChatResponse::getMetadata)
+                .ifPresent(metadata -> {
+                    String model = StringUtils.hasText(metadata.getModel()) ? metadata.getModel() : requestedModel(context);
+                    Usage usage = metadata.getUsage();
+
+                    meterRegistry.counter(METRIC_NAME, "type", "input", "model", model).increment(tokens(usage.getPromptTokens()));
+                    meterRegistry.counter(METRIC_NAME, "type", "output", "model", model).increment(tokens(usage.getCompletionTokens()));
+                });
+    }
+
+    private static String requestedModel(ChatModelObservationContext context) {
+        return Optional.ofNullable(context.getRequest().getOptions())
+                .map(ChatOptions::getModel)
+                .filter(StringUtils::hasText)
+                .orElse(UNKNOWN_MODEL);
+    }
+
+    private static int tokens(Integer tokens) {
+        return tokens == null ? 0 : tokens;
+    }
+}
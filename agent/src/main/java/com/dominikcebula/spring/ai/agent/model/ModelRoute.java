@@ -0,0 +1,6 @@
+package com.dominikcebula.spring.ai.agent.model;
+
+import java.time.Duration;
+
+public record ModelRoute(String model, Integer maxTokens, Duration timeout) {
+}
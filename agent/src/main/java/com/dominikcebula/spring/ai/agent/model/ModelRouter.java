@@ -0,0 +1,80 @@
+package com.dominikcebula.spring.ai.agent.model;
+
+import com.dominikcebula.spring.ai.agent.concurrency.CallPriority;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class ModelRouter implements DisposableBean {
+    private final ChatModel chatModel;
+    private final Map<ModelTask, ModelRoute> routes = new EnumMap<>(ModelTask.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ModelRouter(
+            ChatModel chatModel,
+            @Value("${agent.model-routing.memory-extraction.model:}") String memoryExtractionModel,
+            @Value("${agent.model-routing.memory-extraction.max-tokens:1024}") int memoryExtractionMaxTokens,
+            @Value("${agent.model-routing.memory-extraction.timeout:20s}") Duration memoryExtractionTimeout,
+            @Value("${agent.model-routing.conversation-summarization.model:}") String conversationSummarizationModel,
+            @Value("${agent.model-routing.conversation-summarization.max-tokens:1024}") int conversationSummarizationMaxTokens,
+            @Value("${agent.model-routing.conversation-summarization.timeout:30s}") Duration conversationSummarizationTimeout) {
+        this.chatModel = chatModel;
+
+        routes.put(ModelTask.MEMORY_EXTRACTION,
+                new ModelRoute(memoryExtractionModel, memoryExtractionMaxTokens, memoryExtractionTimeout));
+        routes.put(ModelTask.CONVERSATION_SUMMARIZATION,
+                new ModelRoute(conversationSummarizationModel, conversationSummarizationMaxTokens, conversationSummarizationTimeout));
+    }
+
+    public ChatResponse call(ModelTask task, Prompt prompt) {
+        ModelRoute route = routes.get(task);
+
+        // a blank model keeps the default configured for the conversation
+        Prompt routedPrompt = prompt.mutate()
+                .chatOptions(ChatOptions.builder()
+                        .model(route.model().isBlank() ? null : route.model())
+                        .maxTokens(route.maxTokens())
+                        .build())
+                .build();
+
+        // the call runs on a virtual thread whose blocking socket reads give way to an interrupt,
+        // so cancelling it on timeout aborts the Bedrock request and frees its concurrency slot
+        CallPriority callPriority = CallPriority.current();
+        Future<ChatResponse> response = executor.submit(() -> callPriority.run(() -> chatModel.call(routedPrompt)));
+        try {
+            return response.get(route.timeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Model call for " + task + " failed", e.getCause());
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            throw new IllegalStateException("Model call for " + task + " timed out after " + route.timeout(), e);
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for model call for " + task, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
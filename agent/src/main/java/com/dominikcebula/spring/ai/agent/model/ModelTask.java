@@ -0,0 +1,6 @@
+package com.dominikcebula.spring.ai.agent.model;
+
+public enum ModelTask {
+    MEMORY_EXTRACTION,
+    CONVERSATION_SUMMARIZATION
+}
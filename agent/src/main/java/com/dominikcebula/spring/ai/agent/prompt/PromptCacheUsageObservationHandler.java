@@ -0,0 +1,57 @@
+package com.dominikcebula.spring.ai.agent.prompt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.observation.ChatModelObservationContext;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.bedrockruntime.model.TokenUsage;
+
+import java.util.Optional;
+
+@Component
+public class PromptCacheUsageObservationHandler implements ObservationHandler<ChatModelObservationContext> {
+    private static final String METRIC_NAME = "agent.prompt.cache.tokens";
+
+    static final String CACHE_READ_INPUT_TOKENS = "cacheReadInputTokens";
+    static final String CACHE_WRITE_INPUT_TOKENS = "cacheWriteInputTokens";
+
+    private final Counter readCounter;
+    private final Counter writeCounter;
+
+    public PromptCacheUsageObservationHandler(MeterRegistry meterRegistry) {
+        this.readCounter = meterRegistry.counter(METRIC_NAME, "type", "read");
+        this.writeCounter = meterRegistry.counter(METRIC_NAME, "type", "write");
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ChatModelObservationContext;
+    }
+
+    // tool-calling rounds are separate observations, so every request to the model is counted
+    @Override
+    public void onStop(ChatModelObservationContext context) {
+        Optional.ofNullable(context.getResponse())
+                .map(ChatResponse::getMetadata)
+                .ifPresent(metadata -> {
+                    readCounter.increment(cacheTokens(metadata, CACHE_READ_INPUT_TOKENS));
+                    writeCounter.increment(cacheTokens(metadata, CACHE_WRITE_INPUT_TOKENS));
+                });
+    }
+
+    // blocking responses carry the counts as metadata, streamed ones only on the native usage
+    private static int cacheTokens(ChatResponseMetadata metadata, String key) {
+        if (metadata.get(key) instanceof Integer tokens) {
+            return tokens;
+        }
+        if (metadata.getUsage().getNativeUsage() instanceof TokenUsage tokenUsage) {
+            Integer tokens = CACHE_READ_INPUT_TOKENS.equals(key) ? tokenUsage.cacheReadInputTokens() : tokenUsage.cacheWriteInputTokens();
+            return tokens == null ? 0 : tokens;
+        }
+        return 0;
+    }
+}
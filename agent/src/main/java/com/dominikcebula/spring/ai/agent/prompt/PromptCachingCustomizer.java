@@ -0,0 +1,31 @@
+package com.dominikcebula.spring.ai.agent.prompt;
+
+import org.springframework.ai.bedrock.converse.BedrockChatOptions;
+import org.springframework.ai.bedrock.converse.api.BedrockCacheOptions;
+import org.springframework.ai.bedrock.converse.api.BedrockCacheStrategy;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PromptCachingCustomizer implements ChatClientCustomizer {
+    private final BedrockCacheStrategy cacheStrategy;
+
+    public PromptCachingCustomizer(@Value("${agent.prompt-caching.strategy:SYSTEM_AND_TOOLS}") BedrockCacheStrategy cacheStrategy) {
+        this.cacheStrategy = cacheStrategy;
+    }
+
+    @Override
+    public void customize(ChatClient.Builder chatClientBuilder) {
+        if (cacheStrategy == BedrockCacheStrategy.NONE) {
+            return;
+        }
+
+        chatClientBuilder.defaultOptions(BedrockChatOptions.builder()
+                .cacheOptions(BedrockCacheOptions.builder()
+                        .strategy(cacheStrategy)
+                        .build())
+                .build());
+    }
+}
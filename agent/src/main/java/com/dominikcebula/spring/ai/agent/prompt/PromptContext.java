@@ -0,0 +1,29 @@
+package com.dominikcebula.spring.ai.agent.prompt;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class PromptContext {
+    public static final String PROMPT_CONTEXT_BLOCKS = "prompt_context_blocks";
+
+    private PromptContext() {
+    }
+
+    // per-request text is collected here instead of the system prompt, so the system prompt stays byte-for-byte cacheable
+    public static ChatClientRequest addBlock(ChatClientRequest chatClientRequest, String block) {
+        return chatClientRequest.mutate()
+                .context(PROMPT_CONTEXT_BLOCKS, Stream.concat(blocksOf(chatClientRequest).stream(), Stream.of(block)).toList())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<String> blocksOf(ChatClientRequest chatClientRequest) {
+        if (chatClientRequest.context().get(PROMPT_CONTEXT_BLOCKS) instanceof List<?> blocks) {
+            return (List<String>) blocks;
+        }
+
+        return List.of();
+    }
+}
@@ -0,0 +1,52 @@
+package com.dominikcebula.spring.ai.agent.prompt;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+@Component
+public class PromptContextAdvisor implements CallAdvisor, StreamAdvisor {
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        return callAdvisorChain.nextCall(renderContext(chatClientRequest));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        return streamAdvisorChain.nextStream(renderContext(chatClientRequest));
+    }
+
+    // the blocks go in front of the current user message, after the cached system prompt, tools and history
+    private ChatClientRequest renderContext(ChatClientRequest chatClientRequest) {
+        List<String> blocks = PromptContext.blocksOf(chatClientRequest);
+        if (blocks.isEmpty()) {
+            return chatClientRequest;
+        }
+
+        String context = String.join("\n", blocks);
+
+        return chatClientRequest.mutate()
+                .prompt(chatClientRequest.prompt().augmentUserMessage(message -> message.mutate()
+                        .text(context + "\n" + message.getText())
+                        .build()))
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    // runs last, after the history and memory advisors have recorded the user message as typed
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 100;
+    }
+}
@@ -0,0 +1,126 @@
+package com.dominikcebula.spring.ai.agent.response;
+
+import com.dominikcebula.spring.ai.agent.memory.utils.VectorUtils;
+import com.dominikcebula.spring.ai.agent.tools.InventoryChangedEvent;
+import com.dominikcebula.spring.ai.agent.tools.TravelInventory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+@Component
+public class SemanticResponseCache {
+    private static final String METRIC_PREFIX = "agent.response-cache";
+
+    private final double similarityThreshold;
+    private final Duration timeToLive;
+    private final int maximumSize;
+    private final Clock clock;
+
+    private final Deque<CachedResponse> entries = new ConcurrentLinkedDeque<>();
+    private final Map<TravelInventory, Instant> inventoryChanges = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter bypassCounter;
+    private final Counter invalidatedCounter;
+    private final DistributionSummary hitAgeSummary;
+
+    public SemanticResponseCache(
+            @Value("${agent.response-cache.similarity-threshold:0.95}") double similarityThreshold,
+            @Value("${agent.response-cache.time-to-live:10m}") Duration timeToLive,
+            @Value("${agent.response-cache.maximum-size:1000}") int maximumSize,
+            MeterRegistry meterRegistry) {
+        this(similarityThreshold, timeToLive, maximumSize, Clock.systemUTC(), meterRegistry);
+    }
+
+    SemanticResponseCache(double similarityThreshold, Duration timeToLive, int maximumSize, Clock clock, MeterRegistry meterRegistry) {
+        this.similarityThreshold = similarityThreshold;
+        this.timeToLive = timeToLive;
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+
+        this.hitCounter = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "hit");
+        this.missCounter = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "miss");
+        this.bypassCounter = meterRegistry.counter(METRIC_PREFIX + ".lookups", "result", "bypass");
+        this.invalidatedCounter = meterRegistry.counter(METRIC_PREFIX + ".invalidated");
+        this.hitAgeSummary = DistributionSummary.builder(METRIC_PREFIX + ".hit.age")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        meterRegistry.gauge(METRIC_PREFIX + ".size", entries, Deque::size);
+    }
+
+    public Optional<String> lookup(float[] promptEmbedding) {
+        Instant now = clock.instant();
+        entries.removeIf(entry -> isExpired(entry, now));
+
+        Optional<CachedResponse> cachedResponse = entries.stream()
+                .filter(entry -> VectorUtils.cosineSimilarity(entry.promptEmbedding(), promptEmbedding) >= similarityThreshold)
+                .max(Comparator.comparing(CachedResponse::createdAt));
+
+        cachedResponse.ifPresentOrElse(
+                entry -> {
+                    hitCounter.increment();
+                    hitAgeSummary.record(Duration.between(entry.createdAt(), now).toMillis() / 1000.0);
+                },
+                missCounter::increment);
+
+        return cachedResponse.map(CachedResponse::response);
+    }
+
+    public void recordBypass() {
+        bypassCounter.increment();
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    // a booking made while the answer was being generated may already have changed what it describes
+    public void put(float[] promptEmbedding, String response, Set<TravelInventory> inventories, Instant generationStartedAt) {
+        boolean inventoryChanged = inventories.stream()
+                .map(inventoryChanges::get)
+                .anyMatch(changedAt -> changedAt != null && !changedAt.isBefore(generationStartedAt));
+        if (inventoryChanged) {
+            return;
+        }
+
+        entries.addFirst(new CachedResponse(promptEmbedding, response, Set.copyOf(inventories), clock.instant()));
+        while (entries.size() > maximumSize) {
+            entries.pollLast();
+        }
+    }
+
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent inventoryChangedEvent) {
+        inventoryChanges.put(inventoryChangedEvent.inventory(), clock.instant());
+
+        entries.removeIf(entry -> {
+            boolean affected = entry.inventories().contains(inventoryChangedEvent.inventory());
+            if (affected) {
+                invalidatedCounter.increment();
+            }
+            return affected;
+        });
+    }
+
+    private boolean isExpired(CachedResponse entry, Instant now) {
+        return entry.createdAt().plus(timeToLive).isBefore(now);
+    }
+
+    private record CachedResponse(float[] promptEmbedding, String response, Set<TravelInventory> inventories, Instant createdAt) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.dominikcebula.spring.ai.agent.response;
+
+import com.dominikcebula.spring.ai.agent.embedding.EmbeddingContext;
+import com.dominikcebula.spring.ai.agent.prompt.PromptContext;
+import com.dominikcebula.spring.ai.agent.tools.ToolAccess;
+import com.dominikcebula.spring.ai.agent.tools.ToolUsage;
+import com.dominikcebula.spring.ai.agent.tools.TravelInventory;
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.ai.chat.client.advisor.api.BaseAdvisor.DEFAULT_SCHEDULER;
+
+@Component
+public class SemanticResponseCacheAdvisor implements CallAdvisor, StreamAdvisor {
+    public static final String RESPONSE_CACHE = "response_cache";
+
+    private final SemanticResponseCache semanticResponseCache;
+    private final EmbeddingModel embeddingModel;
+    private final boolean enabled;
+
+    public SemanticResponseCacheAdvisor(
+            SemanticResponseCache semanticResponseCache,
+            EmbeddingModel embeddingModel,
+            @Value("${agent.response-cache.enabled:false}") boolean enabled) {
+        this.semanticResponseCache = semanticResponseCache;
+        this.embeddingModel = embeddingModel;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        if (!isCacheable(chatClientRequest)) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+
+        float[] promptEmbedding = embedPrompt(chatClientRequest);
+        Optional<String> cachedResponse = semanticResponseCache.lookup(promptEmbedding);
+        if (cachedResponse.isPresent()) {
+            return toChatClientResponse(chatClientRequest, cachedResponse.get());
+        }
+
+        Instant generationStartedAt = semanticResponseCache.now();
+        ChatClientRequest trackedChatClientRequest = ToolUsage.attach(chatClientRequest);
+        ChatClientResponse chatClientResponse = callAdvisorChain.nextCall(trackedChatClientRequest);
+
+        storeResponse(trackedChatClientRequest, chatClientResponse, promptEmbedding, generationStartedAt);
+
+        return chatClientResponse;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        if (!isCacheable(chatClientRequest)) {
+            return streamAdvisorChain.nextStream(chatClientRequest);
+        }
+
+        return Mono.fromCallable(() -> embedPrompt(chatClientRequest))
+                .subscribeOn(DEFAULT_SCHEDULER)
+                .flatMapMany(promptEmbedding -> semanticResponseCache.lookup(promptEmbedding)
+                        .map(cachedResponse -> Flux.just(toChatClientResponse(chatClientRequest, cachedResponse)))
+                        .orElseGet(() -> {
+                            Instant generationStartedAt = semanticResponseCache.now();
+                            ChatClientRequest trackedChatClientRequest = ToolUsage.attach(chatClientRequest);
+
+                            return new ChatClientMessageAggregator().aggregateChatClientResponse(
+                                    streamAdvisorChain.nextStream(trackedChatClientRequest),
+                                    chatClientResponse -> storeResponse(trackedChatClientRequest, chatClientResponse, promptEmbedding, generationStartedAt));
+                        }));
+    }
+
+    // only standalone questions are shared, anything shaped by history or memories is specific to one conversation
+    private boolean isCacheable(ChatClientRequest chatClientRequest) {
+        if (!enabled) {
+            return false;
+        }
+
+        boolean standalone = PromptContext.blocksOf(chatClientRequest).isEmpty()
+                && chatClientRequest.prompt().getInstructions().stream()
+                .filter(message -> message.getMessageType() != MessageType.SYSTEM)
+                .count() == 1;
+        if (!standalone) {
+            semanticResponseCache.recordBypass();
+        }
+
+        return standalone;
+    }
+
+    private float[] embedPrompt(ChatClientRequest chatClientRequest) {
+        String userPrompt = chatClientRequest.prompt().getUserMessage().getText();
+
+        return EmbeddingContext.of(chatClientRequest).run(() -> embeddingModel.embed(userPrompt));
+    }
+
+    private void storeResponse(ChatClientRequest chatClientRequest, ChatClientResponse chatClientResponse, float[] promptEmbedding, Instant generationStartedAt) {
+        Set<String> toolNames = ToolUsage.of(chatClientRequest)
+                .map(ToolUsage::toolNames)
+                .orElse(Set.of());
+        if (!toolNames.stream().allMatch(toolName -> ToolAccess.of(toolName) == ToolAccess.INVENTORY_READ)) {
+            return;
+        }
+
+        String response = Optional.ofNullable(chatClientResponse.chatResponse())
+                .map(chatResponse -> chatResponse.getResults().stream()
+                        .map(Generation::getOutput)
+                        .map(AssistantMessage::getText)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.joining()))
+                .orElse("");
+        if (response.isBlank()) {
+            return;
+        }
+
+        Set<TravelInventory> inventories = toolNames.stream()
+                .map(TravelInventory::of)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toSet());
+
+        semanticResponseCache.put(promptEmbedding, response, inventories, generationStartedAt);
+    }
+
+    private static ChatClientResponse toChatClientResponse(ChatClientRequest chatClientRequest, String cachedResponse) {
+        ChatResponse chatResponse = ChatResponse.builder()
+                .generations(List.of(new Generation(new AssistantMessage(cachedResponse))))
+                .metadata(ChatResponseMetadata.builder()
+                        .keyValue(RESPONSE_CACHE, "hit")
+                        .build())
+                .build();
+
+        return ChatClientResponse.builder()
+                .chatResponse(chatResponse)
+                .context(chatClientRequest.context())
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    // runs after the history and memory advisors, so it sees exactly what the model would see
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 200;
+    }
+}
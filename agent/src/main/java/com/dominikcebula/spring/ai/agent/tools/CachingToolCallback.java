@@ -0,0 +1,43 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public class CachingToolCallback implements ToolCallback {
+    private final ToolCallback delegate;
+    private final ToolResultCache toolResultCache;
+
+    public CachingToolCallback(ToolCallback delegate, ToolResultCache toolResultCache) {
+        this.delegate = delegate;
+        this.toolResultCache = toolResultCache;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        Optional<UUID> conversationId = ToolUsage.of(toolContext).flatMap(ToolUsage::conversationId);
+
+        // the innermost decorator that needs the tool usage, everything below forwards the context to the MCP server
+        return toolResultCache.call(getToolDefinition().name(), toolInput, conversationId.orElse(null),
+                () -> delegate.call(toolInput, ToolUsage.detach(toolContext)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+// replaces the provider bean, so it also has to stand in for it as a listener, the MCP provider only drops its cached
+// callbacks when it receives the tools changed event of a refreshing server
+class DecoratedToolCallbackProvider implements ToolCallbackProvider, GenericApplicationListener {
+    private final ToolCallbackProvider delegate;
+    private final UnaryOperator<ToolCallback> decorator;
+    private final GenericApplicationListener delegateListener;
+
+    DecoratedToolCallbackProvider(ToolCallbackProvider delegate, UnaryOperator<ToolCallback> decorator) {
+        this.delegate = delegate;
+        this.decorator = decorator;
+        this.delegateListener = delegate instanceof ApplicationListener<?> applicationListener
+                ? new GenericApplicationListenerAdapter(applicationListener)
+                : null;
+    }
+
+    // wrapped on every lookup, the delegate may return new callbacks after a refresh
+    @Override
+    public ToolCallback[] getToolCallbacks() {
+        return Arrays.stream(delegate.getToolCallbacks())
+                .map(decorator)
+                .toArray(ToolCallback[]::new);
+    }
+
+    @Override
+    public boolean supportsEventType(ResolvableType eventType) {
+        return delegateListener != null && delegateListener.supportsEventType(eventType);
+    }
+
+    @Override
+    public boolean supportsSourceType(Class<?> sourceType) {
+        return delegateListener != null && delegateListener.supportsSourceType(sourceType);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (delegateListener != null) {
+            delegateListener.onApplicationEvent(event);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return delegateListener != null ? delegateListener.getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,4 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+public record InventoryChangedEvent(TravelInventory inventory, String toolName) {
+}
@@ -0,0 +1,218 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+public class ParallelToolCallingManager implements ToolCallingManager, DisposableBean {
+    private final ToolCallingManager delegate;
+    private final ObservationRegistry observationRegistry;
+    private final boolean parallel;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParallelToolCallingManager(
+            ObservationRegistry observationRegistry,
+            ToolCallbackResolver toolCallbackResolver,
+            ToolExecutionExceptionProcessor toolExecutionExceptionProcessor,
+            @Value("${agent.tools.execution.parallel:true}") boolean parallel,
+            @Value("${agent.tools.execution.timeout:30s}") Duration timeout) {
+        this(DefaultToolCallingManager.builder()
+                        .observationRegistry(observationRegistry)
+                        .toolCallbackResolver(toolCallbackResolver)
+                        .toolExecutionExceptionProcessor(toolExecutionExceptionProcessor)
+                        .build(),
+                observationRegistry, parallel, timeout);
+    }
+
+    ParallelToolCallingManager(ToolCallingManager delegate, ObservationRegistry observationRegistry, boolean parallel, Duration timeout) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+        this.parallel = parallel;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return delegate.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        Optional<AssistantMessage> assistantMessage = chatResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .filter(AssistantMessage::hasToolCalls)
+                .findFirst();
+        if (!parallel || assistantMessage.isEmpty()) {
+            return delegate.executeToolCalls(prompt, chatResponse);
+        }
+
+        List<AssistantMessage.ToolCall> toolCalls = assistantMessage.get().getToolCalls();
+        List<CompletableFuture<ToolExecutionResult>> toolExecutions = new ArrayList<>(Collections.nCopies(toolCalls.size(), null));
+
+        // booking changes and tools not known to be read-only wait for the previous such call of the turn to actually
+        // finish and are never timed out here, an abandoned write could still land and be retried into a double booking,
+        // they are bounded by the MCP client request timeout instead
+        CompletableFuture<?> previousStateChange = CompletableFuture.completedFuture(null);
+        Map<TravelInventory, CompletableFuture<?>> lastStateChanges = new EnumMap<>(TravelInventory.class);
+        for (int idx = 0; idx < toolCalls.size(); idx++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(idx);
+            if (ToolAccess.of(toolCall.name()).readOnly()) {
+                continue;
+            }
+
+            CompletableFuture<ToolExecutionResult> stateChange = previousStateChange
+                    .handle((result, failure) -> null)
+                    .thenCompose(ignored -> execute(prompt, assistantMessage.get(), toolCall));
+            toolExecutions.set(idx, stateChange);
+            previousStateChange = stateChange;
+
+            // a change of an unknown inventory may touch any of them
+            Set<TravelInventory> changedInventories = TravelInventory.of(toolCall.name())
+                    .map(EnumSet::of)
+                    .orElseGet(() -> EnumSet.allOf(TravelInventory.class));
+            for (TravelInventory changedInventory : changedInventories) {
+                lastStateChanges.put(changedInventory, stateChange);
+            }
+        }
+
+        // reads start right away, booking reads only once the changes of their inventory in this turn have finished so
+        // they see the result of them, and each read is cancelled when it runs longer than the timeout
+        for (int idx = 0; idx < toolCalls.size(); idx++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(idx);
+            ToolAccess toolAccess = ToolAccess.of(toolCall.name());
+            if (!toolAccess.readOnly()) {
+                continue;
+            }
+
+            CompletableFuture<?> precedingStateChange = null;
+            if (toolAccess == ToolAccess.BOOKING_READ) {
+                Optional<TravelInventory> readInventory = TravelInventory.of(toolCall.name());
+                precedingStateChange = readInventory.isPresent() ? lastStateChanges.get(readInventory.get()) : previousStateChange;
+            }
+            toolExecutions.set(idx, precedingStateChange == null
+                    ? read(prompt, assistantMessage.get(), toolCall)
+                    : precedingStateChange
+                    .handle((result, failure) -> null)
+                    .thenCompose(ignored -> read(prompt, assistantMessage.get(), toolCall)));
+        }
+
+        List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+        boolean returnDirect = true;
+        for (int idx = 0; idx < toolCalls.size(); idx++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(idx);
+            Optional<ToolExecutionResult> toolExecutionResult = await(toolExecutions.get(idx));
+
+            if (toolExecutionResult.isPresent()) {
+                toolResponses.addAll(((ToolResponseMessage) toolExecutionResult.get().conversationHistory().getLast()).getResponses());
+                returnDirect = returnDirect && toolExecutionResult.get().returnDirect();
+            } else {
+                toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(),
+                        "Tool " + toolCall.name() + " did not respond within " + timeout + " and was cancelled. "
+                                + "Do not call it again in this turn, tell the user it is unavailable right now"));
+                returnDirect = false;
+            }
+        }
+
+        List<Message> conversationHistory = new ArrayList<>(prompt.copy().getInstructions());
+        conversationHistory.add(assistantMessage.get());
+        conversationHistory.add(ToolResponseMessage.builder().responses(toolResponses).build());
+
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    private CompletableFuture<ToolExecutionResult> read(Prompt prompt, AssistantMessage assistantMessage, AssistantMessage.ToolCall toolCall) {
+        return execute(prompt, assistantMessage, toolCall)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // every call goes through the default manager on its own, so resolution, observations and error handling stay unchanged
+    private CompletableFuture<ToolExecutionResult> execute(Prompt prompt, AssistantMessage assistantMessage, AssistantMessage.ToolCall toolCall) {
+        ChatResponse singleToolCallResponse = ChatResponse.builder()
+                .generations(List.of(new Generation(AssistantMessage.builder()
+                        .content(assistantMessage.getText())
+                        .properties(assistantMessage.getMetadata())
+                        .toolCalls(List.of(toolCall))
+                        .build())))
+                .build();
+
+        Supplier<ToolExecutionResult> toolExecution = () -> delegate.executeToolCalls(prompt, singleToolCallResponse);
+        Observation parentObservation = observationRegistry.getCurrentObservation();
+
+        Supplier<ToolExecutionResult> observedToolExecution = parentObservation == null
+                ? toolExecution
+                : () -> parentObservation.scoped(toolExecution);
+
+        CompletableFuture<ToolExecutionResult> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(observedToolExecution.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        // a timed out or cancelled result interrupts the call, so the MCP request does not keep running in the background
+        result.whenComplete((toolExecutionResult, failure) -> {
+            if (failure != null) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static Optional<ToolExecutionResult> await(CompletableFuture<ToolExecutionResult> toolExecution) {
+        try {
+            return Optional.of(toolExecution.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                return Optional.empty();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
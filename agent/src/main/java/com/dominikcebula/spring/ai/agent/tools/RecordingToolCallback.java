@@ -0,0 +1,55 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import com.dominikcebula.spring.ai.agent.jfr.ConversationIdHash;
+import com.dominikcebula.spring.ai.agent.jfr.PayloadSize;
+import com.dominikcebula.spring.ai.agent.jfr.ToolInvocationEvent;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+public class RecordingToolCallback implements ToolCallback {
+    private final ToolCallback delegate;
+
+    public RecordingToolCallback(ToolCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        ToolInvocationEvent toolInvocationEvent = new ToolInvocationEvent();
+        toolInvocationEvent.begin();
+
+        String toolResult = null;
+        try {
+            toolResult = delegate.call(toolInput, toolContext);
+            return toolResult;
+        } finally {
+            if (toolInvocationEvent.shouldCommit()) {
+                toolInvocationEvent.conversationIdHash = ConversationIdHash.of(ToolUsage.of(toolContext)
+                        .flatMap(ToolUsage::conversationId)
+                        .orElse(null));
+                toolInvocationEvent.toolName = getToolDefinition().name();
+                toolInvocationEvent.inputCharacters = PayloadSize.characters(toolInput);
+                toolInvocationEvent.outputCharacters = PayloadSize.characters(toolResult);
+                toolInvocationEvent.failed = toolResult == null;
+                toolInvocationEvent.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+public class TimedToolCallback implements ToolCallback {
+    private static final String METRIC_PREFIX = "agent.tools";
+
+    private final ToolCallback delegate;
+    private final MeterRegistry meterRegistry;
+
+    public TimedToolCallback(ToolCallback delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        String toolName = getToolDefinition().name();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            String toolResult = delegate.call(toolInput, toolContext);
+            sample.stop(meterRegistry.timer(METRIC_PREFIX + ".duration", "tool", toolName, "outcome", "success"));
+            return toolResult;
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer(METRIC_PREFIX + ".duration", "tool", toolName, "outcome", "error"));
+            meterRegistry.counter(METRIC_PREFIX + ".errors", "tool", toolName, "exception", e.getClass().getSimpleName()).increment();
+            throw e;
+        }
+    }
+}
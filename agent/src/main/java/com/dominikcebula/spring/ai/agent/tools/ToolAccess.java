@@ -0,0 +1,50 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public enum ToolAccess {
+    INVENTORY_READ,
+    BOOKING_READ,
+    BOOKING_WRITE,
+    UNKNOWN;
+
+    // only tools known to leave the inventory untouched, a tool added to an MCP server later stays UNKNOWN until listed here
+    private static final Set<String> INVENTORY_READ_TOOLS = Set.of(
+            "getAllCarRentalLocations",
+            "getCarRentalLocationById",
+            "getCarsByCarRentalLocationId",
+            "getAllCarsAvailableForRent",
+            "getCarAvailableForRentById",
+            "searchForAvailableCarsForRent",
+            "getAllAvailableFlights",
+            "getFlightByNumber",
+            "getAllAvailableHotels",
+            "getHotelById",
+            "getRoomsByHotelId",
+            "searchForAvailableRooms");
+    private static final Pattern BOOKING_WRITE_TOOL = Pattern.compile("(create|update|cancel|delete)\\w*booking");
+    private static final Pattern BOOKING_READ_TOOL = Pattern.compile("^get\\w*booking");
+
+    // the MCP servers name their tools consistently, e.g. createFlightBooking, getCarRentalBooking, getAllAvailableHotels
+    public static ToolAccess of(String toolName) {
+        if (INVENTORY_READ_TOOLS.contains(toolName)) {
+            return INVENTORY_READ;
+        }
+
+        String normalizedToolName = toolName.toLowerCase(Locale.ROOT);
+        if (BOOKING_WRITE_TOOL.matcher(normalizedToolName).find()) {
+            return BOOKING_WRITE;
+        }
+        if (BOOKING_READ_TOOL.matcher(normalizedToolName).find()) {
+            return BOOKING_READ;
+        }
+        return UNKNOWN;
+    }
+
+    // anything that is not known to only read may change state, so it is neither cached nor run alongside other calls
+    public boolean readOnly() {
+        return this == INVENTORY_READ || this == BOOKING_READ;
+    }
+}
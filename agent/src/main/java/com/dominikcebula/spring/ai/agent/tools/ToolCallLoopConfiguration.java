@@ -0,0 +1,23 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import org.springframework.ai.chat.client.advisor.ToolCallAdvisor;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class ToolCallLoopConfiguration {
+    // innermost advisor, so only the model call is repeated for every tool round and not the advisors around it
+    private static final int TOOL_CALL_ADVISOR_ORDER = Ordered.LOWEST_PRECEDENCE - 50;
+
+    // the tool loop runs in the advisor chain instead of inside the chat model, so every Converse request
+    // passes the concurrency limiter on its own and no slot is held while tools run
+    @Bean
+    public ToolCallAdvisor toolCallAdvisor(ToolCallingManager toolCallingManager) {
+        return ToolCallAdvisor.builder()
+                .toolCallingManager(toolCallingManager)
+                .advisorOrder(TOOL_CALL_ADVISOR_ORDER)
+                .build();
+    }
+}
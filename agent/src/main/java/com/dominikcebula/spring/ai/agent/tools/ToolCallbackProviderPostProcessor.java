@@ -0,0 +1,38 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ToolCallbackProviderPostProcessor implements BeanPostProcessor {
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectProvider<ToolResultCache> toolResultCache;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ToolCallbackProviderPostProcessor(ApplicationEventPublisher applicationEventPublisher, ObjectProvider<ToolResultCache> toolResultCache, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.toolResultCache = toolResultCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ToolCallbackProvider toolCallbackProvider) {
+            return new DecoratedToolCallbackProvider(toolCallbackProvider, this::decorate);
+        }
+
+        return bean;
+    }
+
+    private ToolCallback decorate(ToolCallback toolCallback) {
+        ToolCallback timedToolCallback = new TimedToolCallback(toolCallback, meterRegistry.getObject());
+        ToolCallback cachingToolCallback = new CachingToolCallback(timedToolCallback, toolResultCache.getObject());
+        ToolCallback trackingToolCallback = new ToolUsageTrackingToolCallback(cachingToolCallback, applicationEventPublisher);
+        return new RecordingToolCallback(trackingToolCallback);
+    }
+}
@@ -0,0 +1,117 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class ToolResultCache {
+    private static final String METRIC_NAME = "agent.tools.cache.requests";
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<ToolCallKey, String> cache;
+    private final Map<TravelInventory, AtomicLong> inventoryVersions = new EnumMap<>(TravelInventory.class);
+
+    public ToolResultCache(
+            @Value("${agent.tools.cache.enabled:true}") boolean enabled,
+            @Value("${agent.tools.cache.time-to-live:5m}") Duration timeToLive,
+            @Value("${agent.tools.cache.maximum-size:1000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+
+        for (TravelInventory inventory : TravelInventory.values()) {
+            inventoryVersions.put(inventory, new AtomicLong());
+        }
+    }
+
+    // inventory is the same for every user and shared across conversations, bookings are only reused within the
+    // conversation that read them
+    public String call(String toolName, String toolInput, UUID conversationId, Supplier<String> toolCall) {
+        ToolAccess toolAccess = ToolAccess.of(toolName);
+        if (!enabled || !toolAccess.readOnly() || (toolAccess == ToolAccess.BOOKING_READ && conversationId == null)) {
+            return toolCall.get();
+        }
+
+        ToolCallKey toolCallKey = new ToolCallKey(toolAccess == ToolAccess.BOOKING_READ ? conversationId : null, toolName, canonicalize(toolInput));
+        String cachedResult = cache.getIfPresent(toolCallKey);
+        if (cachedResult != null) {
+            meterRegistry.counter(METRIC_NAME, "tool", toolName, "result", "hit").increment();
+            return cachedResult;
+        }
+        meterRegistry.counter(METRIC_NAME, "tool", toolName, "result", "miss").increment();
+
+        Optional<AtomicLong> inventoryVersion = TravelInventory.of(toolName).map(inventoryVersions::get);
+        long versionBeforeCall = inventoryVersion.map(AtomicLong::get).orElse(0L);
+
+        String toolResult = toolCall.get();
+
+        // a booking that completed during the call may already have changed the result
+        if (inventoryVersion.map(AtomicLong::get).orElse(0L) == versionBeforeCall) {
+            cache.put(toolCallKey, toolResult);
+        }
+
+        return toolResult;
+    }
+
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent inventoryChangedEvent) {
+        inventoryVersions.get(inventoryChangedEvent.inventory()).incrementAndGet();
+
+        List<ToolCallKey> affectedKeys = cache.asMap().keySet().stream()
+                .filter(toolCallKey -> TravelInventory.of(toolCallKey.toolName()).filter(inventoryChangedEvent.inventory()::equals).isPresent())
+                .toList();
+        cache.invalidateAll(affectedKeys);
+    }
+
+    // the model may order arguments differently or spell out optional ones as null between calls
+    String canonicalize(String toolInput) {
+        try {
+            return objectMapper.writeValueAsString(canonicalize(objectMapper.readValue(toolInput, Object.class)));
+        } catch (JsonProcessingException e) {
+            return toolInput;
+        }
+    }
+
+    private static Object canonicalize(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> canonicalMap = new TreeMap<>();
+            map.forEach((key, entryValue) -> {
+                if (entryValue != null) {
+                    canonicalMap.put(String.valueOf(key), canonicalize(entryValue));
+                }
+            });
+            return canonicalMap;
+        }
+        if (value instanceof List<?> list) {
+            return list.stream()
+                    .map(ToolResultCache::canonicalize)
+                    .toList();
+        }
+        return value;
+    }
+
+    private record ToolCallKey(UUID conversationId, String toolName, String canonicalArguments) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.dominikcebula.spring.ai.agent.memory.utils.ChatClientRequestUtils.findConversationId;
+
+public class ToolUsage {
+    public static final String TOOL_USAGE = "tool_usage";
+
+    private final UUID conversationId;
+    private final Set<String> toolNames = ConcurrentHashMap.newKeySet();
+
+    private ToolUsage(UUID conversationId) {
+        this.conversationId = conversationId;
+    }
+
+    public static Map<String, Object> toolContext(UUID conversationId) {
+        return Map.of(TOOL_USAGE, new ToolUsage(conversationId));
+    }
+
+    // tool calls run inside the chat model, the tool context is the only state that reaches them on every thread
+    public static ChatClientRequest attach(ChatClientRequest chatClientRequest) {
+        if (of(chatClientRequest).isPresent()
+                || !(chatClientRequest.prompt().getOptions() instanceof ToolCallingChatOptions chatOptions)) {
+            return chatClientRequest;
+        }
+
+        ToolCallingChatOptions chatOptionsWithToolUsage = (ToolCallingChatOptions) chatOptions.copy();
+        chatOptionsWithToolUsage.setToolContext(ToolCallingChatOptions.mergeToolContext(
+                toolContext(findConversationId(chatClientRequest).orElse(null)), Optional.ofNullable(chatOptions.getToolContext()).orElse(Map.of())));
+
+        return chatClientRequest.mutate()
+                .prompt(chatClientRequest.prompt().mutate().chatOptions(chatOptionsWithToolUsage).build())
+                .build();
+    }
+
+    public static Optional<ToolUsage> of(ChatClientRequest chatClientRequest) {
+        if (chatClientRequest.prompt().getOptions() instanceof ToolCallingChatOptions chatOptions
+                && chatOptions.getToolContext() != null
+                && chatOptions.getToolContext().get(TOOL_USAGE) instanceof ToolUsage toolUsage) {
+            return Optional.of(toolUsage);
+        }
+
+        return Optional.empty();
+    }
+
+    static Optional<ToolUsage> of(ToolContext toolContext) {
+        if (toolContext != null && toolContext.getContext().get(TOOL_USAGE) instanceof ToolUsage toolUsage) {
+            return Optional.of(toolUsage);
+        }
+
+        return Optional.empty();
+    }
+
+    // MCP tool callbacks forward the tool context as request metadata, which must stay serializable
+    static ToolContext detach(ToolContext toolContext) {
+        if (toolContext == null || !toolContext.getContext().containsKey(TOOL_USAGE)) {
+            return toolContext;
+        }
+
+        Map<String, Object> context = toolContext.getContext().entrySet().stream()
+                .filter(entry -> !TOOL_USAGE.equals(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        return context.isEmpty() ? null : new ToolContext(context);
+    }
+
+    Optional<UUID> conversationId() {
+        return Optional.ofNullable(conversationId);
+    }
+
+    void record(String toolName) {
+        toolNames.add(toolName);
+    }
+
+    public Set<String> toolNames() {
+        return Set.copyOf(toolNames);
+    }
+}
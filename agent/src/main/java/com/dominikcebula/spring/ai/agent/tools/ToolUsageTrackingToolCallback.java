@@ -0,0 +1,47 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class ToolUsageTrackingToolCallback implements ToolCallback {
+    private final ToolCallback delegate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ToolUsageTrackingToolCallback(ToolCallback delegate, ApplicationEventPublisher applicationEventPublisher) {
+        this.delegate = delegate;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        String toolName = getToolDefinition().name();
+        ToolUsage.of(toolContext).ifPresent(toolUsage -> toolUsage.record(toolName));
+
+        String toolResult = delegate.call(toolInput, toolContext);
+
+        if (!ToolAccess.of(toolName).readOnly()) {
+            TravelInventory.of(toolName)
+                    .ifPresent(inventory -> applicationEventPublisher.publishEvent(new InventoryChangedEvent(inventory, toolName)));
+        }
+
+        return toolResult;
+    }
+}
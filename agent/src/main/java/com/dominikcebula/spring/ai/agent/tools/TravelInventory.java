@@ -0,0 +1,26 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+public enum TravelInventory {
+    CARS(Set.of("car")),
+    FLIGHTS(Set.of("flight")),
+    HOTELS(Set.of("hotel", "room"));
+
+    private final Set<String> toolNameFragments;
+
+    TravelInventory(Set<String> toolNameFragments) {
+        this.toolNameFragments = toolNameFragments;
+    }
+
+    public static Optional<TravelInventory> of(String toolName) {
+        String normalizedToolName = toolName.toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(values())
+                .filter(inventory -> inventory.toolNameFragments.stream().anyMatch(normalizedToolName::contains))
+                .findFirst();
+    }
+}
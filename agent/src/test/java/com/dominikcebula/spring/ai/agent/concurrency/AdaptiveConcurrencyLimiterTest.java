@@ -0,0 +1,100 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final SdkServiceException THROTTLING = SdkServiceException.builder()
+            .statusCode(429)
+            .message("Too many requests, please wait before trying again.")
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldHalveLimitOnThrottlingAndGrowItBackAdditively() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = limiter(8, Duration.ofSeconds(1));
+
+        // when
+        limiter.acquire(CallPriority.INTERACTIVE).failure(new IllegalStateException("Converse call failed", THROTTLING));
+        double throttledLimit = limit();
+
+        for (int idx = 0; idx < 8; idx++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = List.of(
+                    limiter.acquire(CallPriority.INTERACTIVE), limiter.acquire(CallPriority.INTERACTIVE),
+                    limiter.acquire(CallPriority.INTERACTIVE), limiter.acquire(CallPriority.INTERACTIVE));
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+        }
+
+        // then
+        assertThat(throttledLimit).isEqualTo(4);
+        assertThat(limit()).isGreaterThan(5).isLessThan(8);
+    }
+
+    @Test
+    void shouldFailFastWhenNoSlotFreesUpInTime() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(50));
+        limiter.acquire(CallPriority.INTERACTIVE);
+
+        // when / then
+        assertThatThrownBy(() -> limiter.acquire(CallPriority.INTERACTIVE))
+                .isInstanceOf(ModelCallRejectedException.class);
+        assertThat(meterRegistry.counter("agent.model.concurrency.rejected", "model", "chat", "priority", "interactive", "reason", "timeout").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeQueuedInteractiveCallsBeforeBackgroundCalls() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(CallPriority.INTERACTIVE);
+        List<CallPriority> served = new CopyOnWriteArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Void> background = CompletableFuture.runAsync(() -> serve(limiter, CallPriority.BACKGROUND, served), executor);
+            await().until(() -> queued("background") == 1);
+            CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> serve(limiter, CallPriority.INTERACTIVE, served), executor);
+            await().until(() -> queued("interactive") == 1);
+
+            // when
+            permit.success();
+            CompletableFuture.allOf(background, interactive).join();
+        }
+
+        // then
+        assertThat(served).containsExactly(CallPriority.INTERACTIVE, CallPriority.BACKGROUND);
+    }
+
+    private static void serve(AdaptiveConcurrencyLimiter limiter, CallPriority priority, List<CallPriority> served) {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(priority);
+        served.add(priority);
+        permit.success();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, Duration maxWait) {
+        return AdaptiveConcurrencyLimiter.create("chat", new ConcurrencyLimiterSettings(
+                initialLimit, 1, 32, 10, maxWait, maxWait, 0.5, 100.0), meterRegistry);
+    }
+
+    private double limit() {
+        return meterRegistry.get("agent.model.concurrency.limit").gauge().value();
+    }
+
+    private double queued(String priority) {
+        return meterRegistry.get("agent.model.concurrency.queued").tag("priority", priority).gauge().value();
+    }
+}
@@ -0,0 +1,97 @@
+package com.dominikcebula.spring.ai.agent.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedChatModelTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChatModel delegate = mock(ChatModel.class);
+    private final ConcurrencyLimitedChatModel chatModel = new ConcurrencyLimitedChatModel(delegate, AdaptiveConcurrencyLimiter.create("chat",
+            new ConcurrencyLimiterSettings(8, 1, 32, 10, Duration.ofSeconds(1), Duration.ofSeconds(1), 0.5, 2.0), meterRegistry));
+
+    @Test
+    void shouldLowerLimitWhenSingleModelRequestSlowsDown() {
+        // given
+        Prompt prompt = prompt(ToolCallingChatOptions.builder()
+                .toolNames("getAllAvailableFlights")
+                .internalToolExecutionEnabled(false)
+                .build());
+        respondAfter(Duration.ofMillis(10));
+        chatModel.call(prompt);
+
+        // when
+        respondAfter(Duration.ofMillis(200));
+        chatModel.call(prompt);
+
+        // then
+        assertThat(limit()).isLessThan(8);
+    }
+
+    @Test
+    void shouldNotTakeToolTimeOfInternalToolLoopAsModelLatency() {
+        // given
+        Prompt prompt = prompt(ToolCallingChatOptions.builder()
+                .toolNames("getAllAvailableFlights")
+                .build());
+        respondAfter(Duration.ofMillis(10));
+        chatModel.call(prompt);
+
+        // when
+        respondAfter(Duration.ofMillis(200));
+        chatModel.call(prompt);
+
+        // then
+        assertThat(limit()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldSampleStreamLatencyUpToFirstChunk() {
+        // given
+        Prompt prompt = prompt(ToolCallingChatOptions.builder().build());
+        when(delegate.stream(any(Prompt.class))).thenReturn(Mono.delay(Duration.ofMillis(10)).map(ignored -> response()).flux());
+        chatModel.stream(prompt).blockLast();
+
+        // when
+        when(delegate.stream(any(Prompt.class))).thenReturn(Mono.delay(Duration.ofMillis(10)).map(ignored -> response())
+                .concatWith(Mono.delay(Duration.ofMillis(200)).map(ignored -> response())));
+        chatModel.stream(prompt).blockLast();
+
+        // then
+        assertThat(limit()).isEqualTo(8);
+    }
+
+    private void respondAfter(Duration duration) {
+        when(delegate.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Thread.sleep(duration);
+            return response();
+        });
+    }
+
+    private double limit() {
+        return meterRegistry.get("agent.model.concurrency.limit").gauge().value();
+    }
+
+    private static Prompt prompt(ToolCallingChatOptions options) {
+        return new Prompt("Find flights to Frankfurt", options);
+    }
+
+    private static ChatResponse response() {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage("Flights found"))));
+    }
+}
@@ -0,0 +1,220 @@
+package com.dominikcebula.spring.ai.agent.conversation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConversationTurnSequencerTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Test
+    void shouldRunTurnsOfOneConversationInArrivalOrder() throws Exception {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(10, Duration.ofSeconds(5), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+        CountDownLatch firstTurnStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstTurn = new CountDownLatch(1);
+        List<Integer> completedTurns = new CopyOnWriteArrayList<>();
+
+        // when
+        CompletableFuture<Void> firstTurn = CompletableFuture.runAsync(() -> sequencer.run(conversationId, () -> {
+            firstTurnStarted.countDown();
+            await(releaseFirstTurn);
+            return completedTurns.add(1);
+        }), executor);
+        firstTurnStarted.await();
+
+        List<CompletableFuture<Void>> laterTurns = new ArrayList<>();
+        for (int turn = 2; turn <= 5; turn++) {
+            int turnNumber = turn;
+            laterTurns.add(CompletableFuture.runAsync(() -> sequencer.run(conversationId, () -> completedTurns.add(turnNumber)), executor));
+            Thread.sleep(50);
+        }
+        releaseFirstTurn.countDown();
+        firstTurn.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(laterTurns.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(completedTurns).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void shouldNotBlockOtherConversations() throws Exception {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(10, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch releaseBusyTurn = new CountDownLatch(1);
+        CompletableFuture<Boolean> busyTurn = CompletableFuture.supplyAsync(() -> sequencer.run(UUID.randomUUID(), () -> await(releaseBusyTurn)), executor);
+
+        // when
+        String otherTurn = CompletableFuture.supplyAsync(() -> sequencer.run(UUID.randomUUID(), () -> "answered"), executor)
+                .get(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(otherTurn).isEqualTo("answered");
+        releaseBusyTurn.countDown();
+        busyTurn.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldRejectTurnWhenConversationQueueIsFull() throws Exception {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(1, Duration.ofSeconds(5), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+        CountDownLatch turnStarted = new CountDownLatch(1);
+        CountDownLatch releaseTurn = new CountDownLatch(1);
+        CompletableFuture<Boolean> runningTurn = CompletableFuture.supplyAsync(() -> sequencer.run(conversationId, () -> {
+            turnStarted.countDown();
+            return await(releaseTurn);
+        }), executor);
+        turnStarted.await();
+
+        // when / then
+        assertThatThrownBy(() -> sequencer.run(conversationId, () -> "double submit"))
+                .isInstanceOf(ConversationBusyException.class);
+        assertThat(meterRegistry.counter("agent.conversation.turns.rejected", "reason", "queue-full").count()).isEqualTo(1);
+
+        releaseTurn.countDown();
+        runningTurn.get(5, TimeUnit.SECONDS);
+        assertThat(sequencer.run(conversationId, () -> "next turn")).isEqualTo("next turn");
+    }
+
+    @Test
+    void shouldRejectTurnThatWaitedTooLong() throws Exception {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(2, Duration.ofMillis(100), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+        CountDownLatch turnStarted = new CountDownLatch(1);
+        CountDownLatch releaseTurn = new CountDownLatch(1);
+        CompletableFuture<Boolean> runningTurn = CompletableFuture.supplyAsync(() -> sequencer.run(conversationId, () -> {
+            turnStarted.countDown();
+            return await(releaseTurn);
+        }), executor);
+        turnStarted.await();
+
+        // when / then
+        assertThatThrownBy(() -> sequencer.run(conversationId, () -> "late turn"))
+                .isInstanceOf(ConversationBusyException.class);
+        assertThat(meterRegistry.counter("agent.conversation.turns.rejected", "reason", "timeout").count()).isEqualTo(1);
+
+        releaseTurn.countDown();
+        runningTurn.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldReleaseStreamedTurnWhenItCompletes() {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(2, Duration.ofMillis(500), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+
+        // when
+        List<String> streamedTurn = sequencer.stream(conversationId, () -> Flux.just("first", "turn")).collectList().block();
+
+        // then
+        assertThat(streamedTurn).containsExactly("first", "turn");
+        assertThat(sequencer.run(conversationId, () -> "next turn")).isEqualTo("next turn");
+    }
+
+    @Test
+    void shouldRejectStreamedTurnBeforeReturningItsStream() throws Exception {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(1, Duration.ofSeconds(1), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+        CountDownLatch turnStarted = new CountDownLatch(1);
+        CountDownLatch releaseTurn = new CountDownLatch(1);
+        CompletableFuture<Boolean> runningTurn = CompletableFuture.supplyAsync(() -> sequencer.run(conversationId, () -> {
+            turnStarted.countDown();
+            return await(releaseTurn);
+        }), executor);
+        turnStarted.await();
+
+        // when / then
+        assertThatThrownBy(() -> sequencer.stream(conversationId, () -> Flux.just("double submit")))
+                .isInstanceOf(ConversationBusyException.class);
+
+        releaseTurn.countDown();
+        runningTurn.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldWaitForPreviousTurnBeforeReturningStream() throws Exception {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(2, Duration.ofSeconds(5), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+        CountDownLatch turnStarted = new CountDownLatch(1);
+        CountDownLatch releaseTurn = new CountDownLatch(1);
+        CompletableFuture<Boolean> runningTurn = CompletableFuture.supplyAsync(() -> sequencer.run(conversationId, () -> {
+            turnStarted.countDown();
+            return await(releaseTurn);
+        }), executor);
+        turnStarted.await();
+
+        // when
+        CompletableFuture<Flux<String>> streamedTurn = CompletableFuture.supplyAsync(() -> sequencer.stream(conversationId, () -> Flux.just("second turn")), executor);
+        Thread.sleep(100);
+        boolean returnedWhileFirstTurnRan = streamedTurn.isDone();
+        releaseTurn.countDown();
+        runningTurn.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(returnedWhileFirstTurnRan).isFalse();
+        assertThat(streamedTurn.get(5, TimeUnit.SECONDS).collectList().block()).containsExactly("second turn");
+        assertThat(sequencer.run(conversationId, () -> "next turn")).isEqualTo("next turn");
+    }
+
+    @Test
+    void shouldReleaseStreamedTurnWhenCancelled() {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(1, Duration.ofMillis(200), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+        Disposable streamedTurn = sequencer.stream(conversationId, Flux::never).subscribe();
+
+        // when
+        streamedTurn.dispose();
+
+        // then
+        assertThat(sequencer.run(conversationId, () -> "next turn")).isEqualTo("next turn");
+    }
+
+    @Test
+    void shouldReleaseStreamedTurnsCancelledRightAfterSubscribing() {
+        // given
+        ConversationTurnSequencer sequencer = new ConversationTurnSequencer(1, Duration.ofMillis(200), meterRegistry);
+        UUID conversationId = UUID.randomUUID();
+
+        // when
+        for (int turn = 0; turn < 500; turn++) {
+            sequencer.stream(conversationId, Flux::never).subscribe().dispose();
+        }
+
+        // then
+        Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(meterRegistry.get("agent.conversation.turns.conversations").gauge().value()).isZero());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
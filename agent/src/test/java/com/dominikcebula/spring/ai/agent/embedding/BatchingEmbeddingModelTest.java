@@ -0,0 +1,136 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import com.dominikcebula.spring.ai.agent.concurrency.CallPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchingEmbeddingModelTest {
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(200);
+
+    private final StubEmbeddingModel delegate = new StubEmbeddingModel();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldEmbedConcurrentRequestsInOneBatch() throws Exception {
+        // given
+        BatchingEmbeddingModel embeddingModel = newEmbeddingModel(96);
+
+        // when
+        List<CompletableFuture<EmbeddingResponse>> responses = embedConcurrently(embeddingModel,
+                List.of("Flights to Frankfurt"), List.of("Hotels in Berlin", "Cars in Munich"), List.of("Trains to Vienna"));
+
+        // then
+        assertThat(delegate.requests).hasSize(1);
+        assertThat(delegate.requests.getFirst()).containsExactlyInAnyOrder("Flights to Frankfurt", "Hotels in Berlin", "Cars in Munich", "Trains to Vienna");
+        assertThat(responses.get(1).join().getResults())
+                .extracting(embedding -> embedding.getOutput())
+                .containsExactly(StubEmbeddingModel.embedding("Hotels in Berlin"), StubEmbeddingModel.embedding("Cars in Munich"));
+        assertThat(responses.get(0).join().getMetadata().getModel()).isEqualTo("stub-model");
+
+        embeddingModel.destroy();
+    }
+
+    @Test
+    void shouldSplitBatchesAtMaxBatchSize() throws Exception {
+        // given
+        BatchingEmbeddingModel embeddingModel = newEmbeddingModel(4);
+
+        // when
+        embedConcurrently(embeddingModel,
+                List.of("Flights to Frankfurt", "Flights to Berlin"),
+                List.of("Hotels in Berlin", "Hotels in Munich"),
+                List.of("Cars in Munich", "Cars in Vienna"));
+
+        // then
+        assertThat(delegate.requests)
+                .extracting(List::size)
+                .containsExactlyInAnyOrder(4, 2);
+
+        embeddingModel.destroy();
+    }
+
+    @Test
+    void shouldFailEveryCallerOfFailedBatch() throws Exception {
+        // given
+        BatchingEmbeddingModel embeddingModel = newEmbeddingModel(96);
+        delegate.failure = new IllegalStateException("Bedrock is unavailable");
+
+        // when
+        List<CompletableFuture<EmbeddingResponse>> responses = embedConcurrently(embeddingModel,
+                List.of("Flights to Frankfurt"), List.of("Hotels in Berlin"));
+
+        // then
+        assertThat(delegate.requests).hasSize(1);
+        responses.forEach(response -> assertThatThrownBy(response::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("Bedrock is unavailable"));
+
+        embeddingModel.destroy();
+    }
+
+    @Test
+    void shouldDispatchBatchAtPriorityOfItsMostUrgentCaller() throws Exception {
+        // given
+        List<CallPriority> dispatchPriorities = new CopyOnWriteArrayList<>();
+        BatchingEmbeddingModel embeddingModel = new BatchingEmbeddingModel(new StubEmbeddingModel() {
+            @Override
+            public EmbeddingResponse call(EmbeddingRequest request) {
+                dispatchPriorities.add(CallPriority.current());
+                return super.call(request);
+            }
+        }, 96, BATCH_WINDOW, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        // when
+        CompletableFuture<EmbeddingResponse> backgroundCall = CompletableFuture.supplyAsync(() -> CallPriority.BACKGROUND
+                .run(() -> embeddingModel.call(new EmbeddingRequest(List.of("User prefers aisle seats"), null))), callers);
+        CompletableFuture<EmbeddingResponse> interactiveCall = CompletableFuture.supplyAsync(() ->
+                embeddingModel.call(new EmbeddingRequest(List.of("Flights to Frankfurt"), null)), callers);
+        CompletableFuture.allOf(backgroundCall, interactiveCall).join();
+
+        CallPriority.BACKGROUND.run(() -> embeddingModel.call(new EmbeddingRequest(List.of("User prefers budget hotels"), null)));
+
+        // then
+        assertThat(dispatchPriorities).containsExactly(CallPriority.INTERACTIVE, CallPriority.BACKGROUND);
+
+        embeddingModel.destroy();
+    }
+
+    private BatchingEmbeddingModel newEmbeddingModel(int maxBatchSize) {
+        return new BatchingEmbeddingModel(delegate, maxBatchSize, BATCH_WINDOW, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @SafeVarargs
+    private List<CompletableFuture<EmbeddingResponse>> embedConcurrently(BatchingEmbeddingModel embeddingModel, List<String>... requests) {
+        List<CompletableFuture<EmbeddingResponse>> responses = new ArrayList<>();
+        for (List<String> texts : requests) {
+            responses.add(CompletableFuture.supplyAsync(() -> embeddingModel.call(new EmbeddingRequest(texts, null)), callers));
+        }
+
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+                .exceptionally(failure -> null)
+                .join();
+
+        return responses;
+    }
+}
@@ -0,0 +1,84 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class CachingEmbeddingModelTest {
+    private static final String MODEL_ID = CachingEmbeddingModel.modelId("cohere.embed-multilingual-v3", "SEARCH_DOCUMENT", "NONE");
+
+    private final StubEmbeddingModel delegate = new StubEmbeddingModel();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldDeriveModelIdFromModelAndVectorShapingOptions() {
+        // when / then
+        assertThat(MODEL_ID).isEqualTo("cohere.embed-multilingual-v3/search_document/none");
+        assertThat(CachingEmbeddingModel.modelId("cohere.embed-english-v3", "SEARCH_DOCUMENT", "NONE")).isNotEqualTo(MODEL_ID);
+        assertThat(CachingEmbeddingModel.modelId("cohere.embed-multilingual-v3", "SEARCH_QUERY", "NONE")).isNotEqualTo(MODEL_ID);
+    }
+
+    @Test
+    void shouldEmbedOnlyTextsMissingFromCache() {
+        // given
+        CachingEmbeddingModel embeddingModel = newEmbeddingModel(100);
+        embeddingModel.embed(List.of("Flights to Frankfurt", "Hotels in Berlin"));
+
+        // when
+        List<float[]> embeddings = embeddingModel.embed(List.of("Hotels in Berlin", "Cars in Munich"));
+
+        // then
+        assertThat(delegate.requests).containsExactly(
+                List.of("Flights to Frankfurt", "Hotels in Berlin"),
+                List.of("Cars in Munich"));
+        assertThat(embeddings).containsExactly(
+                StubEmbeddingModel.embedding("Hotels in Berlin"),
+                StubEmbeddingModel.embedding("Cars in Munich"));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "embeddings").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "embeddings").tag("result", "miss").functionCounter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepEmbeddingsOfDifferentModelsApart() {
+        // given
+        CachingEmbeddingModel embeddingModel = newEmbeddingModel(100);
+        embeddingModel.embed("Flights to Frankfurt");
+
+        // when
+        EmbeddingResponse response = embeddingModel.call(new EmbeddingRequest(List.of("Flights to Frankfurt"),
+                EmbeddingOptions.builder().model("cohere.embed-english-v3").build()));
+        embeddingModel.embed("Flights to Frankfurt");
+
+        // then
+        assertThat(response.getResult().getOutput()).isEqualTo(StubEmbeddingModel.embedding("Flights to Frankfurt"));
+        assertThat(delegate.requests).hasSize(2);
+    }
+
+    @Test
+    void shouldReportEvictionsOfBoundedCache() {
+        // given
+        CachingEmbeddingModel embeddingModel = newEmbeddingModel(1);
+
+        // when
+        embeddingModel.embed("Flights to Frankfurt");
+        embeddingModel.embed("Hotels in Berlin");
+        embeddingModel.embed("Cars in Munich");
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(meterRegistry.get("cache.evictions").tag("cache", "embeddings").functionCounter().count()).isGreaterThanOrEqualTo(1));
+    }
+
+    private CachingEmbeddingModel newEmbeddingModel(long maximumSize) {
+        return new CachingEmbeddingModel(delegate, MODEL_ID, maximumSize, Duration.ofHours(1), meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.dominikcebula.spring.ai.agent.embedding;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class StubEmbeddingModel implements EmbeddingModel {
+    final List<List<String>> requests = new CopyOnWriteArrayList<>();
+    volatile RuntimeException failure;
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        requests.add(request.getInstructions());
+        if (failure != null) {
+            throw failure;
+        }
+
+        List<Embedding> embeddings = new ArrayList<>();
+        for (int idx = 0; idx < request.getInstructions().size(); idx++) {
+            embeddings.add(new Embedding(embedding(request.getInstructions().get(idx)), idx));
+        }
+        return new EmbeddingResponse(embeddings, new EmbeddingResponseMetadata("stub-model", null));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return 2;
+    }
+
+    static float[] embedding(String text) {
+        return new float[]{text.length(), text.hashCode()};
+    }
+}
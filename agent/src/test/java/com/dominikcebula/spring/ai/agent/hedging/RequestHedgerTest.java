@@ -0,0 +1,117 @@
+package com.dominikcebula.spring.ai.agent.hedging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class RequestHedgerTest {
+    private static final int WARM_UP_REQUESTS = 20;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldReturnHedgeThatFinishedFirstAndCancelSlowPrimary() {
+        // given
+        try (RequestHedger requestHedger = requestHedger(1.0)) {
+            warmUp(requestHedger);
+
+            AtomicInteger attempts = new AtomicInteger();
+            AtomicBoolean primaryInterrupted = new AtomicBoolean();
+
+            // when
+            String result = requestHedger.call(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    sleep(Duration.ofSeconds(5), primaryInterrupted);
+                    return "primary";
+                }
+                return "hedge";
+            });
+
+            // then
+            assertThat(result).isEqualTo("hedge");
+            assertThat(attempts).hasValue(2);
+            assertThat(counter("agent.hedging.hedges")).isEqualTo(1);
+            assertThat(counter("agent.hedging.hedge-wins")).isEqualTo(1);
+            await().atMost(Duration.ofSeconds(1)).untilTrue(primaryInterrupted);
+        }
+    }
+
+    @Test
+    void shouldStopHedgingOnceBudgetIsSpent() {
+        // given
+        try (RequestHedger requestHedger = requestHedger(0.25)) {
+            warmUp(requestHedger);
+
+            // when
+            IntStream.range(0, 10).forEach(idx -> requestHedger.call(() -> {
+                sleep(Duration.ofMillis(100), new AtomicBoolean());
+                return "result";
+            }));
+
+            // then
+            assertThat(counter("agent.hedging.requests")).isEqualTo(WARM_UP_REQUESTS + 10);
+            assertThat(counter("agent.hedging.hedges")).isEqualTo(7);
+            assertThat(counter("agent.hedging.budget-exhausted")).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void shouldKeepHedgeDelayWhenHedgesKeepWinning() {
+        // given
+        try (RequestHedger requestHedger = new RequestHedger("test", true, 0.5, Duration.ofMillis(20), 1.0, 100, meterRegistry)) {
+            IntStream.range(0, WARM_UP_REQUESTS).forEach(idx -> requestHedger.call(() -> {
+                sleep(Duration.ofMillis(50), new AtomicBoolean());
+                return "warm-up";
+            }));
+
+            // when
+            IntStream.range(0, 30).forEach(idx -> {
+                AtomicInteger attempts = new AtomicInteger();
+                requestHedger.call(() -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        AtomicBoolean interrupted = new AtomicBoolean();
+                        sleep(Duration.ofSeconds(1), interrupted);
+                        if (interrupted.get()) {
+                            throw new IllegalStateException("Primary attempt cancelled");
+                        }
+                        return "primary";
+                    }
+                    return "hedge";
+                });
+            });
+
+            // then
+            assertThat(counter("agent.hedging.hedge-wins")).isEqualTo(30);
+            assertThat(meterRegistry.get("agent.hedging.delay").gauge().value()).isGreaterThanOrEqualTo(0.045);
+        }
+    }
+
+    private RequestHedger requestHedger(double budget) {
+        return new RequestHedger("test", true, 0.5, Duration.ofMillis(20), budget, 1000, meterRegistry);
+    }
+
+    private static void warmUp(RequestHedger requestHedger) {
+        IntStream.range(0, WARM_UP_REQUESTS).forEach(idx -> requestHedger.call(() -> "warm-up"));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name, "operation", "test").count();
+    }
+
+    private static void sleep(Duration duration, AtomicBoolean interrupted) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            interrupted.set(true);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
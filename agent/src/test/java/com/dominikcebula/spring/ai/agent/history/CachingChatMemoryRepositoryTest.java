@@ -0,0 +1,102 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.dominikcebula.spring.ai.agent.history.AppendOnlyChatMemoryRepository.MESSAGE_SEQUENCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingChatMemoryRepositoryTest {
+    private static final String CONVERSATION_ID = "4b7f0a5e-4f4a-4a8e-9a57-2f1b3c0d9e61";
+
+    private final MongoAppendOnlyChatMemoryRepository delegate = mock(MongoAppendOnlyChatMemoryRepository.class);
+    private final CachingChatMemoryRepository repository = new CachingChatMemoryRepository(
+            delegate, 200, 100, Duration.ofMinutes(30), new SimpleMeterRegistry());
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        // given
+        when(delegate.findByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1, "Find flights to Berlin")));
+
+        // when
+        repository.findByConversationId(CONVERSATION_ID);
+        List<Message> messages = repository.findByConversationId(CONVERSATION_ID);
+
+        // then
+        assertThat(messages).extracting(Message::getText).containsExactly("Find flights to Berlin");
+        verify(delegate, times(1)).findByConversationId(CONVERSATION_ID);
+    }
+
+    @Test
+    void shouldWriteOnlyDeltaAndExtendCachedConversation() {
+        // given
+        when(delegate.findByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1, "Find flights to Berlin")));
+        repository.findByConversationId(CONVERSATION_ID);
+        List<Message> delta = List.of(new AssistantMessage("Here are three flights to Berlin"));
+        when(delegate.append(CONVERSATION_ID, delta)).thenReturn(List.of(assistant(2, "Here are three flights to Berlin")));
+
+        // when
+        repository.append(CONVERSATION_ID, delta);
+
+        // then
+        verify(delegate).append(CONVERSATION_ID, delta);
+        assertThat(repository.findByConversationId(CONVERSATION_ID))
+                .extracting(Message::getText)
+                .containsExactly("Find flights to Berlin", "Here are three flights to Berlin");
+        verify(delegate, times(1)).findByConversationId(CONVERSATION_ID);
+    }
+
+    @Test
+    void shouldReloadConversationWhenAppendsArriveOutOfOrder() {
+        // given
+        when(delegate.findByConversationId(CONVERSATION_ID)).thenReturn(List.of(user(1, "Find flights to Berlin")));
+        repository.findByConversationId(CONVERSATION_ID);
+        List<Message> delta = List.of(new UserMessage("Book the cheapest one"));
+        when(delegate.append(CONVERSATION_ID, delta)).thenReturn(List.of(user(3, "Book the cheapest one")));
+
+        // when
+        repository.append(CONVERSATION_ID, delta);
+        repository.findByConversationId(CONVERSATION_ID);
+
+        // then
+        verify(delegate, times(2)).findByConversationId(CONVERSATION_ID);
+    }
+
+    @Test
+    void shouldDropSummarizedMessagesFromCachedConversation() {
+        // given
+        when(delegate.findByConversationId(CONVERSATION_ID)).thenReturn(List.of(
+                user(1, "Find flights to Berlin"),
+                assistant(2, "Here are three flights to Berlin"),
+                user(3, "Book the cheapest one")));
+        repository.findByConversationId(CONVERSATION_ID);
+
+        // when
+        repository.deleteUpTo(CONVERSATION_ID, 2);
+
+        // then
+        verify(delegate).deleteUpTo(CONVERSATION_ID, 2);
+        assertThat(repository.findByConversationId(CONVERSATION_ID))
+                .extracting(Message::getText)
+                .containsExactly("Book the cheapest one");
+    }
+
+    private static Message user(long sequence, String text) {
+        return UserMessage.builder().text(text).metadata(Map.of(MESSAGE_SEQUENCE, sequence)).build();
+    }
+
+    private static Message assistant(long sequence, String text) {
+        return AssistantMessage.builder().content(text).properties(Map.of(MESSAGE_SEQUENCE, sequence)).build();
+    }
+}
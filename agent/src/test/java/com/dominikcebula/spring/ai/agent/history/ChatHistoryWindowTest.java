@@ -0,0 +1,81 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.content.MediaContent;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatHistoryWindowTest {
+    private static final TokenCountEstimator WORD_COUNT_ESTIMATOR = new TokenCountEstimator() {
+        @Override
+        public int estimate(String text) {
+            return text.isBlank() ? 0 : text.split("\\s+").length;
+        }
+
+        @Override
+        public int estimate(MediaContent content) {
+            return estimate(content.getText());
+        }
+
+        @Override
+        public int estimate(Iterable<MediaContent> messages) {
+            int tokens = 0;
+            for (MediaContent message : messages) {
+                tokens += estimate(message);
+            }
+            return tokens;
+        }
+    };
+
+    private final List<Message> messages = List.of(
+            new UserMessage("Find flights to Berlin"),
+            new AssistantMessage("Here are three flights to Berlin"),
+            new UserMessage("Book the cheapest one"),
+            new AssistantMessage("Booked flight LH123"),
+            new UserMessage("Now find a hotel"),
+            new AssistantMessage("Here are two hotels"));
+
+    @Test
+    void shouldKeepOnlyLastTurnsVerbatim() {
+        // when
+        ChatHistoryWindow window = ChatHistoryWindow.of(messages, 2, 1_000, WORD_COUNT_ESTIMATOR);
+
+        // then
+        assertThat(window.summarizableMessages()).isEqualTo(messages.subList(0, 2));
+        assertThat(window.verbatimMessages()).isEqualTo(messages.subList(2, 6));
+    }
+
+    @Test
+    void shouldSummarizeTurnsThatDoNotFitTokenBudget() {
+        // when
+        ChatHistoryWindow window = ChatHistoryWindow.of(messages, 10, 15, WORD_COUNT_ESTIMATOR);
+
+        // then
+        assertThat(window.summarizableMessages()).isEqualTo(messages.subList(0, 2));
+        assertThat(window.verbatimMessages()).isEqualTo(messages.subList(2, 6));
+    }
+
+    @Test
+    void shouldKeepLatestTurnEvenIfItExceedsTokenBudget() {
+        // when
+        ChatHistoryWindow window = ChatHistoryWindow.of(messages, 10, 1, WORD_COUNT_ESTIMATOR);
+
+        // then
+        assertThat(window.verbatimMessages()).isEqualTo(messages.subList(4, 6));
+    }
+
+    @Test
+    void shouldNotSummarizeShortConversation() {
+        // when
+        ChatHistoryWindow window = ChatHistoryWindow.of(messages.subList(0, 2), 4, 1_000, WORD_COUNT_ESTIMATOR);
+
+        // then
+        assertThat(window.hasSummarizableMessages()).isFalse();
+    }
+}
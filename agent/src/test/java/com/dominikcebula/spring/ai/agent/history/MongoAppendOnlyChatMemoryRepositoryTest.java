@@ -0,0 +1,218 @@
+package com.dominikcebula.spring.ai.agent.history;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.dominikcebula.spring.ai.agent.history.AppendOnlyChatMemoryRepository.MESSAGE_SEQUENCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoAppendOnlyChatMemoryRepositoryTest {
+    private static final String CONVERSATION_ID = "4b7f0a5e-4f4a-4a8e-9a57-2f1b3c0d9e61";
+    private static final String MESSAGES_COLLECTION = "ai_chat_memory_messages";
+    private static final String SEQUENCES_COLLECTION = "ai_chat_memory_sequences";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MongoAppendOnlyChatMemoryRepository repository = new MongoAppendOnlyChatMemoryRepository(mongoTemplate, 200, 3, meterRegistry);
+
+    // the sequence document of the conversation, kept in memory and updated the way MongoDB would
+    private Document sequenceDocument;
+    private Consumer<Query> onRemoveMessages = query -> {
+    };
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(Document.class), eq(SEQUENCES_COLLECTION)))
+                .thenAnswer(invocation -> {
+                    if (sequenceDocument == null) {
+                        sequenceDocument = new Document("_id", CONVERSATION_ID);
+                    }
+                    apply(invocation.getArgument(1));
+                    return new Document(sequenceDocument);
+                });
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), eq(Document.class), eq(SEQUENCES_COLLECTION)))
+                .thenAnswer(invocation -> {
+                    Document previous = sequenceDocument == null ? null : new Document(sequenceDocument);
+                    if (sequenceDocument != null) {
+                        apply(invocation.getArgument(1));
+                    }
+                    return previous;
+                });
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(SEQUENCES_COLLECTION)))
+                .thenAnswer(invocation -> {
+                    boolean matches = matches(invocation.getArgument(0));
+                    if (matches) {
+                        apply(invocation.getArgument(1));
+                    }
+                    return UpdateResult.acknowledged(matches ? 1 : 0, matches ? 1L : 0L, null);
+                });
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(SEQUENCES_COLLECTION)))
+                .thenAnswer(invocation -> sequenceDocument != null && Boolean.TRUE.equals(sequenceDocument.get("trimPending"))
+                        ? List.of(new Document(sequenceDocument))
+                        : List.of());
+        when(mongoTemplate.remove(any(Query.class), eq(MESSAGES_COLLECTION)))
+                .thenAnswer(invocation -> {
+                    onRemoveMessages.accept(invocation.getArgument(0));
+                    return DeleteResult.acknowledged(1);
+                });
+    }
+
+    @Test
+    void shouldAppendMessagesInOrderWithConsecutiveSequences() {
+        // given
+        List<Message> firstTurn = List.of(new UserMessage("Find flights to Berlin"), new AssistantMessage("Here are three flights to Berlin"));
+        List<Message> secondTurn = List.of(new UserMessage("Book the cheapest one"), new AssistantMessage("Booked LH 123"));
+
+        // when
+        List<Message> firstAppended = repository.append(CONVERSATION_ID, firstTurn);
+        List<Message> secondAppended = repository.append(CONVERSATION_ID, secondTurn);
+
+        // then
+        assertThat(firstAppended).extracting(Message::getText)
+                .containsExactly("Find flights to Berlin", "Here are three flights to Berlin");
+        assertThat(firstAppended).extracting(message -> message.getMetadata().get(MESSAGE_SEQUENCE)).containsExactly(1L, 2L);
+        assertThat(secondAppended).extracting(Message::getText)
+                .containsExactly("Book the cheapest one", "Booked LH 123");
+        assertThat(secondAppended).extracting(message -> message.getMetadata().get(MESSAGE_SEQUENCE)).containsExactly(3L, 4L);
+
+        assertThat(insertedDocuments()).extracting(document -> document.get("sequence")).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(insertedDocuments()).extracting(document -> document.get("type")).containsExactly("USER", "ASSISTANT", "USER", "ASSISTANT");
+        assertThat(sequenceDocument.get("trimPending")).isEqualTo(true);
+    }
+
+    @Test
+    void shouldResumeTrimmingFromLastTrimmedSequence() {
+        // given
+        repository.append(CONVERSATION_ID, messages(5));
+        repository.trimConversations();
+        repository.append(CONVERSATION_ID, messages(3));
+
+        // when
+        repository.trimConversations();
+
+        // then
+        assertThat(removedSequenceRanges()).containsExactly(
+                Map.of("$gt", 0L, "$lte", 2L),
+                Map.of("$gt", 2L, "$lte", 5L));
+        assertThat(sequenceDocument.get("trimmedTo")).isEqualTo(5L);
+        assertThat(sequenceDocument.containsKey("trimPending")).isFalse();
+        assertThat(meterRegistry.counter("agent.history.repository.trimmed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepTrimPendingWhenMessagesAreAppendedDuringTrim() {
+        // given
+        repository.append(CONVERSATION_ID, messages(5));
+        onRemoveMessages = query -> {
+            onRemoveMessages = ignored -> {
+            };
+            repository.append(CONVERSATION_ID, messages(2));
+        };
+
+        // when
+        repository.trimConversations();
+
+        // then
+        assertThat(sequenceDocument.get("trimmedTo")).isEqualTo(2L);
+        assertThat(sequenceDocument.get("trimPending")).isEqualTo(true);
+
+        repository.trimConversations();
+        assertThat(removedSequenceRanges()).last().isEqualTo(Map.of("$gt", 2L, "$lte", 4L));
+        assertThat(sequenceDocument.containsKey("trimPending")).isFalse();
+    }
+
+    @Test
+    void shouldResetTrimmingWhenConversationIsReplaced() {
+        // given
+        repository.append(CONVERSATION_ID, messages(5));
+        repository.trimConversations();
+        repository.append(CONVERSATION_ID, messages(3));
+
+        // when
+        repository.saveAll(CONVERSATION_ID, messages(2));
+
+        // then
+        assertThat(sequenceDocument.get("sequence")).isEqualTo(10L);
+        assertThat(sequenceDocument.get("trimmedTo")).isEqualTo(8L);
+        assertThat(sequenceDocument.containsKey("trimPending")).isFalse();
+        assertThat(insertedDocuments()).extracting(document -> document.get("sequence")).endsWith(9L, 10L);
+    }
+
+    private List<Document> insertedDocuments() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Document>> inserts = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, atLeastOnce()).insert(inserts.capture(), eq(MESSAGES_COLLECTION));
+        return inserts.getAllValues().stream().flatMap(Collection::stream).toList();
+    }
+
+    private List<Object> removedSequenceRanges() {
+        ArgumentCaptor<Query> removals = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce()).remove(removals.capture(), eq(MESSAGES_COLLECTION));
+        return removals.getAllValues().stream()
+                .map(query -> query.getQueryObject().get("sequence"))
+                .filter(Document.class::isInstance)
+                .map(range -> (Object) Map.copyOf((Document) range))
+                .toList();
+    }
+
+    private static List<Message> messages(int count) {
+        List<Message> messages = new ArrayList<>();
+        for (int idx = 0; idx < count; idx++) {
+            messages.add(new UserMessage("Message " + idx));
+        }
+        return messages;
+    }
+
+    private boolean matches(Query query) {
+        return sequenceDocument != null && query.getQueryObject().entrySet().stream()
+                .allMatch(criteria -> sameValue(sequenceDocument.get(criteria.getKey()), criteria.getValue()));
+    }
+
+    private void apply(UpdateDefinition update) {
+        Document updateObject = update.getUpdateObject();
+        updateObject.get("$inc", new Document()).forEach((field, increment) ->
+                sequenceDocument.put(field, asLong(sequenceDocument.get(field)) + asLong(increment)));
+        updateObject.get("$set", new Document()).forEach(sequenceDocument::put);
+        updateObject.get("$max", new Document()).forEach((field, value) -> {
+            if (!sequenceDocument.containsKey(field) || asLong(value) > asLong(sequenceDocument.get(field))) {
+                sequenceDocument.put(field, asLong(value));
+            }
+        });
+        updateObject.get("$unset", new Document()).keySet().forEach(sequenceDocument::remove);
+    }
+
+    private static boolean sameValue(Object actual, Object expected) {
+        return actual instanceof Number && expected instanceof Number
+                ? asLong(actual) == asLong(expected)
+                : expected.equals(actual);
+    }
+
+    private static long asLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
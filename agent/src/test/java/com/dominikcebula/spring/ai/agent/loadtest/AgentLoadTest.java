@@ -0,0 +1,62 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@Tag("load-test")
+@ActiveProfiles("load-test")
+@Import(LoadTestConfiguration.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+class AgentLoadTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentLoadTest.class);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Value("${load-test.prompts}")
+    private Path prompts;
+
+    @Value("${load-test.concurrency}")
+    private int concurrency;
+
+    @Value("${load-test.conversations}")
+    private int conversations;
+
+    @Value("${load-test.warmup-conversations}")
+    private int warmupConversations;
+
+    @Test
+    void shouldReplayPromptScenariosWithoutErrors() throws IOException {
+        // given
+        List<LoadTestScenario> scenarios = LoadTestScenario.fromPrompts(prompts);
+        LoadTestDriver loadTestDriver = new LoadTestDriver(restTemplate, concurrency);
+        loadTestDriver.run(scenarios.getLast(), warmupConversations);
+
+        // when
+        List<LoadTestReport> reports = scenarios.stream()
+                .map(scenario -> loadTestDriver.run(scenario, conversations))
+                .toList();
+
+        // then
+        LOGGER.info("Load test with {} conversations per scenario, {} at a time", conversations, concurrency);
+        LOGGER.info(LoadTestReport.header());
+        reports.forEach(report -> LOGGER.info(report.row()));
+
+        assertThat(reports).allSatisfy(report -> assertThat(report.errors()).isZero());
+    }
+}
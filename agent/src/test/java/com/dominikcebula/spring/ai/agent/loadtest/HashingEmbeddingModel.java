@@ -0,0 +1,80 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+class HashingEmbeddingModel implements EmbeddingModel {
+    private final int dimensions;
+    private final Duration latency;
+
+    HashingEmbeddingModel(int dimensions, Duration latency) {
+        this.dimensions = dimensions;
+        this.latency = latency;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        sleep();
+
+        List<Embedding> embeddings = new ArrayList<>(request.getInstructions().size());
+        for (int idx = 0; idx < request.getInstructions().size(); idx++) {
+            embeddings.add(new Embedding(embed(request.getInstructions().get(idx)), idx));
+        }
+
+        return new EmbeddingResponse(embeddings);
+    }
+
+    // every word lands in a hashed bucket, so texts sharing words stay close the way real embeddings do
+    @Override
+    public float[] embed(String text) {
+        float[] embedding = new float[dimensions];
+
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            int hash = word.hashCode() * 0x9E3779B1;
+            embedding[Math.floorMod(hash, dimensions)] += (hash >>> 31) == 0 ? 1 : -1;
+        }
+
+        double norm = 0;
+        for (float value : embedding) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int idx = 0; idx < dimensions; idx++) {
+                embedding[idx] *= scale;
+            }
+        }
+
+        return embedding;
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Embedding call was interrupted", e);
+        }
+    }
+}
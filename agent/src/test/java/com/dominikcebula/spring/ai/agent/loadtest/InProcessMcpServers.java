@@ -0,0 +1,91 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+class InProcessMcpServers implements ToolCallbackProvider {
+    private static final String CITY_SCHEMA = """
+            {"type":"object","properties":{"city":{"type":"string"}}}""";
+    private static final String BOOKING_SCHEMA = """
+            {"type":"object","properties":{"request":{"type":"object"}},"required":["request"]}""";
+
+    private final Duration latency;
+    private final AtomicLong bookingReferences = new AtomicLong();
+    private final ToolCallback[] toolCallbacks;
+
+    // stand-ins for the flights, hotels and cars MCP servers, answering with canned payloads of a realistic size
+    InProcessMcpServers(Duration latency) {
+        this.latency = latency;
+        this.toolCallbacks = new ToolCallback[]{
+                readTool("getAllAvailableFlights", "Get all available flights, optionally filtered by departure and/or arrival airport", """
+                        {"type":"object","properties":{"departure":{"type":"string"},"arrival":{"type":"string"}}}""", """
+                        [{"flightNumber":"LH1623","airlineCode":"LH","departureAirportCode":"KRK","arrivalAirportCode":"FRA","departureTime":"06:05","price":189.00},\
+                        {"flightNumber":"LH1365","airlineCode":"LH","departureAirportCode":"KRK","arrivalAirportCode":"FRA","departureTime":"13:40","price":214.00},\
+                        {"flightNumber":"FR2081","airlineCode":"FR","departureAirportCode":"KRK","arrivalAirportCode":"FRA","departureTime":"18:15","price":79.00}]"""),
+                readTool("getAllAvailableHotels", "Get all available hotels", "{\"type\":\"object\"}", """
+                        [{"id":"H1","name":"Frankfurt Hauptbahnhof Grand Hotel","city":"Frankfurt"},{"id":"H2","name":"Main Riverside Hotel","city":"Frankfurt"}]"""),
+                readTool("searchForAvailableRooms", "Search for hotels with available rooms", CITY_SCHEMA, """
+                        [{"hotel":{"id":"H1","name":"Frankfurt Hauptbahnhof Grand Hotel"},"rooms":[{"id":"R1","type":"SINGLE","pricePerNight":129.00},{"id":"R2","type":"DOUBLE","pricePerNight":169.00}]}]"""),
+                readTool("searchForAvailableCarsForRent", "Search for car rental locations with available cars", CITY_SCHEMA, """
+                        [{"location":{"id":"L1","name":"Frankfurt Airport, Terminal 1"},"cars":[{"id":"C1","model":"BMW 5 Series","pricePerDay":95.00},{"id":"C2","model":"VW Golf","pricePerDay":49.00}]}]"""),
+                bookingTool("createFlightBooking", "Create a new flight booking", "FL"),
+                bookingTool("createHotelBooking", "Create a new hotel booking", "HT"),
+                bookingTool("createCarRentalBooking", "Create a new car rental booking", "CR")
+        };
+    }
+
+    @Override
+    public ToolCallback[] getToolCallbacks() {
+        return toolCallbacks;
+    }
+
+    private ToolCallback readTool(String name, String description, String inputSchema, String result) {
+        return new StubToolCallback(toolDefinition(name, description, inputSchema), () -> result);
+    }
+
+    private ToolCallback bookingTool(String name, String description, String referencePrefix) {
+        return new StubToolCallback(toolDefinition(name, description, BOOKING_SCHEMA),
+                () -> "{\"bookingReference\":\"" + referencePrefix + "-" + bookingReferences.incrementAndGet() + "\",\"status\":\"CONFIRMED\"}");
+    }
+
+    private static ToolDefinition toolDefinition(String name, String description, String inputSchema) {
+        return DefaultToolDefinition.builder()
+                .name(name)
+                .description(description)
+                .inputSchema(inputSchema)
+                .build();
+    }
+
+    private class StubToolCallback implements ToolCallback {
+        private final ToolDefinition toolDefinition;
+        private final Supplier<String> result;
+
+        StubToolCallback(ToolDefinition toolDefinition, Supplier<String> result) {
+            this.toolDefinition = toolDefinition;
+            this.result = result;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return toolDefinition;
+        }
+
+        @Override
+        public String call(String toolInput) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Tool call was interrupted", e);
+            }
+
+            return result.get();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+@TestConfiguration
+class LoadTestConfiguration {
+    @Bean
+    ChatModel scriptedChatModel(
+            ObjectProvider<ToolCallingManager> toolCallingManager,
+            @Value("${load-test.model-latency}") Duration latency) {
+        return new ScriptedChatModel(toolCallingManager::getObject, latency);
+    }
+
+    @Bean
+    EmbeddingModel hashingEmbeddingModel(
+            @Value("${load-test.embedding-dimensions}") int dimensions,
+            @Value("${load-test.embedding-latency}") Duration latency) {
+        return new HashingEmbeddingModel(dimensions, latency);
+    }
+
+    @Bean
+    ToolCallbackProvider inProcessMcpServers(@Value("${load-test.tool-latency}") Duration latency) {
+        return new InProcessMcpServers(latency);
+    }
+}
@@ -0,0 +1,71 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LoadTestDriver {
+    private static final String AGENT_URL = "/api/v1/agent?userInput={userInput}&conversationId={conversationId}";
+
+    private final TestRestTemplate restTemplate;
+    private final int concurrency;
+
+    LoadTestDriver(TestRestTemplate restTemplate, int concurrency) {
+        this.restTemplate = restTemplate;
+        this.concurrency = concurrency;
+    }
+
+    // the server runs in the same JVM, so the allocation rate covers the agent and the driver together
+    LoadTestReport run(LoadTestScenario scenario, int conversations) {
+        ConcurrentLinkedQueue<Long> latencyNanos = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+
+        long allocatedBytesBefore = allocatedBytes();
+        long startedAt = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            for (int idx = 0; idx < conversations; idx++) {
+                executor.execute(() -> replay(scenario, latencyNanos, errors));
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        long allocatedBytes = allocatedBytes() - allocatedBytesBefore;
+
+        return LoadTestReport.of(
+                scenario.name(),
+                latencyNanos.stream().mapToLong(Long::longValue).toArray(),
+                errors.get(),
+                elapsed,
+                allocatedBytes);
+    }
+
+    // turns of one conversation go one after another, the way a user would send them
+    private void replay(LoadTestScenario scenario, ConcurrentLinkedQueue<Long> latencyNanos, AtomicInteger errors) {
+        UUID conversationId = UUID.randomUUID();
+
+        for (String prompt : scenario.prompts()) {
+            long startedAt = System.nanoTime();
+            try {
+                ResponseEntity<String> response = restTemplate.getForEntity(AGENT_URL, String.class, prompt, conversationId);
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    errors.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                errors.incrementAndGet();
+            }
+            latencyNanos.add(System.nanoTime() - startedAt);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,40 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+record LoadTestReport(String scenario, int turns, int errors, double turnsPerSecond, Duration p50, Duration p99, double allocatedMegabytesPerSecond) {
+    static LoadTestReport of(String scenario, long[] latencyNanos, int errors, Duration elapsed, long allocatedBytes) {
+        long[] sortedLatencyNanos = latencyNanos.clone();
+        Arrays.sort(sortedLatencyNanos);
+
+        double elapsedSeconds = elapsed.toNanos() / 1e9;
+
+        return new LoadTestReport(
+                scenario,
+                sortedLatencyNanos.length,
+                errors,
+                sortedLatencyNanos.length / elapsedSeconds,
+                percentile(sortedLatencyNanos, 0.50),
+                percentile(sortedLatencyNanos, 0.99),
+                allocatedBytes / 1024.0 / 1024.0 / elapsedSeconds);
+    }
+
+    private static Duration percentile(long[] sortedLatencyNanos, double percentile) {
+        if (sortedLatencyNanos.length == 0) {
+            return Duration.ZERO;
+        }
+
+        int rank = (int) Math.ceil(percentile * sortedLatencyNanos.length);
+        return Duration.ofNanos(sortedLatencyNanos[Math.max(0, rank - 1)]);
+    }
+
+    static String header() {
+        return String.format("%-14s %8s %8s %12s %10s %10s %14s", "scenario", "turns", "errors", "turns/s", "p50 ms", "p99 ms", "alloc MB/s");
+    }
+
+    String row() {
+        return String.format("%-14s %8d %8d %12.1f %10d %10d %14.1f",
+                scenario, turns, errors, turnsPerSecond, p50.toMillis(), p99.toMillis(), allocatedMegabytesPerSecond);
+    }
+}
@@ -0,0 +1,28 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+record LoadTestScenario(String name, List<String> prompts) {
+    private static final String PROMPT_SEPARATOR = "(?m)^---\\s*$";
+
+    // every prompt is replayed as a single-turn conversation, and all of them together as one multi-turn conversation
+    static List<LoadTestScenario> fromPrompts(Path promptsFile) throws IOException {
+        List<String> prompts = Arrays.stream(Files.readString(promptsFile).split(PROMPT_SEPARATOR))
+                .map(String::strip)
+                .filter(prompt -> !prompt.isEmpty())
+                .toList();
+
+        List<LoadTestScenario> scenarios = new ArrayList<>();
+        for (int idx = 0; idx < prompts.size(); idx++) {
+            scenarios.add(new LoadTestScenario("prompt-" + (idx + 1), List.of(prompts.get(idx))));
+        }
+        scenarios.add(new LoadTestScenario("conversation", prompts));
+
+        return scenarios;
+    }
+}
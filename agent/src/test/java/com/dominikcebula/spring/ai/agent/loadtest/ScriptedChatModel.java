@@ -0,0 +1,161 @@
+package com.dominikcebula.spring.ai.agent.loadtest;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+class ScriptedChatModel implements ChatModel {
+    private static final String MODEL = "scripted";
+
+    private static final String MEMORY_EXTRACTION_ANSWER = """
+            {"memories":[{"content":"User is travelling from Kraków to Frankfurt","memoryType":"EPISODIC"}]}""";
+    private static final String SUMMARY_ANSWER = "The user is planning a trip from Kraków to Frankfurt and asked for flights, a hotel and a rental car.";
+
+    private final Supplier<ToolCallingManager> toolCallingManager;
+    private final Duration latency;
+
+    ScriptedChatModel(Supplier<ToolCallingManager> toolCallingManager, Duration latency) {
+        this.toolCallingManager = toolCallingManager;
+        this.latency = latency;
+    }
+
+    // mirrors the internal tool execution loop of the Bedrock chat model, so tool calls go through the agent's tool calling manager
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        sleep();
+
+        ChatResponse chatResponse = respond(prompt);
+
+        if (chatResponse.hasToolCalls()
+                && prompt.getOptions() instanceof ToolCallingChatOptions chatOptions
+                && !Boolean.FALSE.equals(chatOptions.getInternalToolExecutionEnabled())) {
+            ToolExecutionResult toolExecutionResult = toolCallingManager.get().executeToolCalls(prompt, chatResponse);
+
+            if (toolExecutionResult.returnDirect()) {
+                return ChatResponse.builder()
+                        .from(chatResponse)
+                        .generations(ToolExecutionResult.buildGenerations(toolExecutionResult))
+                        .build();
+            }
+
+            return call(new Prompt(toolExecutionResult.conversationHistory(), prompt.getOptions()));
+        }
+
+        return chatResponse;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> Flux.just(call(prompt)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private ChatResponse respond(Prompt prompt) {
+        String systemPrompt = prompt.getSystemMessage().getText();
+        List<Message> messages = prompt.getInstructions();
+
+        if (systemPrompt.contains("Extract long-term memories")) {
+            return chatResponse(prompt, new AssistantMessage(MEMORY_EXTRACTION_ANSWER));
+        }
+        if (systemPrompt.contains("running summary of a conversation")) {
+            return chatResponse(prompt, new AssistantMessage(SUMMARY_ANSWER));
+        }
+        if (messages.getLast() instanceof ToolResponseMessage toolResponseMessage) {
+            return chatResponse(prompt, new AssistantMessage(answer(toolResponseMessage)));
+        }
+
+        List<AssistantMessage.ToolCall> toolCalls = toolCalls(prompt.getUserMessage().getText());
+        if (toolCalls.isEmpty()) {
+            return chatResponse(prompt, new AssistantMessage("I can only assist with travel bookings."));
+        }
+
+        return chatResponse(prompt, AssistantMessage.builder()
+                .content("")
+                .toolCalls(toolCalls)
+                .build());
+    }
+
+    // the script keys off the current user prompt only, so every replay of a scenario takes the same path
+    private static List<AssistantMessage.ToolCall> toolCalls(String userPrompt) {
+        String prompt = userPrompt.toLowerCase(Locale.ROOT);
+        boolean booking = prompt.contains("book");
+
+        List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+        if (prompt.contains("flight")) {
+            toolCalls.add(booking
+                    ? toolCall(toolCalls, "createFlightBooking", """
+                    {"request":{"flightNumbers":["LH1623"],"travelDate":"2026-01-28","passengers":[{"firstName":"John","lastName":"Doe"}]}}""")
+                    : toolCall(toolCalls, "getAllAvailableFlights", """
+                    {"departure":"KRK","arrival":"FRA"}"""));
+        }
+        if (prompt.contains("hotel")) {
+            toolCalls.add(booking
+                    ? toolCall(toolCalls, "createHotelBooking", """
+                    {"request":{"hotelId":"H1","roomId":"R1","checkInDate":"2026-01-28","checkOutDate":"2026-01-30"}}""")
+                    : toolCall(toolCalls, "searchForAvailableRooms", """
+                    {"city":"Frankfurt"}"""));
+        }
+        if (prompt.contains("car")) {
+            toolCalls.add(booking
+                    ? toolCall(toolCalls, "createCarRentalBooking", """
+                    {"request":{"carId":"C1","pickupDate":"2026-01-28","dropoffDate":"2026-01-30"}}""")
+                    : toolCall(toolCalls, "searchForAvailableCarsForRent", """
+                    {"city":"Frankfurt"}"""));
+        }
+
+        return toolCalls;
+    }
+
+    private static AssistantMessage.ToolCall toolCall(List<AssistantMessage.ToolCall> toolCalls, String toolName, String arguments) {
+        return new AssistantMessage.ToolCall("call-" + (toolCalls.size() + 1), "function", toolName, arguments);
+    }
+
+    private static String answer(ToolResponseMessage toolResponseMessage) {
+        return toolResponseMessage.getResponses().stream()
+                .map(toolResponse -> toolResponse.name() + ": " + toolResponse.responseData())
+                .collect(Collectors.joining("\n", "Here is what I found:\n", ""));
+    }
+
+    private static ChatResponse chatResponse(Prompt prompt, AssistantMessage assistantMessage) {
+        int promptTokens = prompt.getInstructions().stream()
+                .map(Message::getText)
+                .mapToInt(text -> text == null ? 0 : text.length() / 4)
+                .sum();
+        int completionTokens = assistantMessage.getText() == null ? 0 : assistantMessage.getText().length() / 4;
+
+        return ChatResponse.builder()
+                .generations(List.of(new Generation(assistantMessage)))
+                .metadata(ChatResponseMetadata.builder()
+                        .model(MODEL)
+                        .usage(new DefaultUsage(promptTokens, completionTokens))
+                        .build())
+                .build();
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scripted model call was interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.dominikcebula.spring.ai.agent.memory;
+
+import com.dominikcebula.spring.ai.agent.embedding.EmbeddingContext;
+import com.dominikcebula.spring.ai.agent.embedding.RequestScopedEmbeddingModel;
+import com.dominikcebula.spring.ai.agent.hedging.RequestHedger;
+import com.dominikcebula.spring.ai.agent.memory.vectorstore.HnswVectorStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.dominikcebula.spring.ai.agent.memory.MemoryDefinitions.SIMILARITY_90_PRC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
+
+class MemoryServiceTest {
+    private static final String USER_PROMPT = "Which hotel did I book in Lisbon?";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountingEmbeddingModel countingEmbeddingModel = new CountingEmbeddingModel();
+    private final EmbeddingModel embeddingModel = new RequestScopedEmbeddingModel(countingEmbeddingModel);
+    private final HnswVectorStore vectorStore = HnswVectorStore.builder(embeddingModel).build();
+    private final MemoryService memoryService = new MemoryService(vectorStore, vectorStore, embeddingModel,
+            new RequestHedger("memory-retrieval", false, 0.95, Duration.ofMillis(10), 0.1, 100, meterRegistry), meterRegistry);
+    private final ExecutorService pooledExecutor = Executors.newFixedThreadPool(1);
+
+    @AfterEach
+    void tearDown() {
+        memoryService.destroy();
+        pooledExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldEmbedPromptAndCandidatesOncePerRequest() {
+        // given
+        UUID conversationId = UUID.randomUUID();
+        List<MemoryCandidate> candidates = List.of(
+                new MemoryCandidate("User prefers window seats", MemoryType.SEMANTIC),
+                new MemoryCandidate("User booked Hotel Avenida in Lisbon", MemoryType.EPISODIC),
+                new MemoryCandidate("User travels with a dog", MemoryType.SEMANTIC));
+        EmbeddingContext embeddingContext = EmbeddingContext.of(chatClientRequest(conversationId));
+
+        // when
+        embeddingContext.run(() -> {
+            memoryService.retrieveMemory(conversationId, USER_PROMPT, 5, SIMILARITY_90_PRC);
+            memoryService.filterOutSimilarMemories(conversationId, candidates, SIMILARITY_90_PRC)
+                    .forEach(candidate -> memoryService.storeMemory(conversationId, candidate.content(), candidate.memoryType()));
+        });
+
+        // then
+        assertThat(countingEmbeddingModel.requests).containsExactly(
+                List.of(USER_PROMPT),
+                candidates.stream().map(MemoryCandidate::content).toList());
+        assertThat(memoryService.findMemories(conversationId, 10)).hasSize(3);
+    }
+
+    @Test
+    void shouldNotLeakRequestEmbeddingsPastTheRequest() {
+        // given
+        UUID conversationId = UUID.randomUUID();
+        EmbeddingContext embeddingContext = EmbeddingContext.of(chatClientRequest(conversationId));
+        embeddingContext.run(() -> {
+            memoryService.retrieveMemory(conversationId, USER_PROMPT, 5, SIMILARITY_90_PRC);
+            // the pooled thread served the request once, the next task it picks up must not see the request's context
+            CompletableFuture.supplyAsync(EmbeddingContext.propagate(() -> embeddingModel.embed(USER_PROMPT)), pooledExecutor).join();
+        });
+        int requestEmbeddings = countingEmbeddingModel.requests.size();
+
+        // when
+        embeddingModel.embed(USER_PROMPT);
+        CompletableFuture.supplyAsync(() -> embeddingModel.embed(USER_PROMPT), pooledExecutor).join();
+        try (ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture.supplyAsync(() -> embeddingModel.embed(USER_PROMPT), virtualThreadExecutor).join();
+        }
+
+        // then
+        assertThat(requestEmbeddings).isEqualTo(1);
+        assertThat(countingEmbeddingModel.requests).hasSize(requestEmbeddings + 3);
+    }
+
+    private static ChatClientRequest chatClientRequest(UUID conversationId) {
+        return ChatClientRequest.builder()
+                .prompt(new Prompt(USER_PROMPT))
+                .context(Map.of(CONVERSATION_ID, conversationId))
+                .build();
+    }
+
+    private static class CountingEmbeddingModel implements EmbeddingModel {
+        private final List<List<String>> requests = new CopyOnWriteArrayList<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            requests.add(request.getInstructions());
+
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int idx = 0; idx < request.getInstructions().size(); idx++) {
+                String text = request.getInstructions().get(idx);
+                embeddings.add(new Embedding(new float[]{text.length(), text.hashCode()}, idx));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+    }
+}
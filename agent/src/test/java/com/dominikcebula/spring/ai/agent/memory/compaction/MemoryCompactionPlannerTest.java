@@ -0,0 +1,103 @@
+package com.dominikcebula.spring.ai.agent.memory.compaction;
+
+import com.dominikcebula.spring.ai.agent.memory.Memory;
+import com.dominikcebula.spring.ai.agent.memory.MemoryType;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MemoryCompactionPlannerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 31, 12, 0);
+    private static final UUID CONVERSATION_ID = UUID.randomUUID();
+
+    private static final Map<String, float[]> EMBEDDINGS = Map.of(
+            "User prefers economy cars", new float[]{1.0f, 0.0f, 0.0f},
+            "User likes economy cars", new float[]{0.99f, 0.05f, 0.0f},
+            "User prefers budget hotels", new float[]{0.0f, 1.0f, 0.0f},
+            "User needs a Schengen visa", new float[]{0.0f, 0.0f, 1.0f});
+
+    private final EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+
+    @Test
+    void shouldKeepNewestMemoryOfNearDuplicates() {
+        // given
+        Memory older = memory("User prefers economy cars", MemoryType.EPISODIC, NOW.minusDays(2));
+        Memory newer = memory("User likes economy cars", MemoryType.EPISODIC, NOW.minusDays(1));
+        Memory unrelated = memory("User prefers budget hotels", MemoryType.EPISODIC, NOW.minusDays(3));
+        MemoryCompactionPlanner planner = newPlanner(200);
+
+        // when
+        MemoryCompactionPlan plan = planner.plan(CONVERSATION_ID, List.of(older, newer, unrelated), NOW);
+
+        // then
+        assertThat(plan.duplicateMemories()).containsExactly(older.id());
+        assertThat(plan.expiredMemories()).isEmpty();
+        assertThat(plan.cappedMemories()).isEmpty();
+    }
+
+    @Test
+    void shouldNotMergeMemoriesOfDifferentTypes() {
+        // given
+        Memory episodic = memory("User prefers economy cars", MemoryType.EPISODIC, NOW.minusDays(2));
+        Memory semantic = memory("User likes economy cars", MemoryType.SEMANTIC, NOW.minusDays(1));
+        MemoryCompactionPlanner planner = newPlanner(200);
+
+        // when
+        MemoryCompactionPlan plan = planner.plan(CONVERSATION_ID, List.of(episodic, semantic), NOW);
+
+        // then
+        assertThat(plan.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldExpireOnlyEpisodicMemoriesPastTimeToLive() {
+        // given
+        Memory expiredEpisodic = memory("User prefers economy cars", MemoryType.EPISODIC, NOW.minusDays(120));
+        Memory oldSemantic = memory("User needs a Schengen visa", MemoryType.SEMANTIC, NOW.minusDays(120));
+        Memory recentEpisodic = memory("User prefers budget hotels", MemoryType.EPISODIC, NOW.minusDays(10));
+        MemoryCompactionPlanner planner = newPlanner(200);
+
+        // when
+        MemoryCompactionPlan plan = planner.plan(CONVERSATION_ID, List.of(expiredEpisodic, oldSemantic, recentEpisodic), NOW);
+
+        // then
+        assertThat(plan.expiredMemories()).containsExactly(expiredEpisodic.id());
+        assertThat(plan.memoriesToDelete()).containsExactly(expiredEpisodic.id());
+    }
+
+    @Test
+    void shouldCapConversationByDroppingOldestMemories() {
+        // given
+        Memory oldest = memory("User prefers economy cars", MemoryType.EPISODIC, NOW.minusDays(3));
+        Memory middle = memory("User prefers budget hotels", MemoryType.EPISODIC, NOW.minusDays(2));
+        Memory newest = memory("User needs a Schengen visa", MemoryType.SEMANTIC, NOW.minusDays(1));
+        MemoryCompactionPlanner planner = newPlanner(2);
+
+        // when
+        MemoryCompactionPlan plan = planner.plan(CONVERSATION_ID, List.of(oldest, middle, newest), NOW);
+
+        // then
+        assertThat(plan.cappedMemories()).containsExactly(oldest.id());
+    }
+
+    private MemoryCompactionPlanner newPlanner(int maxMemoriesPerConversation) {
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(EMBEDDINGS::get)
+                .toList());
+        return new MemoryCompactionPlanner(embeddingModel, 0.9f, Duration.ofDays(90), maxMemoriesPerConversation);
+    }
+
+    private static Memory memory(String content, MemoryType memoryType, LocalDateTime createdAt) {
+        return new Memory(UUID.randomUUID(), CONVERSATION_ID, content, memoryType, createdAt);
+    }
+}
@@ -0,0 +1,59 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CueMemoryExtractionGateTest {
+    private static final double THRESHOLD = 0.3;
+
+    private final CueMemoryExtractionGate gate = new CueMemoryExtractionGate();
+
+    @Test
+    void shouldKeepRecallHighWhileSkippingMostTurnsWithoutMemories() {
+        // given
+        List<MemoryExtractionGateEvaluation.LabelledTurn> labelledTurns =
+                MemoryExtractionGateEvaluation.loadLabelledTurns("/memory/extraction/labelled-turns.tsv");
+
+        // when
+        MemoryExtractionGateEvaluation evaluation = MemoryExtractionGateEvaluation.evaluate(gate, labelledTurns, THRESHOLD);
+
+        // then
+        assertThat(evaluation.recall()).isGreaterThanOrEqualTo(0.95);
+        assertThat(evaluation.precision()).isGreaterThanOrEqualTo(0.8);
+        assertThat(evaluation.skipRate()).isGreaterThanOrEqualTo(0.4);
+    }
+
+    @Test
+    void shouldCountSkippedAndRunExtractions() {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MemoryExtractionFilter filter = new MemoryExtractionFilter(gate, true, THRESHOLD, meterRegistry);
+
+        // when
+        boolean preferenceExtracted = filter.shouldExtract("I prefer budget hotels.", "Here are budget hotels.");
+        boolean acknowledgementExtracted = filter.shouldExtract("thanks", "You're welcome.");
+
+        // then
+        assertThat(preferenceExtracted).isTrue();
+        assertThat(acknowledgementExtracted).isFalse();
+        assertThat(meterRegistry.counter("agent.memory.extraction.gate", "decision", "run").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("agent.memory.extraction.gate", "decision", "skipped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunEveryExtractionWhenDisabled() {
+        // given
+        MemoryExtractionFilter filter = new MemoryExtractionFilter(gate, false, THRESHOLD, new SimpleMeterRegistry());
+
+        // when
+        boolean extracted = filter.shouldExtract("ok", "Done.");
+
+        // then
+        assertThat(extracted).isTrue();
+    }
+}
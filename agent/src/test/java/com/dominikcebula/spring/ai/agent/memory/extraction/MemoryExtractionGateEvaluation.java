@@ -0,0 +1,63 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+record MemoryExtractionGateEvaluation(int truePositives, int falsePositives, int trueNegatives, int falseNegatives) {
+    static MemoryExtractionGateEvaluation evaluate(MemoryExtractionGate gate, List<LabelledTurn> labelledTurns, double threshold) {
+        int truePositives = 0;
+        int falsePositives = 0;
+        int trueNegatives = 0;
+        int falseNegatives = 0;
+
+        for (LabelledTurn labelledTurn : labelledTurns) {
+            boolean extract = gate.memoryProbability(labelledTurn.userPrompt(), labelledTurn.assistantResponse()) >= threshold;
+
+            if (extract && labelledTurn.containsMemory()) {
+                truePositives++;
+            } else if (extract) {
+                falsePositives++;
+            } else if (labelledTurn.containsMemory()) {
+                falseNegatives++;
+            } else {
+                trueNegatives++;
+            }
+        }
+
+        return new MemoryExtractionGateEvaluation(truePositives, falsePositives, trueNegatives, falseNegatives);
+    }
+
+    static List<LabelledTurn> loadLabelledTurns(String resource) {
+        try (InputStream inputStream = Objects.requireNonNull(MemoryExtractionGateEvaluation.class.getResourceAsStream(resource), resource);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .map(line -> line.split("\t", 3))
+                    .map(columns -> new LabelledTurn(Boolean.parseBoolean(columns[0]), columns[1], columns[2]))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    double recall() {
+        return (double) truePositives / (truePositives + falseNegatives);
+    }
+
+    double precision() {
+        return (double) truePositives / (truePositives + falsePositives);
+    }
+
+    double skipRate() {
+        return (double) (trueNegatives + falseNegatives) / (truePositives + falsePositives + trueNegatives + falseNegatives);
+    }
+
+    record LabelledTurn(boolean containsMemory, String userPrompt, String assistantResponse) {
+    }
+}
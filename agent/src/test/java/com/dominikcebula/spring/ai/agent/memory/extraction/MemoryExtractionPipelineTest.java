@@ -0,0 +1,173 @@
+package com.dominikcebula.spring.ai.agent.memory.extraction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class MemoryExtractionPipelineTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> extractions = new CopyOnWriteArrayList<>();
+    private final CountDownLatch workerStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWorker = new CountDownLatch(1);
+
+    private MemoryExtractionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        releaseWorker.countDown();
+        if (pipeline.isRunning()) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldDropNewestExtractionWhenQueueIsFull() throws Exception {
+        // given
+        pipeline = newPipeline(MemoryExtractionOverflowPolicy.DROP_NEWEST, Duration.ofSeconds(5));
+        occupyWorker();
+
+        // when
+        pipeline.submit(extraction("first"));
+        pipeline.submit(extraction("second"));
+        pipeline.submit(extraction("third"));
+        releaseWorker.countDown();
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(extractions).containsExactly("first", "second"));
+        assertThat(droppedCount(MemoryExtractionOverflowPolicy.DROP_NEWEST)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropOldestQueuedExtractionWhenQueueIsFull() throws Exception {
+        // given
+        pipeline = newPipeline(MemoryExtractionOverflowPolicy.DROP_OLDEST, Duration.ofSeconds(5));
+        occupyWorker();
+
+        // when
+        pipeline.submit(extraction("first"));
+        pipeline.submit(extraction("second"));
+        pipeline.submit(extraction("third"));
+        releaseWorker.countDown();
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(extractions).containsExactly("second", "third"));
+        assertThat(droppedCount(MemoryExtractionOverflowPolicy.DROP_OLDEST)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunExtractionOnCallerWhenQueueIsFull() throws Exception {
+        // given
+        pipeline = newPipeline(MemoryExtractionOverflowPolicy.CALLER_RUNS, Duration.ofSeconds(5));
+        occupyWorker();
+
+        // when
+        pipeline.submit(extraction("first"));
+        pipeline.submit(extraction("second"));
+        pipeline.submit(() -> extractions.add("third on " + Thread.currentThread().getName()));
+
+        // then
+        assertThat(extractions).containsExactly("third on " + Thread.currentThread().getName());
+        releaseWorker.countDown();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(extractions).hasSize(3));
+        assertThat(droppedCount(MemoryExtractionOverflowPolicy.CALLER_RUNS)).isZero();
+    }
+
+    @Test
+    void shouldDropExtractionsSubmittedWhileNotRunning() {
+        // given
+        pipeline = newPipeline(MemoryExtractionOverflowPolicy.DROP_OLDEST, Duration.ofSeconds(5));
+        pipeline.stop();
+
+        // when
+        pipeline.submit(extraction("after shutdown"));
+
+        // then
+        assertThat(extractions).isEmpty();
+        assertThat(droppedCount(MemoryExtractionOverflowPolicy.DROP_OLDEST)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDrainQueuedExtractionsOnStop() throws Exception {
+        // given
+        pipeline = newPipeline(MemoryExtractionOverflowPolicy.DROP_OLDEST, Duration.ofSeconds(5));
+        occupyWorker();
+        pipeline.submit(extraction("first"));
+        pipeline.submit(extraction("second"));
+
+        // when
+        new Thread(() -> {
+            sleep(Duration.ofMillis(200));
+            releaseWorker.countDown();
+        }).start();
+        pipeline.stop();
+
+        // then
+        assertThat(pipeline.isRunning()).isFalse();
+        assertThat(extractions).containsExactly("first", "second");
+        assertThat(droppedCount(MemoryExtractionOverflowPolicy.DROP_OLDEST)).isZero();
+    }
+
+    @Test
+    void shouldAbandonExtractionsLeftAfterShutdownTimeout() throws Exception {
+        // given
+        pipeline = newPipeline(MemoryExtractionOverflowPolicy.DROP_OLDEST, Duration.ofMillis(200));
+        occupyWorker();
+        pipeline.submit(extraction("first"));
+        pipeline.submit(extraction("second"));
+
+        // when
+        long stopStartedAt = System.nanoTime();
+        pipeline.stop();
+        Duration stopDuration = Duration.ofNanos(System.nanoTime() - stopStartedAt);
+
+        // then
+        assertThat(stopDuration).isLessThan(Duration.ofSeconds(2));
+        assertThat(extractions).isEmpty();
+        assertThat(droppedCount(MemoryExtractionOverflowPolicy.DROP_OLDEST)).isEqualTo(2);
+    }
+
+    private MemoryExtractionPipeline newPipeline(MemoryExtractionOverflowPolicy overflowPolicy, Duration shutdownTimeout) {
+        MemoryExtractionPipeline memoryExtractionPipeline = new MemoryExtractionPipeline(1, 2, overflowPolicy, shutdownTimeout, meterRegistry);
+        memoryExtractionPipeline.start();
+        return memoryExtractionPipeline;
+    }
+
+    // the single worker stays busy until released, so further extractions wait in the queue
+    private void occupyWorker() throws InterruptedException {
+        pipeline.submit(() -> {
+            workerStarted.countDown();
+            try {
+                releaseWorker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(workerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private Runnable extraction(String name) {
+        return () -> extractions.add(name);
+    }
+
+    private double droppedCount(MemoryExtractionOverflowPolicy overflowPolicy) {
+        return meterRegistry.counter("agent.memory.extraction.dropped", "policy", overflowPolicy.name()).count();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
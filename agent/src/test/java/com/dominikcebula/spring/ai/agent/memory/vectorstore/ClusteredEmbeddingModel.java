@@ -0,0 +1,63 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// memories of one user cluster around a few topics, uniform noise would make every quantization look equally good
+class ClusteredEmbeddingModel implements EmbeddingModel {
+    private final int dimensions;
+    private final long seed;
+    private final float spread;
+    private final float[][] centroids;
+
+    ClusteredEmbeddingModel(int dimensions, int clusters, float spread, long seed) {
+        this.dimensions = dimensions;
+        this.seed = seed;
+        this.spread = spread;
+
+        Random random = new Random(seed);
+        this.centroids = new float[clusters][dimensions];
+        for (float[] centroid : centroids) {
+            for (int idx = 0; idx < dimensions; idx++) {
+                centroid[idx] = (float) random.nextGaussian();
+            }
+        }
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<Embedding> embeddings = new ArrayList<>();
+        for (int idx = 0; idx < request.getInstructions().size(); idx++) {
+            embeddings.add(new Embedding(embed(request.getInstructions().get(idx)), idx));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        Random random = new Random(seed ^ text.hashCode());
+        float[] centroid = centroids[random.nextInt(centroids.length)];
+        float[] embedding = new float[dimensions];
+        for (int idx = 0; idx < dimensions; idx++) {
+            embedding[idx] = centroid[idx] + spread * (float) random.nextGaussian();
+        }
+        return embedding;
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+}
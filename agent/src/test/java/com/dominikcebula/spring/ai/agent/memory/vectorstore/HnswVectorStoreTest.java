@@ -0,0 +1,329 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HnswVectorStoreTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HnswVectorStoreTest.class);
+
+    private static final int DIMENSIONS = 32;
+    private static final int BENCHMARK_DIMENSIONS = 128;
+    private static final int COHERE_EMBEDDING_DIMENSIONS = 1024;
+
+    private final EmbeddingModel embeddingModel = new RandomEmbeddingModel(DIMENSIONS);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldReturnOnlyMemoriesOfRequestedConversation() {
+        // given
+        HnswVectorStore vectorStore = newVectorStore(null);
+        UUID conversationId = UUID.randomUUID();
+        UUID otherConversationId = UUID.randomUUID();
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers economy cars"),
+                memory(otherConversationId, "User prefers economy cars"),
+                memory(conversationId, "User needs a Schengen visa")));
+
+        // when
+        List<Document> documents = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("User prefers economy cars")
+                .topK(5)
+                .filterExpression(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build())
+                .build());
+
+        // then
+        assertThat(documents).hasSize(2);
+        assertThat(documents).allSatisfy(document ->
+                assertThat(document.getMetadata().get("conversationId")).isEqualTo(conversationId.toString()));
+        assertThat(documents.getFirst().getText()).isEqualTo("User prefers economy cars");
+        assertThat(documents.getFirst().getScore()).isGreaterThan(0.99);
+    }
+
+    @Test
+    void shouldFilterByMemoryTypeAndCreatedAt() {
+        // given
+        HnswVectorStore vectorStore = newVectorStore(null);
+        UUID conversationId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers budget hotels", "EPISODIC", now.minusDays(60)),
+                memory(conversationId, "User prefers window seats", "EPISODIC", now),
+                memory(conversationId, "Berlin has comprehensive bike lanes", "SEMANTIC", now)));
+
+        FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder();
+
+        // when
+        List<Document> documents = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("User prefers budget hotels")
+                .topK(5)
+                .filterExpression(filterExpressionBuilder.and(
+                        filterExpressionBuilder.eq("memoryType", "EPISODIC"),
+                        filterExpressionBuilder.gte("createdAt", now.minusDays(30))
+                ).build())
+                .build());
+
+        // then
+        assertThat(documents)
+                .extracting(Document::getText)
+                .containsExactly("User prefers window seats");
+    }
+
+    @Test
+    void shouldListAllMemoriesOfConversationPageByPage() {
+        // given
+        HnswVectorStore vectorStore = newVectorStore(null);
+        UUID conversationId = UUID.randomUUID();
+        List<Document> memories = IntStream.range(0, 25)
+                .mapToObj(idx -> memory(conversationId, "memory " + idx))
+                .toList();
+        vectorStore.add(memories);
+        vectorStore.add(List.of(memory(UUID.randomUUID(), "memory of other conversation")));
+
+        // when
+        List<Document> firstPage = vectorStore.list(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build(), null, 20);
+        List<Document> secondPage = vectorStore.list(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build(), firstPage.getLast().getId(), 20);
+
+        // then
+        assertThat(firstPage).hasSize(20);
+        assertThat(secondPage).hasSize(5);
+        assertThat(Stream.concat(firstPage.stream(), secondPage.stream()).map(Document::getId))
+                .containsExactlyElementsOf(memories.stream().map(Document::getId).sorted().toList());
+    }
+
+    @Test
+    void shouldListDistinctConversationIdsOfLiveMemories() {
+        // given
+        HnswVectorStore vectorStore = newVectorStore(null);
+        UUID conversationId = UUID.randomUUID();
+        Document deletedMemory = memory(UUID.randomUUID(), "User prefers budget hotels");
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers economy cars"),
+                memory(conversationId, "User needs a Schengen visa"),
+                deletedMemory));
+        vectorStore.delete(List.of(deletedMemory.getId()));
+
+        // when
+        List<String> conversationIds = vectorStore.distinctValues("conversationId");
+
+        // then
+        assertThat(conversationIds).containsExactly(conversationId.toString());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"NONE, 1, 0.9", "INT8, 4, 0.9", "BINARY, 16, 0.6"})
+    void shouldFindApproximateNearestNeighboursWithHighRecall(VectorQuantization quantization, int rerankOversampling, double expectedRecall) {
+        // given
+        List<Document> documents = IntStream.range(0, 2_000)
+                .mapToObj(idx -> memory(UUID.randomUUID(), "memory " + idx))
+                .toList();
+        List<String> queries = IntStream.range(0, 50)
+                .mapToObj(idx -> "query " + idx)
+                .toList();
+
+        // when
+        double recall = recallAt10(embeddingModel, documents, queries, quantization, rerankOversampling);
+
+        // then
+        assertThat(recall).isGreaterThan(expectedRecall);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"INT8, 4, 0.02", "BINARY, 4, 0.1", "BINARY, 16, 0.02"})
+    void shouldKeepRecallOfQuantizedSearchCloseToFloatBaseline(VectorQuantization quantization, int rerankOversampling, double maxRecallLoss) {
+        // given
+        EmbeddingModel corpusEmbeddingModel = new ClusteredEmbeddingModel(BENCHMARK_DIMENSIONS, 20, 0.6f, 42L);
+        List<Document> documents = IntStream.range(0, 1_000)
+                .mapToObj(idx -> memory(UUID.randomUUID(), "memory " + idx))
+                .toList();
+        List<String> queries = IntStream.range(0, 100)
+                .mapToObj(idx -> "query " + idx)
+                .toList();
+
+        // when
+        double floatRecall = recallAt10(corpusEmbeddingModel, documents, queries, VectorQuantization.NONE, 1);
+        double quantizedRecall = recallAt10(corpusEmbeddingModel, documents, queries, quantization, rerankOversampling);
+        LOGGER.info("recall@10 at {} dimensions: float {}, {} with {}x oversampling {}",
+                BENCHMARK_DIMENSIONS, floatRecall, quantization, rerankOversampling, quantizedRecall);
+
+        // then
+        assertThat(floatRecall).isGreaterThan(0.9);
+        assertThat(quantizedRecall).isGreaterThanOrEqualTo(floatRecall - maxRecallLoss);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"INT8, 3.9", "BINARY, 32"})
+    void shouldShrinkInMemoryVectorFootprint(VectorQuantization quantization, double expectedCompression) {
+        // given
+        float[] vector = HnswIndex.normalize(new RandomEmbeddingModel(COHERE_EMBEDDING_DIMENSIONS).embed("User prefers economy cars"));
+
+        // when
+        long floatBytes = encodedBytes(VectorCodec.of(VectorQuantization.NONE).encode(vector));
+        long quantizedBytes = encodedBytes(VectorCodec.of(quantization).encode(vector));
+
+        // then
+        assertThat((double) floatBytes / quantizedBytes).isGreaterThanOrEqualTo(expectedCompression);
+        assertThat(quantizedBytes).isEqualTo(VectorCodec.of(quantization).bytesPerVector(COHERE_EMBEDDING_DIMENSIONS));
+    }
+
+    @ParameterizedTest
+    @EnumSource(VectorQuantization.class)
+    void shouldScoreQuantizedMatchesWithExactSimilarity(VectorQuantization quantization) {
+        // given
+        HnswVectorStore vectorStore = newVectorStore(null, quantization);
+        UUID conversationId = UUID.randomUUID();
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers economy cars"),
+                memory(conversationId, "User needs a Schengen visa")));
+
+        // when
+        List<Document> documents = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("User prefers economy cars")
+                .topK(5)
+                .similarityThreshold(0.99)
+                .build());
+
+        // then
+        assertThat(documents)
+                .extracting(Document::getText)
+                .containsExactly("User prefers economy cars");
+        assertThat(documents.getFirst().getScore()).isCloseTo(1.0, within(1e-6));
+    }
+
+    @Test
+    void shouldDeleteMemoriesMatchingFilter() {
+        // given
+        HnswVectorStore vectorStore = newVectorStore(null);
+        UUID conversationId = UUID.randomUUID();
+        UUID otherConversationId = UUID.randomUUID();
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers economy cars"),
+                memory(otherConversationId, "User prefers budget hotels")));
+
+        // when
+        vectorStore.delete(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build());
+
+        // then
+        List<Document> documents = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("User prefers economy cars")
+                .topK(5)
+                .build());
+        assertThat(documents)
+                .extracting(Document::getText)
+                .containsExactly("User prefers budget hotels");
+    }
+
+    @ParameterizedTest
+    @EnumSource(VectorQuantization.class)
+    void shouldRestoreMemoriesFromSnapshot(VectorQuantization quantization) {
+        // given
+        Path snapshotPath = tempDir.resolve("memory-vector-store.bin");
+        UUID conversationId = UUID.randomUUID();
+        HnswVectorStore vectorStore = newVectorStore(snapshotPath, quantization);
+        vectorStore.add(List.of(memory(conversationId, "User prefers economy cars")));
+        vectorStore.close();
+
+        // when
+        HnswVectorStore restoredVectorStore = newVectorStore(snapshotPath, quantization);
+        List<Document> documents = restoredVectorStore.similaritySearch(SearchRequest.builder()
+                .query("User prefers economy cars")
+                .topK(1)
+                .filterExpression(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build())
+                .build());
+
+        // then
+        assertThat(documents).hasSize(1);
+        assertThat(documents.getFirst().getText()).isEqualTo("User prefers economy cars");
+        assertThat(documents.getFirst().getMetadata().get("memoryType")).isEqualTo("EPISODIC");
+        assertThat(documents.getFirst().getMetadata().get("createdAt")).isInstanceOf(java.util.Date.class);
+    }
+
+    private HnswVectorStore newVectorStore(Path snapshotPath) {
+        return newVectorStore(snapshotPath, VectorQuantization.NONE);
+    }
+
+    private HnswVectorStore newVectorStore(Path snapshotPath, VectorQuantization quantization) {
+        return HnswVectorStore.builder(embeddingModel)
+                .indexedMetadataFields(List.of("conversationId", "memoryType"))
+                .snapshotPath(snapshotPath)
+                .quantization(quantization)
+                .build();
+    }
+
+    private static double recallAt10(EmbeddingModel embeddingModel, List<Document> documents, List<String> queries, VectorQuantization quantization, int rerankOversampling) {
+        HnswVectorStore vectorStore = HnswVectorStore.builder(embeddingModel)
+                .quantization(quantization)
+                .rerankOversampling(rerankOversampling)
+                .build();
+        vectorStore.add(documents);
+
+        Map<Document, float[]> documentEmbeddings = documents.stream()
+                .collect(Collectors.toMap(Function.identity(), document -> HnswIndex.normalize(embeddingModel.embed(document.getText()))));
+
+        int found = 0;
+        for (String query : queries) {
+            List<String> approximate = vectorStore.similaritySearch(SearchRequest.builder().query(query).topK(10).build())
+                    .stream()
+                    .map(Document::getId)
+                    .toList();
+            found += (int) exactNearestNeighbours(HnswIndex.normalize(embeddingModel.embed(query)), documentEmbeddings, 10).stream()
+                    .filter(approximate::contains)
+                    .count();
+        }
+
+        return (double) found / (queries.size() * 10);
+    }
+
+    // the payload the index keeps per vector, object headers aside
+    private static long encodedBytes(Object code) {
+        return switch (code) {
+            case float[] floats -> (long) floats.length * Float.BYTES;
+            case Int8VectorCodec.Int8Vector int8Vector -> int8Vector.codes().length + Float.BYTES;
+            case BinaryVectorCodec.BinaryVector binaryVector -> (long) binaryVector.bits().length * Long.BYTES;
+            default -> throw new IllegalArgumentException("Unknown vector code " + code.getClass());
+        };
+    }
+
+    private static List<String> exactNearestNeighbours(float[] queryEmbedding, Map<Document, float[]> documentEmbeddings, int limit) {
+        return documentEmbeddings.keySet().stream()
+                .sorted(Comparator.comparingDouble(document -> VectorCodec.exactDistance(queryEmbedding, documentEmbeddings.get(document))))
+                .limit(limit)
+                .map(Document::getId)
+                .toList();
+    }
+
+    private static Document memory(UUID conversationId, String content) {
+        return memory(conversationId, content, "EPISODIC", LocalDateTime.now());
+    }
+
+    private static Document memory(UUID conversationId, String content, String memoryType, LocalDateTime createdAt) {
+        return new Document(UUID.randomUUID().toString(), content, Map.of(
+                "conversationId", conversationId.toString(),
+                "memoryType", memoryType,
+                "createdAt", createdAt));
+    }
+}
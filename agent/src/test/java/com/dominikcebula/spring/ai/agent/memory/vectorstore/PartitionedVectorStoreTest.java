@@ -0,0 +1,243 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class PartitionedVectorStoreTest {
+    private final EmbeddingModel embeddingModel = new RandomEmbeddingModel(32);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldReturnOnlyMemoriesOfRequestedConversation() {
+        // given
+        PartitionedVectorStore vectorStore = newVectorStore(1);
+        UUID conversationId = UUID.randomUUID();
+        UUID otherConversationId = UUID.randomUUID();
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers economy cars"),
+                memory(otherConversationId, "User prefers economy cars"),
+                memory(conversationId, "User needs a Schengen visa")));
+
+        // when
+        List<Document> documents = vectorStore.similaritySearch(searchRequest(conversationId, "User prefers economy cars"));
+
+        // then
+        assertThat(documents)
+                .extracting(Document::getText)
+                .containsExactly("User prefers economy cars", "User needs a Schengen visa");
+        assertThat(documents).allSatisfy(document ->
+                assertThat(document.getMetadata().get("conversationId")).isEqualTo(conversationId.toString()));
+        assertThat(documents.getFirst().getScore()).isGreaterThan(0.99);
+    }
+
+    @Test
+    void shouldReloadEvictedPartitionFromDisk() {
+        // given
+        PartitionedVectorStore vectorStore = newVectorStore(1);
+        UUID conversationId = UUID.randomUUID();
+        UUID otherConversationId = UUID.randomUUID();
+        vectorStore.add(List.of(memory(conversationId, "User prefers economy cars")));
+
+        // when
+        vectorStore.add(List.of(memory(otherConversationId, "User needs a Schengen visa")));
+        List<Document> documents = vectorStore.similaritySearch(searchRequest(conversationId, "User prefers economy cars"));
+
+        // then
+        assertThat(documents)
+                .extracting(Document::getText)
+                .containsExactly("User prefers economy cars");
+        assertThat(tempDir).isDirectoryRecursivelyContaining("glob:**/partition-" + conversationId + ".bin");
+    }
+
+    @Test
+    void shouldRestoreMemoriesAfterRestart() {
+        // given
+        UUID conversationId = UUID.randomUUID();
+        PartitionedVectorStore vectorStore = newVectorStore(16);
+        vectorStore.add(List.of(memory(conversationId, "User prefers economy cars")));
+        vectorStore.close();
+
+        // when
+        PartitionedVectorStore restoredVectorStore = newVectorStore(16);
+        List<Document> documents = restoredVectorStore.similaritySearch(searchRequest(conversationId, "User prefers economy cars"));
+
+        // then
+        assertThat(documents).hasSize(1);
+        assertThat(documents.getFirst().getMetadata().get("createdAt")).isInstanceOf(java.util.Date.class);
+    }
+
+    @Test
+    void shouldDeleteMemoriesByIdAcrossPartitions() {
+        // given
+        PartitionedVectorStore vectorStore = newVectorStore(1);
+        UUID conversationId = UUID.randomUUID();
+        UUID otherConversationId = UUID.randomUUID();
+        Document memory = memory(conversationId, "User prefers economy cars");
+        vectorStore.add(List.of(memory, memory(otherConversationId, "User needs a Schengen visa")));
+
+        // when
+        vectorStore.delete(List.of(memory.getId()));
+
+        // then
+        List<Document> documents = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("User prefers economy cars")
+                .topK(5)
+                .build());
+        assertThat(documents)
+                .extracting(Document::getText)
+                .containsExactly("User needs a Schengen visa");
+    }
+
+    @Test
+    void shouldDeleteMemoryByIdAfterRestart() {
+        // given
+        UUID conversationId = UUID.randomUUID();
+        Document memory = memory(conversationId, "User prefers economy cars");
+        PartitionedVectorStore vectorStore = newVectorStore(16);
+        vectorStore.add(List.of(memory));
+        vectorStore.close();
+
+        // when
+        PartitionedVectorStore restoredVectorStore = newVectorStore(16);
+        restoredVectorStore.delete(List.of(memory.getId()));
+
+        // then
+        assertThat(restoredVectorStore.similaritySearch(searchRequest(conversationId, "User prefers economy cars"))).isEmpty();
+    }
+
+    @Test
+    void shouldFlushHotPartitionsOnInterval() {
+        // given
+        UUID conversationId = UUID.randomUUID();
+        PartitionedVectorStore vectorStore = newVectorStoreBuilder(16)
+                .flushInterval(Duration.ofMillis(50))
+                .build();
+
+        // when
+        vectorStore.add(List.of(memory(conversationId, "User prefers economy cars")));
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(newVectorStore(16).similaritySearch(searchRequest(conversationId, "User prefers economy cars"))).hasSize(1));
+        vectorStore.close();
+    }
+
+    @Test
+    void shouldRewriteOnlyChangedPartitionsOnFlush() throws IOException {
+        // given
+        UUID conversationId = UUID.randomUUID();
+        UUID otherConversationId = UUID.randomUUID();
+        PartitionedVectorStore vectorStore = newVectorStore(16);
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers economy cars"),
+                memory(otherConversationId, "User needs a Schengen visa")));
+        vectorStore.flush();
+
+        Path otherPartitionFile = partitionFile(otherConversationId);
+        FileTime untouched = FileTime.from(Instant.EPOCH);
+        Files.setLastModifiedTime(otherPartitionFile, untouched);
+
+        // when
+        vectorStore.add(List.of(memory(conversationId, "User prefers budget hotels")));
+        vectorStore.flush();
+
+        // then
+        assertThat(Files.getLastModifiedTime(otherPartitionFile)).isEqualTo(untouched);
+        assertThat(Files.getLastModifiedTime(partitionFile(conversationId))).isNotEqualTo(untouched);
+    }
+
+    @Test
+    void shouldDeleteMemoriesMatchingFilter() {
+        // given
+        PartitionedVectorStore vectorStore = newVectorStore(16);
+        UUID conversationId = UUID.randomUUID();
+        vectorStore.add(List.of(
+                memory(conversationId, "User prefers economy cars"),
+                memory(UUID.randomUUID(), "User prefers budget hotels")));
+
+        // when
+        vectorStore.delete(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build());
+
+        // then
+        assertThat(vectorStore.similaritySearch(searchRequest(conversationId, "User prefers economy cars"))).isEmpty();
+    }
+
+    @Test
+    void shouldListMemoriesAndConversationIdsOfEvictedPartitions() {
+        // given
+        UUID conversationId = UUID.randomUUID();
+        UUID otherConversationId = UUID.randomUUID();
+        UUID emptiedConversationId = UUID.randomUUID();
+        Document emptiedMemory = memory(emptiedConversationId, "User prefers budget hotels");
+        PartitionedVectorStore vectorStore = newVectorStore(1);
+        vectorStore.add(List.of(memory(conversationId, "User prefers economy cars")));
+        vectorStore.add(List.of(memory(otherConversationId, "User needs a Schengen visa")));
+        vectorStore.add(List.of(emptiedMemory));
+        vectorStore.delete(List.of(emptiedMemory.getId()));
+
+        // when
+        List<Document> documents = vectorStore.list(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build(), null, 10);
+        List<String> conversationIds = vectorStore.distinctValues("conversationId");
+
+        // then
+        assertThat(documents)
+                .extracting(Document::getText)
+                .containsExactly("User prefers economy cars");
+        assertThat(conversationIds).containsExactlyInAnyOrder(conversationId.toString(), otherConversationId.toString());
+    }
+
+    private PartitionedVectorStore newVectorStore(long maximumLoadedPartitions) {
+        return newVectorStoreBuilder(maximumLoadedPartitions).build();
+    }
+
+    private PartitionedVectorStore.Builder newVectorStoreBuilder(long maximumLoadedPartitions) {
+        return PartitionedVectorStore.builder(embeddingModel)
+                .directory(tempDir)
+                .bucketCount(64)
+                .maximumLoadedPartitions(maximumLoadedPartitions)
+                .idleTimeout(Duration.ofMinutes(1))
+                .maintenanceExecutor(Runnable::run);
+    }
+
+    private Path partitionFile(UUID conversationId) throws IOException {
+        try (Stream<Path> files = Files.find(tempDir, 2, (path, attributes) -> path.getFileName().toString().equals("partition-" + conversationId + ".bin"))) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static SearchRequest searchRequest(UUID conversationId, String query) {
+        return SearchRequest.builder()
+                .query(query)
+                .topK(5)
+                .filterExpression(new FilterExpressionBuilder().eq("conversationId", conversationId.toString()).build())
+                .build();
+    }
+
+    private static Document memory(UUID conversationId, String content) {
+        return new Document(UUID.randomUUID().toString(), content, Map.of(
+                "conversationId", conversationId.toString(),
+                "memoryType", "EPISODIC",
+                "createdAt", LocalDateTime.now()));
+    }
+}
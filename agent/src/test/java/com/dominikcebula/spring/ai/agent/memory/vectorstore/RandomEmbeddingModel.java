@@ -0,0 +1,48 @@
+package com.dominikcebula.spring.ai.agent.memory.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class RandomEmbeddingModel implements EmbeddingModel {
+    private final int dimensions;
+
+    RandomEmbeddingModel(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<Embedding> embeddings = new ArrayList<>();
+        for (int idx = 0; idx < request.getInstructions().size(); idx++) {
+            embeddings.add(new Embedding(embed(request.getInstructions().get(idx)), idx));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        Random random = new Random(text.hashCode());
+        float[] embedding = new float[dimensions];
+        for (int idx = 0; idx < dimensions; idx++) {
+            embedding[idx] = (float) random.nextGaussian();
+        }
+        return embedding;
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+}
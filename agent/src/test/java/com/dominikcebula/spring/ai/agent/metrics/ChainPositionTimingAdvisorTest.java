@@ -0,0 +1,134 @@
+package com.dominikcebula.spring.ai.agent.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChainPositionTimingAdvisorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ChainPositionTimingAdvisor outerPosition = new ChainPositionTimingAdvisor("outer", 0, meterRegistry);
+    private final ChainPositionTimingAdvisor modelPosition = new ChainPositionTimingAdvisor("model", 1, meterRegistry);
+
+    @Test
+    void shouldRecordTimeSpentAtEachPositionExcludingDownstreamPositions() {
+        // given
+        CallAdvisorChain modelChain = mock(CallAdvisorChain.class);
+        when(modelChain.nextCall(any())).thenAnswer(invocation -> sleepAndRespond(Duration.ofMillis(300)));
+
+        CallAdvisorChain outerChain = mock(CallAdvisorChain.class);
+        when(outerChain.nextCall(any())).thenAnswer(invocation -> {
+            sleepAndRespond(Duration.ofMillis(100));
+            return modelPosition.adviseCall(invocation.getArgument(0), modelChain);
+        });
+
+        ChatClientRequest chatClientRequest = ChatClientRequest.builder()
+                .prompt(new Prompt(new UserMessage("Find flights to Frankfurt")))
+                .build();
+
+        // when
+        outerPosition.adviseCall(chatClientRequest, outerChain);
+
+        // then
+        assertThat(recordedMillis("model")).isBetween(300.0, 380.0);
+        assertThat(recordedMillis("outer")).isBetween(100.0, 180.0);
+    }
+
+    @Test
+    void shouldRecordTimeSpentAtEachPositionWhenToolLoopCallsModelPositionRepeatedly() {
+        // given
+        CallAdvisorChain modelChain = mock(CallAdvisorChain.class);
+        when(modelChain.nextCall(any())).thenAnswer(invocation -> sleepAndRespond(Duration.ofMillis(150)));
+
+        CallAdvisorChain outerChain = mock(CallAdvisorChain.class);
+        when(outerChain.nextCall(any())).thenAnswer(invocation -> {
+            modelPosition.adviseCall(invocation.getArgument(0), modelChain);
+            sleepAndRespond(Duration.ofMillis(100));
+            return modelPosition.adviseCall(invocation.getArgument(0), modelChain);
+        });
+
+        // when
+        outerPosition.adviseCall(chatClientRequest(), outerChain);
+
+        // then
+        assertThat(recordedMillis("model")).isBetween(300.0, 380.0);
+        assertThat(recordedMillis("outer")).isBetween(100.0, 180.0);
+    }
+
+    @Test
+    void shouldRecordTimeSpentAtEachPositionOfCompletedStream() {
+        // given
+        StreamAdvisorChain modelChain = mock(StreamAdvisorChain.class);
+        when(modelChain.nextStream(any())).thenReturn(delayedResponse(Duration.ofMillis(300)).flux());
+
+        StreamAdvisorChain outerChain = mock(StreamAdvisorChain.class);
+        when(outerChain.nextStream(any())).thenAnswer(invocation -> delayedResponse(Duration.ofMillis(100))
+                .thenMany(modelPosition.adviseStream(invocation.getArgument(0), modelChain)));
+
+        // when
+        outerPosition.adviseStream(chatClientRequest(), outerChain).blockLast();
+
+        // then
+        assertThat(recordedMillis("model", "stream")).isBetween(300.0, 380.0);
+        assertThat(recordedMillis("outer", "stream")).isBetween(100.0, 180.0);
+    }
+
+    @Test
+    void shouldRecordTimeSpentAtEachPositionOfCancelledStream() {
+        // given
+        StreamAdvisorChain modelChain = mock(StreamAdvisorChain.class);
+        when(modelChain.nextStream(any())).thenReturn(delayedResponse(Duration.ofMillis(300)).concatWith(Flux.never()));
+
+        StreamAdvisorChain outerChain = mock(StreamAdvisorChain.class);
+        when(outerChain.nextStream(any())).thenAnswer(invocation -> delayedResponse(Duration.ofMillis(100))
+                .thenMany(modelPosition.adviseStream(invocation.getArgument(0), modelChain)));
+
+        // when
+        outerPosition.adviseStream(chatClientRequest(), outerChain).take(1).blockLast();
+
+        // then
+        assertThat(recordedMillis("model", "stream")).isBetween(300.0, 380.0);
+        assertThat(recordedMillis("outer", "stream")).isBetween(100.0, 180.0);
+    }
+
+    private double recordedMillis(String position) {
+        return recordedMillis(position, "call");
+    }
+
+    private double recordedMillis(String position, String mode) {
+        return meterRegistry.get("agent.advisor.duration")
+                .tags("position", position, "mode", mode)
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    private static ChatClientRequest chatClientRequest() {
+        return ChatClientRequest.builder()
+                .prompt(new Prompt(new UserMessage("Find flights to Frankfurt")))
+                .build();
+    }
+
+    private static Mono<ChatClientResponse> delayedResponse(Duration duration) {
+        return Mono.delay(duration).map(ignored -> ChatClientResponse.builder().build());
+    }
+
+    private static ChatClientResponse sleepAndRespond(Duration duration) throws InterruptedException {
+        Thread.sleep(duration);
+        return ChatClientResponse.builder().build();
+    }
+}
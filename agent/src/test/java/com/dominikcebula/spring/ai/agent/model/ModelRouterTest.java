@@ -0,0 +1,100 @@
+package com.dominikcebula.spring.ai.agent.model;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ModelRouterTest {
+    private static final String EXTRACTION_MODEL = "eu.anthropic.claude-haiku-4-5-20251001-v1:0";
+
+    private final ChatModel chatModel = mock(ChatModel.class);
+    private final ModelRouter modelRouter = new ModelRouter(chatModel,
+            EXTRACTION_MODEL, 512, Duration.ofMillis(200),
+            "", 1024, Duration.ofSeconds(5));
+
+    @Test
+    void shouldRouteTaskToItsModelAndTokenLimit() {
+        // given
+        when(chatModel.call(any(Prompt.class))).thenReturn(response("[]"));
+
+        // when
+        modelRouter.call(ModelTask.MEMORY_EXTRACTION, new Prompt("Extract memories"));
+
+        // then
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel).call(prompt.capture());
+        assertThat(prompt.getValue().getOptions().getModel()).isEqualTo(EXTRACTION_MODEL);
+        assertThat(prompt.getValue().getOptions().getMaxTokens()).isEqualTo(512);
+    }
+
+    @Test
+    void shouldKeepDefaultModelWhenTaskHasNoModelConfigured() {
+        // given
+        when(chatModel.call(any(Prompt.class))).thenReturn(response("Summary"));
+
+        // when
+        modelRouter.call(ModelTask.CONVERSATION_SUMMARIZATION, new Prompt("Summarize"));
+
+        // then
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel).call(prompt.capture());
+        assertThat(prompt.getValue().getOptions().getModel()).isNull();
+        assertThat(prompt.getValue().getOptions().getMaxTokens()).isEqualTo(1024);
+    }
+
+    @Test
+    void shouldFailWhenTaskExceedsItsTimeout() {
+        // given
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return response("[]");
+        });
+
+        // when / then
+        assertThatThrownBy(() -> modelRouter.call(ModelTask.MEMORY_EXTRACTION, new Prompt("Extract memories")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("MEMORY_EXTRACTION timed out");
+    }
+
+    @Test
+    void shouldInterruptModelCallThatExceedsItsTimeout() {
+        // given
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return response("[]");
+        });
+
+        // when
+        assertThatThrownBy(() -> modelRouter.call(ModelTask.MEMORY_EXTRACTION, new Prompt("Extract memories")))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then
+        await().atMost(Duration.ofSeconds(1)).until(() -> interrupted.getCount() == 0);
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
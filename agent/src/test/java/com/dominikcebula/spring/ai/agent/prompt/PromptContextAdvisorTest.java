@@ -0,0 +1,68 @@
+package com.dominikcebula.spring.ai.agent.prompt;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PromptContextAdvisorTest {
+    private static final String SYSTEM_PROMPT = "You are a helpful travel assistant.";
+
+    private final PromptContextAdvisor advisor = new PromptContextAdvisor();
+    private final CallAdvisorChain callAdvisorChain = mock(CallAdvisorChain.class);
+
+    @Test
+    void shouldPutContextBlocksInFrontOfCurrentUserMessageOnly() {
+        // given
+        ChatClientRequest chatClientRequest = ChatClientRequest.builder()
+                .prompt(new Prompt(List.of(
+                        new SystemMessage(SYSTEM_PROMPT),
+                        new UserMessage("Find flights to Frankfurt"),
+                        new AssistantMessage("Here are the flights."),
+                        new UserMessage("Book the cheapest one"))))
+                .build();
+        chatClientRequest = PromptContext.addBlock(chatClientRequest, "MEMORY: User prefers window seats");
+        chatClientRequest = PromptContext.addBlock(chatClientRequest, "SUMMARY: User travels to Frankfurt");
+
+        // when
+        advisor.adviseCall(chatClientRequest, callAdvisorChain);
+
+        // then
+        Prompt prompt = sentRequest().prompt();
+        assertThat(prompt.getSystemMessage().getText()).isEqualTo(SYSTEM_PROMPT);
+        assertThat(prompt.getInstructions().get(1).getText()).isEqualTo("Find flights to Frankfurt");
+        assertThat(prompt.getUserMessage().getText()).isEqualTo("""
+                MEMORY: User prefers window seats
+                SUMMARY: User travels to Frankfurt
+                Book the cheapest one""");
+    }
+
+    @Test
+    void shouldLeavePromptUntouchedWithoutContextBlocks() {
+        // given
+        Prompt prompt = new Prompt(List.of(new SystemMessage(SYSTEM_PROMPT), new UserMessage("Find hotels")));
+        ChatClientRequest chatClientRequest = ChatClientRequest.builder().prompt(prompt).build();
+
+        // when
+        advisor.adviseCall(chatClientRequest, callAdvisorChain);
+
+        // then
+        assertThat(sentRequest().prompt()).isSameAs(prompt);
+    }
+
+    private ChatClientRequest sentRequest() {
+        ArgumentCaptor<ChatClientRequest> captor = ArgumentCaptor.forClass(ChatClientRequest.class);
+        verify(callAdvisorChain).nextCall(captor.capture());
+        return captor.getValue();
+    }
+}
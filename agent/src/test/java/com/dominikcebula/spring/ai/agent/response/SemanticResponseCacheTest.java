@@ -0,0 +1,113 @@
+package com.dominikcebula.spring.ai.agent.response;
+
+import com.dominikcebula.spring.ai.agent.tools.InventoryChangedEvent;
+import com.dominikcebula.spring.ai.agent.tools.TravelInventory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticResponseCacheTest {
+    private static final Instant NOW = Instant.parse("2026-01-31T12:00:00Z");
+
+    private static final float[] FLIGHTS_KRAKOW_FRANKFURT = {1.0f, 0.0f, 0.0f};
+    private static final float[] FLIGHTS_FROM_KRAKOW_TO_FRANKFURT = {0.99f, 0.05f, 0.0f};
+    private static final float[] HOTELS_IN_FRANKFURT = {0.0f, 1.0f, 0.0f};
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldServeResponseOfSimilarPrompt() {
+        // given
+        SemanticResponseCache cache = newCache(Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put(FLIGHTS_KRAKOW_FRANKFURT, "LH1365 departs at 06:00", Set.of(TravelInventory.FLIGHTS), NOW);
+
+        // when / then
+        assertThat(cache.lookup(FLIGHTS_FROM_KRAKOW_TO_FRANKFURT)).contains("LH1365 departs at 06:00");
+        assertThat(cache.lookup(HOTELS_IN_FRANKFURT)).isEmpty();
+        assertThat(meterRegistry.counter("agent.response-cache.lookups", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("agent.response-cache.lookups", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInvalidateResponsesOfChangedInventoryOnly() {
+        // given
+        SemanticResponseCache cache = newCache(Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put(FLIGHTS_KRAKOW_FRANKFURT, "LH1365 departs at 06:00", Set.of(TravelInventory.FLIGHTS), NOW);
+        cache.put(HOTELS_IN_FRANKFURT, "Hotel Frankfurter Hof has rooms", Set.of(TravelInventory.HOTELS), NOW);
+
+        // when
+        cache.onInventoryChanged(new InventoryChangedEvent(TravelInventory.FLIGHTS, "createFlightBooking"));
+
+        // then
+        assertThat(cache.lookup(FLIGHTS_KRAKOW_FRANKFURT)).isEmpty();
+        assertThat(cache.lookup(HOTELS_IN_FRANKFURT)).contains("Hotel Frankfurter Hof has rooms");
+    }
+
+    @Test
+    void shouldNotStoreResponseGeneratedWhileItsInventoryChanged() {
+        // given
+        SemanticResponseCache cache = newCache(Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.onInventoryChanged(new InventoryChangedEvent(TravelInventory.FLIGHTS, "cancelFlightBooking"));
+
+        // when
+        cache.put(FLIGHTS_KRAKOW_FRANKFURT, "LH1365 departs at 06:00", Set.of(TravelInventory.FLIGHTS), NOW);
+
+        // then
+        assertThat(cache.lookup(FLIGHTS_KRAKOW_FRANKFURT)).isEmpty();
+    }
+
+    @Test
+    void shouldExpireResponsesAndRecordAgeOfHits() {
+        // given
+        MutableClock clock = new MutableClock(NOW);
+        SemanticResponseCache cache = newCache(clock);
+        cache.put(FLIGHTS_KRAKOW_FRANKFURT, "LH1365 departs at 06:00", Set.of(TravelInventory.FLIGHTS), NOW);
+
+        // when
+        clock.instant = NOW.plus(Duration.ofMinutes(5));
+        boolean servedBeforeExpiry = cache.lookup(FLIGHTS_KRAKOW_FRANKFURT).isPresent();
+        clock.instant = NOW.plus(Duration.ofMinutes(11));
+        boolean servedAfterExpiry = cache.lookup(FLIGHTS_KRAKOW_FRANKFURT).isPresent();
+
+        // then
+        assertThat(servedBeforeExpiry).isTrue();
+        assertThat(servedAfterExpiry).isFalse();
+        assertThat(meterRegistry.summary("agent.response-cache.hit.age").max()).isEqualTo(300.0);
+    }
+
+    private SemanticResponseCache newCache(Clock clock) {
+        return new SemanticResponseCache(0.95, Duration.ofMinutes(10), 100, clock, meterRegistry);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
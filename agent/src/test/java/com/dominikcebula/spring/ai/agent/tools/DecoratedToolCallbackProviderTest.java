@@ -0,0 +1,88 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.McpToolsChangedEvent;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DecoratedToolCallbackProviderTest {
+    @Test
+    void shouldForwardToolsChangedEventsToWrappedListener() {
+        // given
+        RefreshingToolCallbackProvider refreshingProvider = new RefreshingToolCallbackProvider();
+        SimpleApplicationEventMulticaster eventMulticaster = new SimpleApplicationEventMulticaster();
+        eventMulticaster.addApplicationListener(new DecoratedToolCallbackProvider(refreshingProvider, toolCallback -> toolCallback));
+        McpToolsChangedEvent toolsChangedEvent = new McpToolsChangedEvent("flights-mcp-server", List.of());
+
+        // when
+        eventMulticaster.multicastEvent(toolsChangedEvent);
+        eventMulticaster.multicastEvent(new PayloadApplicationEvent<>(this, "unrelated"));
+
+        // then
+        assertThat(refreshingProvider.receivedEvents).containsExactly(toolsChangedEvent);
+    }
+
+    @Test
+    void shouldIgnoreEventsWhenWrappedProviderIsNoListener() {
+        // given
+        ToolCallbackProvider staticProvider = () -> new ToolCallback[0];
+        DecoratedToolCallbackProvider decoratedProvider = new DecoratedToolCallbackProvider(staticProvider, toolCallback -> toolCallback);
+
+        // when
+        boolean supportsToolsChangedEvent = decoratedProvider.supportsEventType(McpToolsChangedEvent.class);
+
+        // then
+        assertThat(supportsToolsChangedEvent).isFalse();
+        decoratedProvider.onApplicationEvent(new McpToolsChangedEvent("flights-mcp-server", List.of()));
+    }
+
+    @Test
+    void shouldDecorateCallbacksOnEveryLookup() {
+        // given
+        RefreshingToolCallbackProvider refreshingProvider = new RefreshingToolCallbackProvider();
+        ToolCallback decoratingCallback = mock(ToolCallback.class);
+        DecoratedToolCallbackProvider decoratedProvider = new DecoratedToolCallbackProvider(refreshingProvider, toolCallback -> decoratingCallback);
+
+        // when
+        refreshingProvider.onApplicationEvent(new McpToolsChangedEvent("flights-mcp-server", List.of()));
+        ToolCallback[] toolCallbacks = decoratedProvider.getToolCallbacks();
+
+        // then
+        assertThat(toolCallbacks).containsExactly(decoratingCallback, decoratingCallback);
+    }
+
+    private static class RefreshingToolCallbackProvider implements ToolCallbackProvider, ApplicationListener<McpToolsChangedEvent> {
+        private final List<McpToolsChangedEvent> receivedEvents = new ArrayList<>();
+
+        @Override
+        public ToolCallback[] getToolCallbacks() {
+            ToolCallback[] toolCallbacks = new ToolCallback[receivedEvents.size() + 1];
+            for (int idx = 0; idx < toolCallbacks.length; idx++) {
+                toolCallbacks[idx] = toolCallback("getAllAvailableFlights");
+            }
+            return toolCallbacks;
+        }
+
+        @Override
+        public void onApplicationEvent(McpToolsChangedEvent event) {
+            receivedEvents.add(event);
+        }
+
+        private static ToolCallback toolCallback(String toolName) {
+            ToolCallback toolCallback = mock(ToolCallback.class);
+            when(toolCallback.getToolDefinition()).thenReturn(new DefaultToolDefinition(toolName, toolName, "{}"));
+            return toolCallback;
+        }
+    }
+}
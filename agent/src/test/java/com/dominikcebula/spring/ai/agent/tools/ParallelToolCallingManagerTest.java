@@ -0,0 +1,191 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class ParallelToolCallingManagerTest {
+    private static final Prompt PROMPT = new Prompt(new UserMessage("Plan my trip from Kraków to Frankfurt"));
+
+    @Test
+    void shouldRunReadsConcurrentlyAndKeepOriginalOrder() {
+        // given
+        SleepingToolCallingManager delegate = new SleepingToolCallingManager(Map.of(
+                "getAllAvailableFlights", Duration.ofMillis(300),
+                "searchForAvailableRooms", Duration.ofMillis(100),
+                "searchForAvailableCarsForRent", Duration.ofMillis(200)));
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(delegate, ObservationRegistry.NOOP, true, Duration.ofSeconds(5));
+
+        // when
+        long startedAt = System.nanoTime();
+        ToolExecutionResult result = manager.executeToolCalls(PROMPT, toolCalls("getAllAvailableFlights", "searchForAvailableRooms", "searchForAvailableCarsForRent"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        // then
+        assertThat(elapsed).isLessThan(Duration.ofMillis(550));
+        assertThat(delegate.maxConcurrentCalls).hasValue(3);
+        assertThat(toolResponses(result))
+                .extracting(ToolResponseMessage.ToolResponse::responseData)
+                .containsExactly("getAllAvailableFlights result", "searchForAvailableRooms result", "searchForAvailableCarsForRent result");
+        assertThat(result.conversationHistory()).hasSize(3);
+    }
+
+    @Test
+    void shouldSerialiseBookingChanges() {
+        // given
+        SleepingToolCallingManager delegate = new SleepingToolCallingManager(Map.of(
+                "createFlightBooking", Duration.ofMillis(100),
+                "createHotelBooking", Duration.ofMillis(100),
+                "createCarRentalBooking", Duration.ofMillis(100)));
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(delegate, ObservationRegistry.NOOP, true, Duration.ofSeconds(5));
+
+        // when
+        ToolExecutionResult result = manager.executeToolCalls(PROMPT, toolCalls("createFlightBooking", "createHotelBooking", "createCarRentalBooking"));
+
+        // then
+        assertThat(delegate.maxConcurrentCalls).hasValue(1);
+        assertThat(delegate.startedToolNames).containsExactly("createFlightBooking", "createHotelBooking", "createCarRentalBooking");
+        assertThat(toolResponses(result)).hasSize(3);
+    }
+
+    @Test
+    void shouldReportToolThatDidNotRespondInTime() {
+        // given
+        SleepingToolCallingManager delegate = new SleepingToolCallingManager(Map.of(
+                "getAllAvailableFlights", Duration.ofSeconds(5),
+                "getAllAvailableHotels", Duration.ofMillis(10)));
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(delegate, ObservationRegistry.NOOP, true, Duration.ofMillis(200));
+
+        // when
+        ToolExecutionResult result = manager.executeToolCalls(PROMPT, toolCalls("getAllAvailableFlights", "getAllAvailableHotels"));
+
+        // then
+        assertThat(toolResponses(result))
+                .extracting(ToolResponseMessage.ToolResponse::responseData)
+                .containsExactly("Tool getAllAvailableFlights did not respond within PT0.2S and was cancelled. "
+                        + "Do not call it again in this turn, tell the user it is unavailable right now", "getAllAvailableHotels result");
+        await().atMost(Duration.ofSeconds(1)).untilAsserted(() ->
+                assertThat(delegate.interruptedToolNames).containsExactly("getAllAvailableFlights"));
+    }
+
+    @Test
+    void shouldWaitForSlowBookingChangeInsteadOfTimingItOut() {
+        // given
+        SleepingToolCallingManager delegate = new SleepingToolCallingManager(Map.of(
+                "createFlightBooking", Duration.ofMillis(400),
+                "createHotelBooking", Duration.ofMillis(10)));
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(delegate, ObservationRegistry.NOOP, true, Duration.ofMillis(100));
+
+        // when
+        ToolExecutionResult result = manager.executeToolCalls(PROMPT, toolCalls("createFlightBooking", "createHotelBooking"));
+
+        // then
+        assertThat(delegate.maxConcurrentCalls).hasValue(1);
+        assertThat(delegate.interruptedToolNames).isEmpty();
+        assertThat(toolResponses(result))
+                .extracting(ToolResponseMessage.ToolResponse::responseData)
+                .containsExactly("createFlightBooking result", "createHotelBooking result");
+    }
+
+    @Test
+    void shouldRunBookingReadsAfterChangesOfTheirInventory() {
+        // given
+        SleepingToolCallingManager delegate = new SleepingToolCallingManager(Map.of(
+                "getAllFlightsBookings", Duration.ofMillis(50),
+                "createFlightBooking", Duration.ofMillis(300),
+                "getCarRentalBooking", Duration.ofMillis(50),
+                "getAllAvailableHotels", Duration.ofMillis(50)));
+        ParallelToolCallingManager manager = new ParallelToolCallingManager(delegate, ObservationRegistry.NOOP, true, Duration.ofSeconds(5));
+
+        // when
+        ToolExecutionResult result = manager.executeToolCalls(PROMPT, toolCalls("getAllFlightsBookings", "createFlightBooking", "getCarRentalBooking", "getAllAvailableHotels"));
+
+        // then
+        assertThat(delegate.events.indexOf("finished createFlightBooking"))
+                .isLessThan(delegate.events.indexOf("started getAllFlightsBookings"))
+                .isGreaterThan(delegate.events.indexOf("finished getCarRentalBooking"))
+                .isGreaterThan(delegate.events.indexOf("finished getAllAvailableHotels"));
+        assertThat(toolResponses(result))
+                .extracting(ToolResponseMessage.ToolResponse::responseData)
+                .containsExactly("getAllFlightsBookings result", "createFlightBooking result", "getCarRentalBooking result", "getAllAvailableHotels result");
+    }
+
+    private static ChatResponse toolCalls(String... toolNames) {
+        List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+        for (int idx = 0; idx < toolNames.length; idx++) {
+            toolCalls.add(new AssistantMessage.ToolCall("call-" + idx, "function", toolNames[idx], "{}"));
+        }
+
+        return ChatResponse.builder()
+                .generations(List.of(new Generation(AssistantMessage.builder().content("").toolCalls(toolCalls).build())))
+                .build();
+    }
+
+    private static List<ToolResponseMessage.ToolResponse> toolResponses(ToolExecutionResult result) {
+        return ((ToolResponseMessage) result.conversationHistory().getLast()).getResponses();
+    }
+
+    private static class SleepingToolCallingManager implements ToolCallingManager {
+        private final Map<String, Duration> durations;
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+        private final List<String> startedToolNames = new CopyOnWriteArrayList<>();
+        private final List<String> interruptedToolNames = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        private SleepingToolCallingManager(Map<String, Duration> durations) {
+            this.durations = durations;
+        }
+
+        @Override
+        public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+            return List.of();
+        }
+
+        @Override
+        public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+            AssistantMessage assistantMessage = chatResponse.getResult().getOutput();
+            AssistantMessage.ToolCall toolCall = assistantMessage.getToolCalls().getFirst();
+
+            startedToolNames.add(toolCall.name());
+            events.add("started " + toolCall.name());
+            maxConcurrentCalls.accumulateAndGet(concurrentCalls.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(durations.get(toolCall.name()));
+            } catch (InterruptedException e) {
+                interruptedToolNames.add(toolCall.name());
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentCalls.decrementAndGet();
+                events.add("finished " + toolCall.name());
+            }
+
+            List<Message> conversationHistory = new ArrayList<>(prompt.getInstructions());
+            conversationHistory.add(assistantMessage);
+            conversationHistory.add(ToolResponseMessage.builder()
+                    .responses(List.of(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), toolCall.name() + " result")))
+                    .build());
+            return ToolExecutionResult.builder().conversationHistory(conversationHistory).build();
+        }
+    }
+}
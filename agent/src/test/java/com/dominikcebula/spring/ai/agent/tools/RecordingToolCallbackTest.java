@@ -0,0 +1,66 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import com.dominikcebula.spring.ai.agent.jfr.ConversationIdHash;
+import com.dominikcebula.spring.ai.agent.jfr.ToolInvocationEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecordingToolCallbackTest {
+    private static final UUID CONVERSATION_ID = UUID.fromString("8d4c6f1e-2b7a-4c1e-9f3d-5a6b7c8d9e0f");
+
+    @TempDir
+    private Path recordingDirectory;
+
+    @Test
+    void shouldRecordToolInvocationWithConversationIdHashAndPayloadSizes() throws IOException {
+        // given
+        ToolCallback delegate = mock(ToolCallback.class);
+        when(delegate.getToolDefinition()).thenReturn(new DefaultToolDefinition("getAllAvailableFlights", "Lists flights", "{}"));
+        when(delegate.call(any(), any())).thenReturn("[{\"flightNumber\":\"LH1623\"}]");
+
+        RecordingToolCallback recordingToolCallback = new RecordingToolCallback(delegate);
+        ToolContext toolContext = new ToolContext(ToolUsage.toolContext(CONVERSATION_ID));
+
+        // when
+        List<RecordedEvent> events = record(() -> recordingToolCallback.call("{\"arrivalAirport\":\"FRA\"}", toolContext));
+
+        // then
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getLong("conversationIdHash")).isEqualTo(ConversationIdHash.of(CONVERSATION_ID));
+            assertThat(event.getString("toolName")).isEqualTo("getAllAvailableFlights");
+            assertThat(event.getInt("inputCharacters")).isEqualTo(24);
+            assertThat(event.getInt("outputCharacters")).isEqualTo(27);
+            assertThat(event.getBoolean("failed")).isFalse();
+        });
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        Path recordingFile = recordingDirectory.resolve("tools.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(ToolInvocationEvent.class).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        return RecordingFile.readAllEvents(recordingFile);
+    }
+}
@@ -0,0 +1,42 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolAccessTest {
+    @ParameterizedTest
+    @CsvSource({
+            "searchForAvailableCarsForRent, INVENTORY_READ, CARS",
+            "getAllAvailableFlights, INVENTORY_READ, FLIGHTS",
+            "getRoomsByHotelId, INVENTORY_READ, HOTELS",
+            "getCarRentalBooking, BOOKING_READ, CARS",
+            "getAllFlightsBookings, BOOKING_READ, FLIGHTS",
+            "createHotelBooking, BOOKING_WRITE, HOTELS",
+            "updateFlightBooking, BOOKING_WRITE, FLIGHTS",
+            "cancelCarRentalBooking, BOOKING_WRITE, CARS",
+            "getHotelBookingsByBookingReference, BOOKING_READ, HOTELS",
+            "deleteAllHotelRooms, UNKNOWN, HOTELS",
+            "blockFlightSeats, UNKNOWN, FLIGHTS"
+    })
+    void shouldClassifyTravelTools(String toolName, ToolAccess expectedAccess, TravelInventory expectedInventory) {
+        // when
+        ToolAccess toolAccess = ToolAccess.of(toolName);
+
+        // then
+        assertThat(toolAccess).isEqualTo(expectedAccess);
+        assertThat(TravelInventory.of(toolName)).contains(expectedInventory);
+    }
+
+    @Test
+    void shouldTreatUnknownToolsAsPossiblyChangingState() {
+        // when
+        ToolAccess toolAccess = ToolAccess.of("reserveCarUntilPickup");
+
+        // then
+        assertThat(toolAccess).isEqualTo(ToolAccess.UNKNOWN);
+        assertThat(toolAccess.readOnly()).isFalse();
+    }
+}
@@ -0,0 +1,115 @@
+package com.dominikcebula.spring.ai.agent.tools;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolResultCacheTest {
+    private static final UUID CONVERSATION_ID = UUID.fromString("8d4c6f1e-2b7a-4c1e-9f3d-5a6b7c8d9e0f");
+    private static final UUID OTHER_CONVERSATION_ID = UUID.fromString("1f2e3d4c-5b6a-4978-8695-a4b3c2d1e0f9");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ToolResultCache toolResultCache = new ToolResultCache(true, Duration.ofMinutes(5), 100, meterRegistry);
+    private final AtomicInteger toolCalls = new AtomicInteger();
+
+    @Test
+    void shouldServeRepeatedReadWithEquivalentArgumentsFromCache() {
+        // when
+        toolResultCache.call("getAllAvailableFlights", "{\"departureAirport\":\"KRK\",\"arrivalAirport\":\"FRA\"}", CONVERSATION_ID, toolCall("flights"));
+        String cachedResult = toolResultCache.call("getAllAvailableFlights", "{\"arrivalAirport\":\"FRA\",\"departureAirport\":\"KRK\",\"via\":null}", CONVERSATION_ID, toolCall("flights"));
+
+        // then
+        assertThat(cachedResult).isEqualTo("flights");
+        assertThat(toolCalls).hasValue(1);
+        assertThat(meterRegistry.counter("agent.tools.cache.requests", "tool", "getAllAvailableFlights", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("agent.tools.cache.requests", "tool", "getAllAvailableFlights", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNeverCacheBookingChanges() {
+        // when
+        toolResultCache.call("createHotelBooking", "{\"hotelId\":\"1\"}", CONVERSATION_ID, toolCall("booked"));
+        toolResultCache.call("createHotelBooking", "{\"hotelId\":\"1\"}", CONVERSATION_ID, toolCall("booked"));
+
+        // then
+        assertThat(toolCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldInvalidateResultsOfChangedInventoryOnly() {
+        // given
+        toolResultCache.call("searchForAvailableCarsForRent", "{\"city\":\"Frankfurt\"}", CONVERSATION_ID, toolCall("cars"));
+        toolResultCache.call("getAllAvailableHotels", "{}", CONVERSATION_ID, toolCall("hotels"));
+
+        // when
+        toolResultCache.onInventoryChanged(new InventoryChangedEvent(TravelInventory.CARS, "createCarRentalBooking"));
+        toolResultCache.call("searchForAvailableCarsForRent", "{\"city\":\"Frankfurt\"}", CONVERSATION_ID, toolCall("cars"));
+        toolResultCache.call("getAllAvailableHotels", "{}", CONVERSATION_ID, toolCall("hotels"));
+
+        // then
+        assertThat(toolCalls).hasValue(3);
+    }
+
+    @Test
+    void shouldNotCacheResultReadWhileItsInventoryChanged() {
+        // given
+        Supplier<String> readRacingWithBooking = () -> {
+            toolResultCache.onInventoryChanged(new InventoryChangedEvent(TravelInventory.FLIGHTS, "cancelFlightBooking"));
+            return toolCall("flights").get();
+        };
+
+        // when
+        toolResultCache.call("getFlightByNumber", "{\"flightNumber\":\"LH1365\"}", CONVERSATION_ID, readRacingWithBooking);
+        toolResultCache.call("getFlightByNumber", "{\"flightNumber\":\"LH1365\"}", CONVERSATION_ID, toolCall("flights"));
+
+        // then
+        assertThat(toolCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotShareBookingReadsBetweenConversations() {
+        // when
+        toolResultCache.call("getAllFlightsBookings", "{}", CONVERSATION_ID, toolCall("bookings of the first traveller"));
+        String repeatedResult = toolResultCache.call("getAllFlightsBookings", "{}", CONVERSATION_ID, toolCall("bookings of the first traveller"));
+        String otherConversationResult = toolResultCache.call("getAllFlightsBookings", "{}", OTHER_CONVERSATION_ID, toolCall("bookings of the second traveller"));
+
+        // then
+        assertThat(repeatedResult).isEqualTo("bookings of the first traveller");
+        assertThat(otherConversationResult).isEqualTo("bookings of the second traveller");
+        assertThat(toolCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheBookingReadsOutsideOfConversation() {
+        // when
+        toolResultCache.call("getAllFlightsBookings", "{}", null, toolCall("bookings"));
+        toolResultCache.call("getAllFlightsBookings", "{}", null, toolCall("bookings"));
+
+        // then
+        assertThat(toolCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldShareInventoryReadsBetweenConversations() {
+        // when
+        toolResultCache.call("getAllAvailableHotels", "{}", CONVERSATION_ID, toolCall("hotels"));
+        toolResultCache.call("getAllAvailableHotels", "{}", OTHER_CONVERSATION_ID, toolCall("hotels"));
+
+        // then
+        assertThat(toolCalls).hasValue(1);
+    }
+
+    private Supplier<String> toolCall(String result) {
+        return () -> {
+            toolCalls.incrementAndGet();
+            return result;
+        };
+    }
+}